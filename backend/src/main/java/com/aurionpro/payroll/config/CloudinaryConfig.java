@@ -1,13 +1,16 @@
 package com.aurionpro.payroll.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 
+// Only needed (and only requires credentials) when documents are stored on Cloudinary
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
     
     @Value("${cloudinary.cloud-name}")
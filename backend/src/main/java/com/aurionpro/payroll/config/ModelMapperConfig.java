@@ -23,6 +23,7 @@ import com.aurionpro.payroll.dto.response.OrganizationList;
 import com.aurionpro.payroll.dto.response.OrganizationResponse;
 import com.aurionpro.payroll.dto.response.PaymentRequestList;
 import com.aurionpro.payroll.dto.response.PaymentRequestResponse;
+import com.aurionpro.payroll.dto.response.PayslipDeliveryResponse;
 import com.aurionpro.payroll.dto.response.SalaryPaymentHistory;
 import com.aurionpro.payroll.dto.response.SalaryPaymentResponse;
 import com.aurionpro.payroll.dto.response.SalaryStructureResponse;
@@ -33,6 +34,7 @@ import com.aurionpro.payroll.entity.Concern;
 import com.aurionpro.payroll.entity.Employee;
 import com.aurionpro.payroll.entity.Organization;
 import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.entity.PayslipDelivery;
 import com.aurionpro.payroll.entity.SalaryPayment;
 import com.aurionpro.payroll.entity.SalaryStructure;
 import com.aurionpro.payroll.entity.User;
@@ -199,6 +201,12 @@ public class ModelMapperConfig {
         // SalaryPayment -> SalaryPaymentHistory
         mm.typeMap(SalaryPayment.class, SalaryPaymentHistory.class);
         
+        // PayslipDelivery -> PayslipDeliveryResponse
+        mm.typeMap(PayslipDelivery.class, PayslipDeliveryResponse.class)
+            .addMappings(m -> {
+                m.map(src -> src.getSalaryPayment().getId(), PayslipDeliveryResponse::setSalaryPaymentId);
+            });
+        
         
         // =====================================================
         // PAYMENT REQUEST MAPPINGS
@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.aurionpro.payroll.dto.response.BatchUploadResponse;
+import com.aurionpro.payroll.service.BatchUploadService;
 import com.aurionpro.payroll.service.CloudinaryService;
 
 @RestController
@@ -22,6 +24,9 @@ public class FileUploadController {
     @Autowired
     private CloudinaryService cloudinaryService;
     
+    @Autowired
+    private BatchUploadService batchUploadService;
+    
     @PostMapping("/upload/organization-documents")
     @PreAuthorize("hasRole('ORGANIZATION')")
     public ResponseEntity<Map<String, String>> uploadOrganizationDocuments(
@@ -96,4 +101,35 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
+    
+    
+    // Several files per request, uploaded concurrently; each file gets its URL or its error
+    
+    @PostMapping("/upload/organization-documents/batch")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<BatchUploadResponse> uploadOrganizationDocumentsBatch(
+            @RequestParam("files") MultipartFile[] files) {
+        return batchResponse(batchUploadService.upload(files, "organization_documents"));
+    }
+    
+    @PostMapping("/upload/employee-account-proof/batch")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<BatchUploadResponse> uploadEmployeeAccountProofsBatch(
+            @RequestParam("files") MultipartFile[] files) {
+        return batchResponse(batchUploadService.upload(files, "employee_account_proofs"));
+    }
+    
+    @PostMapping("/upload/concern-attachment/batch")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'ORGANIZATION')")
+    public ResponseEntity<BatchUploadResponse> uploadConcernAttachmentsBatch(
+            @RequestParam("files") MultipartFile[] files) {
+        return batchResponse(batchUploadService.upload(files, "concern_attachments"));
+    }
+    
+    // 200 when every file was stored, 207 when some were, 400 when none were
+    private ResponseEntity<BatchUploadResponse> batchResponse(BatchUploadResponse response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.OK
+            : response.getUploaded() > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.aurionpro.payroll.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.aurionpro.payroll.service.LocalStorageBackend;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Serves documents of the local storage backend at the URLs it hands out (public, like Cloudinary URLs)
+@RestController
+@RequestMapping("/api/files/local")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileController {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private LocalStorageBackend localStorageBackend;
+
+    @GetMapping("/**")
+    public ResponseEntity<StreamingResponseBody> getFile(HttpServletRequest request) throws IOException {
+        String key = PATH_MATCHER.extractPathWithinPattern(
+            (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+            (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+        Path path = localStorageBackend.locate(key);
+        String fileName = path.getFileName().toString();
+
+        StreamingResponseBody body = out -> localStorageBackend.transferTo(path, out);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        headers.setContentLength(Files.size(path));
+        headers.setContentDisposition(ContentDisposition.inline().filename(fileName).build());
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -13,11 +13,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.aurionpro.payroll.dto.request.PaymentRequestRequest;
 import com.aurionpro.payroll.dto.response.OrganizationResponse;
 import com.aurionpro.payroll.dto.response.PaymentRequestResponse;
+import com.aurionpro.payroll.dto.response.PayrollPreview;
+import com.aurionpro.payroll.enums.PeriodRange;
 import com.aurionpro.payroll.security.CustomUserDetailsService;
 import com.aurionpro.payroll.service.OrganizationService;
 import com.aurionpro.payroll.service.PaymentRequestService;
@@ -51,14 +54,32 @@ public class PaymentRequestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    // Headcount and totals a salary disbursement would pay for the period (writes nothing)
+    @GetMapping("/preview")
+    public ResponseEntity<PayrollPreview> previewSalaryDisbursement(
+            @RequestParam String month,
+            @RequestParam Integer year,
+            Authentication authentication) {
+        
+        String email = authentication.getName();
+        Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
+        OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
+        
+        return ResponseEntity.ok(paymentRequestService.previewSalaryDisbursement(org.getId(), month, year));
+    }
+    
     @GetMapping
-    public ResponseEntity<List<PaymentRequestResponse>> getAllMyPaymentRequests(Authentication authentication) {
+    public ResponseEntity<List<PaymentRequestResponse>> getAllMyPaymentRequests(
+            @RequestParam(required = false) PeriodRange range,
+            Authentication authentication) {
         String email = authentication.getName();
         Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
         OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
         
-        List<PaymentRequestResponse> requests = 
-            paymentRequestService.getAllPaymentRequestsByOrganization(org.getId());
+        // Optional LAST_12_MONTHS / FINANCIAL_YEAR_TO_DATE filter
+        List<PaymentRequestResponse> requests = range != null
+            ? paymentRequestService.getPaymentRequestsByOrganizationAndRange(org.getId(), range)
+            : paymentRequestService.getAllPaymentRequestsByOrganization(org.getId());
         return ResponseEntity.ok(requests);
     }
     
@@ -0,0 +1,89 @@
+package com.aurionpro.payroll.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aurionpro.payroll.dto.response.OrganizationResponse;
+import com.aurionpro.payroll.dto.response.PayrollSummaryReconciliation;
+import com.aurionpro.payroll.dto.response.PayrollSummaryTotals;
+import com.aurionpro.payroll.enums.PeriodRange;
+import com.aurionpro.payroll.security.CustomUserDetailsService;
+import com.aurionpro.payroll.service.OrganizationService;
+import com.aurionpro.payroll.service.PayrollAnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics/payroll")
+public class PayrollAnalyticsController {
+
+    @Autowired
+    private PayrollAnalyticsService payrollAnalyticsService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+
+    // Cost, headcount and PF per period and department (default: last 12 months)
+    @GetMapping("/departments")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<List<PayrollSummaryTotals>> getDepartmentTotals(
+            @RequestParam(required = false) PeriodRange range, Authentication authentication) {
+        OrganizationResponse org = currentOrganization(authentication);
+        return ResponseEntity.ok(payrollAnalyticsService.getDepartmentTotals(org.getId(), orDefault(range)));
+    }
+
+    // Month-by-month payroll trend of the whole organization
+    @GetMapping("/trend")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<List<PayrollSummaryTotals>> getPeriodTotals(
+            @RequestParam(required = false) PeriodRange range, Authentication authentication) {
+        OrganizationResponse org = currentOrganization(authentication);
+        return ResponseEntity.ok(payrollAnalyticsService.getPeriodTotals(org.getId(), orDefault(range)));
+    }
+
+    // Check the organization's summary against its payments, optionally rebuilding it
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<PayrollSummaryReconciliation> reconcile(
+            @RequestParam(defaultValue = "false") boolean repair, Authentication authentication) {
+        OrganizationResponse org = currentOrganization(authentication);
+        System.out.println("🔎 Reconciling payroll summary for: " + org.getName() + (repair ? " (repair)" : ""));
+        return ResponseEntity.ok(payrollAnalyticsService.reconcile(org.getId(), repair));
+    }
+
+    // Same for every organization
+    @PostMapping("/reconcile/all")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollSummaryReconciliation> reconcileAll(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(payrollAnalyticsService.reconcileAll(repair));
+    }
+
+    // Result of the last all-organization pass (scheduled or manual)
+    @GetMapping("/reconcile/last")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollSummaryReconciliation> getLastReconciliation() {
+        PayrollSummaryReconciliation last = payrollAnalyticsService.getLastReconciliation();
+        return last != null ? ResponseEntity.ok(last) : ResponseEntity.noContent().build();
+    }
+
+
+    private OrganizationResponse currentOrganization(Authentication authentication) {
+        Long userId = userDetailsService.loadUserEntityByEmail(authentication.getName()).getId();
+        return organizationService.getOrganizationByUserId(userId);
+    }
+
+    private static PeriodRange orDefault(PeriodRange range) {
+        return range != null ? range : PeriodRange.LAST_12_MONTHS;
+    }
+}
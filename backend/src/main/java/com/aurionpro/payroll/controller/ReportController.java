@@ -1,26 +1,45 @@
 package com.aurionpro.payroll.controller;
 
+import java.io.InputStream;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.aurionpro.payroll.dto.request.ReportFilter;
 import com.aurionpro.payroll.dto.response.OrganizationResponse;
+import com.aurionpro.payroll.dto.response.ReportJobResponse;
+import com.aurionpro.payroll.dto.response.ReportJobStats;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.exception.BadRequestException;
 import com.aurionpro.payroll.security.CustomUserDetailsService;
 import com.aurionpro.payroll.service.CloudinaryService;
 import com.aurionpro.payroll.service.ExcelGenerationService;
 import com.aurionpro.payroll.service.OrganizationService;
 import com.aurionpro.payroll.service.PdfGenerationService;
+import com.aurionpro.payroll.service.ReportCache;
+import com.aurionpro.payroll.service.ReportJob;
+import com.aurionpro.payroll.service.ReportJobService;
+import com.aurionpro.payroll.service.SalaryReportCriteria;
+import com.aurionpro.payroll.util.PayrollPeriod;
 
 import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -43,29 +62,49 @@ public class ReportController {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private ReportCache reportCache;
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    private static final String EXCEL_CONTENT_TYPE =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    
     
     //EMPLOYEE LIST REPORTS
     
     //direct download emp list as excel
     @GetMapping("/employees/excel/download")
-    public ResponseEntity<byte[]> downloadEmployeeListExcel(Authentication authentication) {
+    public ResponseEntity<StreamingResponseBody> downloadEmployeeListExcel(Authentication authentication) {
         String email = authentication.getName();
         Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
         OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
         
-        System.out.println("📊 Generating employee list Excel for: " + org.getName());
-        
-        byte[] excelBytes = excelGenerationService.generateEmployeeListExcel(org.getId());
+        String version = reportCache.employeeListVersion(org.getId());
+        byte[] cached = reportCache.peekBytes(org.getId(), ReportType.EMPLOYEE_LIST, ReportFormat.EXCEL, null, version);
+        
+        StreamingResponseBody body;
+        if (cached != null) {
+            System.out.println("♻️ Serving cached employee list Excel for: " + org.getName());
+            body = out -> out.write(cached);
+        } else {
+            System.out.println("📊 Streaming employee list Excel for: " + org.getName());
+            
+            // Rows are written straight to the response as the workbook flushes them
+            body = out -> {
+                excelGenerationService.writeEmployeeListExcel(org.getId(), out);
+                System.out.println("✅ Employee list Excel streamed successfully");
+            };
+        }
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentType(MediaType.parseMediaType(EXCEL_CONTENT_TYPE));
         headers.setContentDispositionFormData("attachment", "employee_list.xlsx");
         
-        System.out.println("✅ Employee list Excel generated successfully");
-        
         return ResponseEntity.ok()
             .headers(headers)
-            .body(excelBytes);
+            .body(body);
     }
     
     /**
@@ -82,19 +121,19 @@ public class ReportController {
         System.out.println("═══════════════════════════════════════");
         System.out.println("🏢 Organization: " + org.getName());
         
-        // Generate Excel
-        byte[] excelBytes = excelGenerationService.generateEmployeeListExcel(org.getId());
-        
         // Create filename
         String fileName = String.format("employee_list_%s_%s",
             org.getName().replace(" ", "_"),
             java.time.LocalDate.now()
         );
         
-        // Upload to Cloudinary
-        String excelUrl = cloudinaryService.uploadExcel(excelBytes, fileName, "reports/employee-lists");
+        // Generate and upload to Cloudinary unless this data version was uploaded already
+        String excelUrl = reportCache.getUrl(org.getId(), ReportType.EMPLOYEE_LIST, ReportFormat.EXCEL, null,
+            reportCache.employeeListVersion(org.getId()),
+            () -> excelGenerationService.generateEmployeeListExcel(org.getId()),
+            (excelBytes, contentKey) -> cloudinaryService.uploadExcel(excelBytes, fileName, "reports/employee-lists", contentKey));
         
-        System.out.println("✅ Excel generated and uploaded");
+        System.out.println("✅ Excel ready");
         System.out.println("🔗 URL: " + excelUrl);
         System.out.println("═══════════════════════════════════════");
         
@@ -116,7 +155,7 @@ public class ReportController {
      * Download Salary Report as Excel - Direct Download
      */
     @GetMapping("/salary-report/excel/download")
-    public ResponseEntity<byte[]> downloadSalaryReportExcel(
+    public ResponseEntity<StreamingResponseBody> downloadSalaryReportExcel(
             @RequestParam String month,
             @RequestParam Integer year,
             Authentication authentication) {
@@ -125,19 +164,32 @@ public class ReportController {
         Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
         OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
         
-        System.out.println("📊 Generating salary report Excel: " + month + " " + year);
-        
-        byte[] excelBytes = excelGenerationService.generateSalaryReportExcel(org.getId(), month, year);
+        // Validate before the response is committed
+        Integer periodKey = toPeriodKey(month, year);
+        
+        String version = reportCache.salaryReportVersion(org.getId(), periodKey);
+        byte[] cached = reportCache.peekBytes(org.getId(), ReportType.SALARY_REPORT, ReportFormat.EXCEL, periodKey, version);
+        
+        StreamingResponseBody body;
+        if (cached != null) {
+            System.out.println("♻️ Serving cached salary report Excel: " + month + " " + year);
+            body = out -> out.write(cached);
+        } else {
+            System.out.println("📊 Streaming salary report Excel: " + month + " " + year);
+            
+            body = out -> {
+                excelGenerationService.writeSalaryReportExcel(org.getId(), month, year, out);
+                System.out.println("✅ Salary report Excel streamed successfully");
+            };
+        }
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentType(MediaType.parseMediaType(EXCEL_CONTENT_TYPE));
         headers.setContentDispositionFormData("attachment", "salary_report_" + month + "_" + year + ".xlsx");
         
-        System.out.println("✅ Salary report Excel generated successfully");
-        
         return ResponseEntity.ok()
             .headers(headers)
-            .body(excelBytes);
+            .body(body);
     }
     
     /**
@@ -159,8 +211,7 @@ public class ReportController {
         System.out.println("🏢 Organization: " + org.getName());
         System.out.println("📅 Period: " + month + " " + year);
         
-        // Generate Excel
-        byte[] excelBytes = excelGenerationService.generateSalaryReportExcel(org.getId(), month, year);
+        Integer periodKey = toPeriodKey(month, year);
         
         // Create filename
         String fileName = String.format("salary_report_%s_%s_%d",
@@ -169,10 +220,13 @@ public class ReportController {
             year
         );
         
-        // Upload to Cloudinary
-        String excelUrl = cloudinaryService.uploadExcel(excelBytes, fileName, "reports/salary-reports");
+        // Generate and upload to Cloudinary unless this data version was uploaded already
+        String excelUrl = reportCache.getUrl(org.getId(), ReportType.SALARY_REPORT, ReportFormat.EXCEL, periodKey,
+            reportCache.salaryReportVersion(org.getId(), periodKey),
+            () -> excelGenerationService.generateSalaryReportExcel(org.getId(), month, year),
+            (excelBytes, contentKey) -> cloudinaryService.uploadExcel(excelBytes, fileName, "reports/salary-reports", contentKey));
         
-        System.out.println("✅ Excel generated and uploaded");
+        System.out.println("✅ Excel ready");
         System.out.println("🔗 URL: " + excelUrl);
         System.out.println("═══════════════════════════════════════");
         
@@ -197,7 +251,7 @@ public class ReportController {
      * Download Salary Report as PDF - Direct Download
      */
     @GetMapping("/salary-report/pdf/download")
-    public ResponseEntity<byte[]> downloadSalaryReportPdf(
+    public ResponseEntity<StreamingResponseBody> downloadSalaryReportPdf(
             @RequestParam String month,
             @RequestParam Integer year,
             Authentication authentication) {
@@ -206,19 +260,32 @@ public class ReportController {
         Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
         OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
         
-        System.out.println("📄 Generating salary report PDF: " + month + " " + year);
-        
-        byte[] pdfBytes = pdfGenerationService.generateSalaryReportPdf(org.getId(), month, year);
+        // Validate before the response is committed
+        Integer periodKey = toPeriodKey(month, year);
+        
+        String version = reportCache.salaryReportVersion(org.getId(), periodKey);
+        byte[] cached = reportCache.peekBytes(org.getId(), ReportType.SALARY_REPORT, ReportFormat.PDF, periodKey, version);
+        
+        StreamingResponseBody body;
+        if (cached != null) {
+            System.out.println("♻️ Serving cached salary report PDF: " + month + " " + year);
+            body = out -> out.write(cached);
+        } else {
+            System.out.println("📄 Streaming salary report PDF: " + month + " " + year);
+            
+            body = out -> {
+                pdfGenerationService.writeSalaryReportPdf(org.getId(), month, year, out);
+                System.out.println("✅ Salary report PDF streamed successfully");
+            };
+        }
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", "salary_report_" + month + "_" + year + ".pdf");
         
-        System.out.println("✅ Salary report PDF generated successfully");
-        
         return ResponseEntity.ok()
             .headers(headers)
-            .body(pdfBytes);
+            .body(body);
     }
     
     /**
@@ -240,8 +307,7 @@ public class ReportController {
         System.out.println("🏢 Organization: " + org.getName());
         System.out.println("📅 Period: " + month + " " + year);
         
-        // Generate PDF
-        byte[] pdfBytes = pdfGenerationService.generateSalaryReportPdf(org.getId(), month, year);
+        Integer periodKey = toPeriodKey(month, year);
         
         // Create filename
         String fileName = String.format("salary_report_%s_%s_%d",
@@ -250,10 +316,13 @@ public class ReportController {
             year
         );
         
-        // Upload to Cloudinary
-        String pdfUrl = cloudinaryService.uploadPdf(pdfBytes, fileName, "reports/salary-reports");
+        // Generate and upload to Cloudinary unless this data version was uploaded already
+        String pdfUrl = reportCache.getUrl(org.getId(), ReportType.SALARY_REPORT, ReportFormat.PDF, periodKey,
+            reportCache.salaryReportVersion(org.getId(), periodKey),
+            () -> pdfGenerationService.generateSalaryReportPdf(org.getId(), month, year),
+            (pdfBytes, contentKey) -> cloudinaryService.uploadPdf(pdfBytes, fileName, "reports/salary-reports", contentKey));
         
-        System.out.println("✅ PDF generated and uploaded");
+        System.out.println("✅ PDF ready");
         System.out.println("🔗 URL: " + pdfUrl);
         System.out.println("═══════════════════════════════════════");
         
@@ -268,8 +337,107 @@ public class ReportController {
         ));
     }
     
+    // ═══════════════════════════════════════════════════════════
+    // FILTERED SALARY REPORT
+    // ═══════════════════════════════════════════════════════════
     
+    /**
+     * Salary report of the payments matching the filter (period or date range, department,
+     * employee, status) in the requested format - the filter runs in the database
+     */
+    @PostMapping("/salary-report/filtered/download")
+    public ResponseEntity<StreamingResponseBody> downloadFilteredSalaryReport(
+            @Valid @RequestBody ReportFilter filter,
+            Authentication authentication) {
+        
+        Long organizationId = currentOrganization(authentication).getId();
+        
+        // Validate before the response is committed
+        SalaryReportCriteria criteria = SalaryReportCriteria.of(organizationId, filter);
+        
+        System.out.println("📊 Streaming filtered salary report (" + criteria.getFormat() + "): " + criteria.getDescription());
+        
+        StreamingResponseBody body = criteria.getFormat() == ReportFormat.PDF
+            ? out -> pdfGenerationService.writeSalaryReportPdf(organizationId, filter, out)
+            : out -> excelGenerationService.writeSalaryReportExcel(organizationId, filter, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(criteria.getFormat() == ReportFormat.PDF
+            ? MediaType.APPLICATION_PDF
+            : MediaType.parseMediaType(EXCEL_CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", criteria.getFileName());
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
     
+    // ═══════════════════════════════════════════════════════════
+    // REPORT JOBS
+    // ═══════════════════════════════════════════════════════════
+    
+    /**
+     * Queue a report in the background; identical requests in flight share one job
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponse> submitReportJob(
+            @RequestParam ReportType type,
+            @RequestParam ReportFormat format,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer year,
+            Authentication authentication) {
+        
+        OrganizationResponse org = currentOrganization(authentication);
+        ReportJob job = reportJobService.submit(org.getId(), type, format, month, year);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+    }
     
- 
-}
\ No newline at end of file
+    /**
+     * Status of a report job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String jobId, Authentication authentication) {
+        OrganizationResponse org = currentOrganization(authentication);
+        return ResponseEntity.ok(reportJobService.getJob(org.getId(), jobId).toResponse());
+    }
+    
+    /**
+     * Download the document of a finished report job
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<InputStreamResource> downloadReportJob(@PathVariable String jobId, Authentication authentication) {
+        OrganizationResponse org = currentOrganization(authentication);
+        ReportJob job = reportJobService.getJob(org.getId(), jobId);
+        InputStream content = reportJobService.openContent(job);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getContentType()));
+        headers.setContentDispositionFormData("attachment", job.getFileName());
+        headers.setContentLength(job.getSizeBytes());
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(new InputStreamResource(content));
+    }
+    
+    /**
+     * Report worker pool metrics: queue depth, rejections and generation time per report
+     */
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<ReportJobStats> getReportJobStats() {
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
+    
+    private OrganizationResponse currentOrganization(Authentication authentication) {
+        Long userId = userDetailsService.loadUserEntityByEmail(authentication.getName()).getId();
+        return organizationService.getOrganizationByUserId(userId);
+    }
+    
+    private Integer toPeriodKey(String month, Integer year) {
+        Integer periodKey = PayrollPeriod.toKey(month, year);
+        if (periodKey == null) {
+            throw new BadRequestException("Invalid month: " + month);
+        }
+        return periodKey;
+    }
+}
@@ -1,9 +1,12 @@
 package com.aurionpro.payroll.controller;
 
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,15 +17,31 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.aurionpro.payroll.dto.response.EmployeeResponse;
+import com.aurionpro.payroll.dto.response.EmployeeYtdRebuildReport;
+import com.aurionpro.payroll.dto.response.EmployeeYtdSummary;
 import com.aurionpro.payroll.dto.response.OrganizationResponse;
+import com.aurionpro.payroll.dto.response.PayrollBatchReport;
+import com.aurionpro.payroll.dto.response.PayrollJobResponse;
+import com.aurionpro.payroll.dto.response.PayslipDeliveryResponse;
+import com.aurionpro.payroll.dto.response.PipelineStageStats;
 import com.aurionpro.payroll.dto.response.SalaryPaymentHistory;
 import com.aurionpro.payroll.dto.response.SalaryPaymentResponse;
+import com.aurionpro.payroll.enums.PeriodRange;
+import com.aurionpro.payroll.exception.BadRequestException;
 import com.aurionpro.payroll.security.CustomUserDetailsService;
+import com.aurionpro.payroll.service.BankFileService;
 import com.aurionpro.payroll.service.EmployeeService;
+import com.aurionpro.payroll.service.EmployeeYtdLedgerService;
 import com.aurionpro.payroll.service.OrganizationService;
+import com.aurionpro.payroll.service.PayrollBatchScheduler;
+import com.aurionpro.payroll.service.PayrollJobService;
+import com.aurionpro.payroll.service.PayslipArchiveService;
+import com.aurionpro.payroll.service.PayslipPipeline;
 import com.aurionpro.payroll.service.SalaryPaymentService;
+import com.aurionpro.payroll.util.PayrollPeriod;
 
 @RestController
 @RequestMapping("/api/salary-payments")
@@ -40,6 +59,24 @@ public class SalaryPaymentController {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private PayslipPipeline payslipPipeline;
+    
+    @Autowired
+    private PayrollBatchScheduler payrollBatchScheduler;
+    
+    @Autowired
+    private PayrollJobService payrollJobService;
+    
+    @Autowired
+    private BankFileService bankFileService;
+    
+    @Autowired
+    private PayslipArchiveService payslipArchiveService;
+    
+    @Autowired
+    private EmployeeYtdLedgerService employeeYtdLedgerService;
+    
     
     // Organization processes salary payments
     @PostMapping("/process/{paymentRequestId}")
@@ -52,17 +89,115 @@ public class SalaryPaymentController {
     }
     
     
+    // Start processing in the background; poll the returned job for progress
+    @PostMapping("/jobs/{paymentRequestId}")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollJobResponse> submitSalaryPaymentJob(@PathVariable Long paymentRequestId) {
+        PayrollJobResponse response = payrollJobService.submit(paymentRequestId).toResponse();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    
+    // Progress of a salary processing job
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollJobResponse> getSalaryPaymentJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(payrollJobService.getJob(jobId).toResponse());
+    }
+    
+    
+    // Bank admin disburses all approved salary requests in one batch
+    @PostMapping("/process-batch")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollBatchReport> processApprovedSalaryRequests() {
+        return ResponseEntity.ok(payrollBatchScheduler.runBatch());
+    }
+    
+    
+    // Report of the most recent batch (manual or scheduled)
+    @GetMapping("/process-batch/last")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<PayrollBatchReport> getLastBatchReport() {
+        PayrollBatchReport report = payrollBatchScheduler.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+    
+    
+    // Bank admin rebuilds every employee's YTD ledger from the raw payments
+    @PostMapping("/ytd/rebuild")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<EmployeeYtdRebuildReport> rebuildYtdLedgers() {
+        return ResponseEntity.ok(employeeYtdLedgerService.rebuild());
+    }
+    
+    
+    @GetMapping("/ytd/rebuild/last")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<EmployeeYtdRebuildReport> getLastYtdRebuild() {
+        EmployeeYtdRebuildReport report = employeeYtdLedgerService.getLastRebuild();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+    
+    
+    // Bulk transfer file (CSV with control totals) for the bank, streamed row by row
+    @GetMapping("/bank-file/{paymentRequestId}")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadBankFile(@PathVariable Long paymentRequestId) {
+        bankFileService.validate(paymentRequestId);
+        
+        StreamingResponseBody body = out -> bankFileService.writeDisbursementFile(paymentRequestId, Channels.newChannel(out));
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", bankFileService.fileName(paymentRequestId));
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+    
+    
+    // Every salary slip of a disbursement as one ZIP, rendered in parallel and streamed as it is built
+    @GetMapping("/payslips/archive/{paymentRequestId}")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadPayslipArchive(@PathVariable Long paymentRequestId) {
+        payslipArchiveService.validatePaymentRequest(paymentRequestId);
+        
+        StreamingResponseBody body = out -> payslipArchiveService.writePaymentRequestArchive(paymentRequestId, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("application", "zip"));
+        headers.setContentDispositionFormData("attachment", payslipArchiveService.fileName(paymentRequestId));
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+    
+    
+    // Queue depth and throughput of the payslip render/upload/email stages
+    @GetMapping("/payslip-pipeline")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public ResponseEntity<List<PipelineStageStats>> getPayslipPipelineStats() {
+        return ResponseEntity.ok(payslipPipeline.getStageStats());
+    }
+    
+    
     // Employee views own salary history
     @GetMapping("/my-history")
     @PreAuthorize("hasRole('EMPLOYEE')")
-    public ResponseEntity<List<SalaryPaymentHistory>> getMyPaymentHistory( @RequestParam(required = false) Integer year,Authentication authentication) {
+    public ResponseEntity<List<SalaryPaymentHistory>> getMyPaymentHistory( @RequestParam(required = false) Integer year,
+    		@RequestParam(required = false) PeriodRange range, Authentication authentication) {
     	System.out.println("🔍 Received year parameter: " + year);
     	String email = authentication.getName();
         Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
         EmployeeResponse employee = employeeService.getEmployeeByUserId(userId);
         
         List<SalaryPaymentHistory> history;
-        if (year != null) {
+        if (range != null) {
+            // LAST_12_MONTHS or FINANCIAL_YEAR_TO_DATE
+            history = salaryPaymentService.getSalaryPaymentHistoryByEmployeeAndRange(employee.getId(), range);
+        } else if (year != null) {
             System.out.println("✅ Filtering by year: " + year); 
             history = salaryPaymentService.getSalaryPaymentHistoryByEmployeeAndYear(employee.getId(), year);
         } else {
@@ -75,6 +210,19 @@ public class SalaryPaymentController {
     }
     
     
+    // Employee's year-to-date gross, net and PF (financialYear = start year, default current)
+    @GetMapping("/my-ytd")
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<EmployeeYtdSummary> getMyYtdSummary(@RequestParam(required = false) Integer financialYear,
+    		Authentication authentication) {
+    	String email = authentication.getName();
+        Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
+        EmployeeResponse employee = employeeService.getEmployeeByUserId(userId);
+        
+        return ResponseEntity.ok(employeeYtdLedgerService.getYtdSummary(employee.getId(), financialYear));
+    }
+    
+    
     // Employee downloads salary slip
     @GetMapping("/download-slip/{id}")
     @PreAuthorize("hasRole('EMPLOYEE')")
@@ -109,6 +257,43 @@ public class SalaryPaymentController {
     }
     
     
+    // Organization downloads every salary slip of a month as one ZIP
+    @GetMapping("/organization/payslips/archive")
+    @PreAuthorize("hasRole('ORGANIZATION')")
+    public ResponseEntity<StreamingResponseBody> downloadOrganizationPayslipArchive(
+            @RequestParam String month,
+            @RequestParam Integer year,
+            Authentication authentication) {
+        
+        String email = authentication.getName();
+        Long userId = userDetailsService.loadUserEntityByEmail(email).getId();
+        OrganizationResponse org = organizationService.getOrganizationByUserId(userId);
+        
+        // Validate before the response is committed
+        if (PayrollPeriod.toKey(month, year) == null) {
+            throw new BadRequestException("Invalid month: " + month);
+        }
+        
+        StreamingResponseBody body = out -> payslipArchiveService.writeOrganizationArchive(org.getId(), month, year, out);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("application", "zip"));
+        headers.setContentDispositionFormData("attachment", payslipArchiveService.fileName(month, year));
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+    
+    
+    // Render / upload / email outcome of a salary slip, with retry state
+    @GetMapping("/{id}/delivery")
+    @PreAuthorize("hasAnyRole('ORGANIZATION', 'BANK_ADMIN')")
+    public ResponseEntity<PayslipDeliveryResponse> getPayslipDelivery(@PathVariable Long id) {
+        return ResponseEntity.ok(salaryPaymentService.getPayslipDelivery(id));
+    }
+    
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ORGANIZATION', 'EMPLOYEE', 'BANK_ADMIN')")
     public ResponseEntity<SalaryPaymentResponse> getSalaryPaymentById(@PathVariable Long id) {
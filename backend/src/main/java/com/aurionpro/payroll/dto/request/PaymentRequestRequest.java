@@ -22,7 +22,7 @@ public class PaymentRequestRequest {
 	@NotNull(message = "Request type is required")
     private PaymentRequestType requestType;
     
-    @NotNull(message = "Total amount is required")
+    // Required for vendor payments; calculated server-side for salary disbursement
     @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
     private BigDecimal totalAmount;
     
@@ -0,0 +1,22 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BankTransferRow {
+
+	private String transactionId;
+    private String beneficiaryName;
+    private String bankAccountNumber;
+    private String ifscCode;
+    private BigDecimal amount;
+
+}
@@ -0,0 +1,22 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchUploadResponse {
+
+	private String message;
+    private int uploaded;
+    private int failed;
+    private long elapsedMillis;              // whole batch; about the slowest file when the pool is wide enough
+    private List<FileUploadResult> files;    // in request order
+
+}
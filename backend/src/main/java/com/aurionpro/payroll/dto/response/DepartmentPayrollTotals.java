@@ -0,0 +1,22 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentPayrollTotals {
+
+	private String department;
+    private Long employeeCount;
+    private BigDecimal totalGross;
+    private BigDecimal totalNet;
+    private BigDecimal totalProvidentFund;
+
+}
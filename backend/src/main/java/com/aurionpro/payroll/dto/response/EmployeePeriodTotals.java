@@ -0,0 +1,24 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Completed payments of one employee in one period (YTD ledger rebuild)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeePeriodTotals {
+
+	private Long employeeId;
+    private Integer periodKey;
+    private Long payments;
+    private BigDecimal totalGross;
+    private BigDecimal totalNet;
+    private BigDecimal totalProvidentFund;
+
+}
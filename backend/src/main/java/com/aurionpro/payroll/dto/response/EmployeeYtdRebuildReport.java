@@ -0,0 +1,28 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeYtdRebuildReport {
+
+	private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private int parallelism;
+    private long employees;
+    private long ledgersChecked;       // (employee, financial year) groups in the raw payments
+    private long corrected;            // ledger differed from the payments and was rewritten
+    private long created;              // ledger was missing
+    private long removed;              // ledger without payments
+    private int failedBatches;
+    private long elapsedMillis;
+    private double employeesPerSecond;
+
+}
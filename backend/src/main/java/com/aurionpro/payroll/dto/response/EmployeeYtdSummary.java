@@ -0,0 +1,27 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeYtdSummary {
+
+	private Long employeeId;
+    private Integer financialYear;         // start year, e.g. 2024
+    private String financialYearLabel;     // e.g. "2024-25"
+    private Integer payments;
+    private BigDecimal totalGross;
+    private BigDecimal totalNet;
+    private BigDecimal totalProvidentFund;
+    private Integer lastPeriodKey;
+    private LocalDateTime updatedAt;
+
+}
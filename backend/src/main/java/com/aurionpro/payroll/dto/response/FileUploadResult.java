@@ -0,0 +1,21 @@
+package com.aurionpro.payroll.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileUploadResult {
+
+	private String fileName;
+    private String fileType;
+    private long fileSize;
+    private String fileUrl;        // null if the upload failed
+    private String error;
+    private long elapsedMillis;
+
+}
@@ -31,6 +31,10 @@ public class PaymentRequestResponse {
     private Long approvedBy;
     private String approvedByName;
     private LocalDateTime approvedAt; 
+    private Long lastProcessedEmployeeId;
+    private Integer processedEmployeeCount;
+    private LocalDateTime processingStartedAt;
+    private LocalDateTime processingCompletedAt;
     private LocalDateTime createdAt; 
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,30 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollBatchReport {
+
+	private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private int parallelism;
+    private int paymentRequests;
+    private int completedRequests;
+    private int failedRequests;
+    private long employeesPaid;
+    private long employeesSkipped;
+    private long chunks;
+    private long elapsedMillis;
+    private double employeesPerSecond;
+    private Map<Long, String> failures;     // payment request id -> error
+
+}
@@ -0,0 +1,34 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.aurionpro.payroll.enums.PayrollJobState;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollJobResponse {
+
+	private String jobId;
+    private Long paymentRequestId;
+    private PayrollJobState state;
+    private Long totalEmployees;
+    private long processed;
+    private long skipped;
+    private long failed;
+    private double throughputPerSecond;
+    private Long etaSeconds;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String error;
+    private List<PayrollJobStageResponse> stages;
+
+}
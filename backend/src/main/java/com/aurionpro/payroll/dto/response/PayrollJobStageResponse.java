@@ -0,0 +1,22 @@
+package com.aurionpro.payroll.dto.response;
+
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.enums.PayrollJobState;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollJobStageResponse {
+
+	private PayrollJobStage stage;
+    private PayrollJobState state;
+    private long completed;
+    private long failed;
+
+}
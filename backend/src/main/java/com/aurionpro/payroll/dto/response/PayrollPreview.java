@@ -0,0 +1,26 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollPreview {
+
+	private Long organizationId;
+    private String month;
+    private Integer year;
+    private Integer employeeCount;
+    private BigDecimal totalGross;
+    private BigDecimal totalNet;
+    private BigDecimal totalProvidentFund;
+    private List<DepartmentPayrollTotals> departments;
+
+}
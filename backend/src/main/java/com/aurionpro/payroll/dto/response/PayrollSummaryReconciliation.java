@@ -0,0 +1,31 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollSummaryReconciliation {
+
+	private Long organizationId;       // null when every organization was checked
+    private LocalDateTime checkedAt;
+    private long groupsChecked;        // (period, department) groups in the raw payments
+    private long mismatched;           // summary row differs from the raw totals
+    private long missing;              // raw group without a summary row
+    private long orphaned;             // summary row without raw payments
+    private boolean repaired;
+    private List<String> differences; // first few, for the log / response
+    private long durationMillis;
+    
+    public boolean isConsistent() {
+        return mismatched == 0 && missing == 0 && orphaned == 0;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollSummaryTotals {
+
+	private Integer periodKey;
+    private String department;     // null on organization-wide rows
+    private Long headcount;
+    private BigDecimal totalGross;
+    private BigDecimal totalNet;
+    private BigDecimal totalProvidentFund;
+    
+    // Organization-wide row of a period
+    public PayrollSummaryTotals(Integer periodKey, Long headcount, BigDecimal totalGross,
+            BigDecimal totalNet, BigDecimal totalProvidentFund) {
+        this(periodKey, null, headcount, totalGross, totalNet, totalProvidentFund);
+    }
+    
+    public String getMonth() {
+        return periodKey != null ? PayrollPeriod.monthName(periodKey) : null;
+    }
+    
+    public Integer getYear() {
+        return periodKey != null ? PayrollPeriod.year(periodKey) : null;
+    }
+
+}
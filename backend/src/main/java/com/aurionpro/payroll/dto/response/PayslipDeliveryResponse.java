@@ -0,0 +1,29 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.aurionpro.payroll.enums.DeliveryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayslipDeliveryResponse {
+
+	private Long salaryPaymentId;
+    private DeliveryStatus renderStatus;
+    private DeliveryStatus uploadStatus;
+    private DeliveryStatus emailStatus;
+    private Integer renderAttempts;
+    private Integer uploadAttempts;
+    private Integer emailAttempts;
+    private String lastError;
+    private LocalDateTime nextRetryAt;
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,23 @@
+package com.aurionpro.payroll.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PipelineStageStats {
+
+	private String stage;
+    private int workers;
+    private int activeWorkers;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long failed;
+    private double throughputPerSecond;
+
+}
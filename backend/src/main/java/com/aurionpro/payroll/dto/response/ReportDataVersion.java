@@ -0,0 +1,24 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportDataVersion {
+
+    private Long rowCount;
+    private LocalDateTime lastUpdatedAt;
+
+    // Changes whenever a row is added, removed or updated
+    public String stamp() {
+        return rowCount + "@" + lastUpdatedAt;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.aurionpro.payroll.enums.PayrollJobState;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobResponse {
+
+	private String jobId;
+    private ReportType reportType;
+    private ReportFormat format;
+    private String month;
+    private Integer year;
+    private PayrollJobState state;
+    private int coalescedRequests;     // identical requests answered by this job
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long generationMillis;
+    private Long sizeBytes;
+    private String fileName;
+    private String downloadUrl;
+    private String error;
+
+}
@@ -0,0 +1,30 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobStats {
+
+	private int workers;
+    private int activeWorkers;
+    private int queueDepth;
+    private int queueCapacity;
+    private long submitted;
+    private long coalesced;
+    private long rejected;
+    private long completed;
+    private long failed;
+    private long cacheHits;
+    private long cacheMisses;
+    private Map<String, Double> averageGenerationMillis;    // per REPORT_TYPE/FORMAT
+    private Map<String, Long> maxGenerationMillis;
+
+}
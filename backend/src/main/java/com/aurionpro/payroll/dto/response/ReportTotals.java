@@ -0,0 +1,19 @@
+package com.aurionpro.payroll.dto.response;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportTotals {
+
+    private Long rowCount;
+    private BigDecimal totalNet;
+
+}
@@ -13,14 +13,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// One stored file; identical content is stored once and shared by everyone holding its URL
 @Entity
-@Table(name = "documents")
+@Table(name = "documents",
+uniqueConstraints = @UniqueConstraint(
+    columnNames = {"content_hash"},
+    name = "UK_document_content_hash"
+),
+indexes = {
+    // Locking lookups of register/release must not scan the table
+    @Index(name = "IDX_document_url", columnList = "cloudinary_url"),
+    @Index(name = "IDX_document_public_id", columnList = "cloudinary_public_id")
+}
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +66,14 @@ public class Document {
     
     private Long fileSize;
     
+    // SHA-256 of the content, hex
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    // Uploads that returned this file's URL; the file is deleted when the last one is released
+    @Column(nullable = false)
+    private Integer referenceCount;
+    
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime uploadedAt;
@@ -2,6 +2,7 @@ package com.aurionpro.payroll.entity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -19,6 +20,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -30,7 +32,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",		//department filter of an organization's reports
+indexes = @Index(name = "IDX_employee_org_department", columnList = "organization_id, department")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -109,9 +113,11 @@ public class Employee {
         if (salaryStructures == null || salaryStructures.isEmpty()) {
             return null;
         }
+        // Oldest when several are active (schemas without UK_employee_active_salary) - the payroll
+        // preview picks the same one
         return salaryStructures.stream()
             .filter(SalaryStructure::getIsActive)
-            .findFirst()
+            .min(Comparator.comparing(SalaryStructure::getId, Comparator.nullsLast(Comparator.naturalOrder())))
             .orElse(null);
     }
     
@@ -0,0 +1,77 @@
+package com.aurionpro.payroll.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running totals of an employee's completed salary payments in one financial year, updated with each payment
+@Entity
+@Table(name = "employee_ytd_ledgers",		//one row per employee and financial year
+uniqueConstraints = @UniqueConstraint(
+    columnNames = {"employee_id", "financial_year"},
+    name = "UK_employee_ytd_ledger_employee_year"
+))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeYtdLedger {
+
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    // Calendar year the financial year starts in (2024 = April 2024 - March 2025)
+    @Column(name = "financial_year", nullable = false)
+    private Integer financialYear;
+
+    @Column(nullable = false)
+    private Integer payments;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalGross;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalNet;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalProvidentFund;
+
+    // Latest period (yyyymm) included
+    private Integer lastPeriodKey;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+
+    public static EmployeeYtdLedger empty(Employee employee, Integer financialYear) {
+        return EmployeeYtdLedger.builder()
+            .employee(employee)
+            .financialYear(financialYear)
+            .payments(0)
+            .totalGross(BigDecimal.ZERO)
+            .totalNet(BigDecimal.ZERO)
+            .totalProvidentFund(BigDecimal.ZERO)
+            .build();
+    }
+}
@@ -9,6 +9,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import com.aurionpro.payroll.enums.PaymentRequestStatus;
 import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.util.PayrollPeriod;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -19,9 +20,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,7 +33,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "payment_requests")
+@Table(name = "payment_requests",		//period range scans per organization
+indexes = @Index(name = "IDX_payment_request_org_period", columnList = "organization_id, period_key")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,6 +63,9 @@ public class PaymentRequest {
     
     private Integer year;
     
+    @Column(name = "period_key")
+    private Integer periodKey; // yyyymm derived from month/year - sortable and range-scannable
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PaymentRequestStatus status = PaymentRequestStatus.PENDING;
@@ -73,6 +82,22 @@ public class PaymentRequest {
     
     private LocalDateTime approvedAt; // ADDED - Service uses this field
     
+    // Disbursement checkpoint - last employee id committed by the chunked engine (resume point)
+    private Long lastProcessedEmployeeId;
+    
+    private Integer processedEmployeeCount;
+    
+    private LocalDateTime processingStartedAt;
+    
+    private LocalDateTime processingCompletedAt;
+    
+    // Run currently processing the request, and until when it holds it. Renewed with every chunk;
+    // another run may only take over (resume) once the lease has expired or been released
+    @Column(length = 36)
+    private String processingOwner;
+    
+    private LocalDateTime processingLeaseUntil;
+    
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt; // CHANGED from requestDate for consistency
@@ -87,4 +112,11 @@ public class PaymentRequest {
     
     @OneToMany(mappedBy = "paymentRequest", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<VendorPayment> vendorPayments;
-}
\ No newline at end of file
+    
+    
+    @PrePersist
+    @PreUpdate
+    private void syncPeriodKey() {
+        this.periodKey = PayrollPeriod.toKey(month, year);
+    }
+}
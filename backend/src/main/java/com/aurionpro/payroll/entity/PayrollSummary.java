@@ -0,0 +1,80 @@
+package com.aurionpro.payroll.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Completed salary payments of one organization, period and department, kept up to date as chunks commit
+@Entity
+@Table(name = "payroll_summaries",		//one row per group; also the (organization, period range) index of the dashboards
+uniqueConstraints = @UniqueConstraint(
+    columnNames = {"organization_id", "period_key", "department"},
+    name = "UK_payroll_summary_org_period_department"
+))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayrollSummary {
+
+	// Department of payments whose employee has none
+	public static final String UNASSIGNED = "Unassigned";
+	
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id", nullable = false)
+    private Organization organization;
+    
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey;
+    
+    @Column(nullable = false)
+    private String department;
+    
+    @Column(nullable = false)
+    private Long headcount;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalGross;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalNet;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalProvidentFund;
+    
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+    
+    
+    public static PayrollSummary empty(Organization organization, Integer periodKey, String department) {
+        return PayrollSummary.builder()
+            .organization(organization)
+            .periodKey(periodKey)
+            .department(department)
+            .headcount(0L)
+            .totalGross(BigDecimal.ZERO)
+            .totalNet(BigDecimal.ZERO)
+            .totalProvidentFund(BigDecimal.ZERO)
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.aurionpro.payroll.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.aurionpro.payroll.enums.DeliveryStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of rendering, uploading and emailing one salary slip
+@Entity
+@Table(name = "payslip_deliveries",		//retry worker scans by due time
+indexes = @Index(name = "IDX_payslip_delivery_next_retry", columnList = "next_retry_at")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayslipDelivery {
+
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "salary_payment_id", nullable = false, unique = true)
+    private SalaryPayment salaryPayment;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryStatus renderStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryStatus uploadStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryStatus emailStatus;
+    
+    @Column(nullable = false)
+    private Integer renderAttempts;
+    
+    @Column(nullable = false)
+    private Integer uploadAttempts;
+    
+    @Column(nullable = false)
+    private Integer emailAttempts;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    private LocalDateTime nextRetryAt;	// null = nothing to retry (delivered, in flight or gave up)
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+    
+    
+    public static PayslipDelivery pending(SalaryPayment salaryPayment) {
+        return PayslipDelivery.builder()
+            .salaryPayment(salaryPayment)
+            .renderStatus(DeliveryStatus.PENDING)
+            .uploadStatus(DeliveryStatus.PENDING)
+            .emailStatus(DeliveryStatus.PENDING)
+            .renderAttempts(0)
+            .uploadAttempts(0)
+            .emailAttempts(0)
+            .build();
+    }
+}
@@ -8,6 +8,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.util.PayrollPeriod;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,16 +18,32 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "salary_payments")
+@Table(name = "salary_payments",		//One salary payment per employee per period - stops concurrent runs from double-paying
+// On the derived period_key, so "March" and "MARCH" of the same year are the same period.
+// Its index also serves the per-employee period range scans
+uniqueConstraints = @UniqueConstraint(
+    columnNames = {"employee_id", "period_key"},
+    name = "UK_salary_payment_employee_period"
+),
+indexes = {
+    // Filtered reports: status within a period, and payment date ranges
+    @Index(name = "IDX_salary_payment_period_status", columnList = "period_key, status"),
+    @Index(name = "IDX_salary_payment_date", columnList = "payment_date")
+}
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,16 +71,22 @@ public class SalaryPayment {
     @Column(nullable = false)
     private Integer year;
     
+    @Column(name = "period_key")
+    private Integer periodKey; // yyyymm derived from month/year - sortable and range-scannable
+    
     private LocalDate paymentDate;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PaymentStatus status = PaymentStatus.PENDING;
     
+    @Column(unique = true)
     private String transactionId;
     
     private String salarySlipUrl; // PDF URL from Cloudinary
     
+    private String department; // employee's department when paid - analytics stay put if the employee moves
+    
     // Salary breakdown (for record keeping)
     @Column(precision = 10, scale = 2)
     private BigDecimal basicSalary;
@@ -93,4 +116,11 @@ public class SalaryPayment {
     
     @UpdateTimestamp
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+    
+    
+    @PrePersist
+    @PreUpdate
+    private void syncPeriodKey() {
+        this.periodKey = PayrollPeriod.toKey(month, year);
+    }
+}
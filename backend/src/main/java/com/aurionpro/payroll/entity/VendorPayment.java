@@ -59,6 +59,7 @@ public class VendorPayment {
     @Column(nullable = false)
     private PaymentStatus status = PaymentStatus.PENDING;
     
+    @Column(unique = true)
     private String transactionId;
     
     @Column(length = 500)
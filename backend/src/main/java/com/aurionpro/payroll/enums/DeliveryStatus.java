@@ -0,0 +1,7 @@
+package com.aurionpro.payroll.enums;
+
+public enum DeliveryStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.aurionpro.payroll.enums;
+
+public enum PayrollJobStage {
+    DB_WRITE,
+    PDF,
+    UPLOAD,
+    EMAIL
+}
@@ -0,0 +1,8 @@
+package com.aurionpro.payroll.enums;
+
+public enum PayrollJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.aurionpro.payroll.enums;
+
+public enum PeriodRange {
+    LAST_12_MONTHS,
+    FINANCIAL_YEAR_TO_DATE
+}
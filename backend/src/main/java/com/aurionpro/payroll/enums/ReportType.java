@@ -0,0 +1,6 @@
+package com.aurionpro.payroll.enums;
+
+public enum ReportType {
+    EMPLOYEE_LIST,
+    SALARY_REPORT
+}
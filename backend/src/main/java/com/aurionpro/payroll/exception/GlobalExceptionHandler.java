@@ -37,6 +37,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
     
+    // Handle Gone
+    @ExceptionHandler(ResourceGoneException.class)
+    public ResponseEntity<ErrorResponse> handleResourceGoneException(
+            ResourceGoneException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.GONE.value(),
+            "Gone",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", "")
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+    
     // Handle Bad Request
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse> handleBadRequestException(
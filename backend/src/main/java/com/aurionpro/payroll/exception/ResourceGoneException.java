@@ -0,0 +1,8 @@
+package com.aurionpro.payroll.exception;
+
+public class ResourceGoneException extends RuntimeException {
+    
+    public ResourceGoneException(String message) {
+        super(message);
+    }
+}
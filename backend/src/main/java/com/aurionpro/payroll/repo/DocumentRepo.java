@@ -2,8 +2,10 @@ package com.aurionpro.payroll.repo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Repository;
 import com.aurionpro.payroll.entity.Document;
 import com.aurionpro.payroll.enums.DocumentType;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface DocumentRepo extends JpaRepository<Document, Long>{
 
@@ -45,5 +49,20 @@ public interface DocumentRepo extends JpaRepository<Document, Long>{
     
     // Delete by entity (for cleanup)
     void deleteByEntityTypeAndEntityId(String entityType, Long entityId);
+    
+    // Stored file with this content (unique key lookup), locked while its reference count changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.contentHash = :contentHash")
+    Optional<Document> findByContentHashForUpdate(@Param("contentHash") String contentHash);
+    
+    // Stored file behind a URL (IDX_document_url), locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.cloudinaryUrl = :url")
+    List<Document> findByUrlForUpdate(@Param("url") String url);
+    
+    // Stored file with a public id (IDX_document_public_id), locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.cloudinaryPublicId = :publicId")
+    List<Document> findByPublicIdForUpdate(@Param("publicId") String publicId);
 
 }
@@ -1,20 +1,28 @@
 package com.aurionpro.payroll.repo;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.aurionpro.payroll.dto.response.ReportDataVersion;
 import com.aurionpro.payroll.entity.Employee;
 import com.aurionpro.payroll.entity.Organization;
 import com.aurionpro.payroll.entity.User;
 import com.aurionpro.payroll.enums.AccountVerificationStatus;
 import com.aurionpro.payroll.enums.EmployeeStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface EmployeeRepo extends JpaRepository<Employee, Long>{
 
@@ -64,9 +72,28 @@ public interface EmployeeRepo extends JpaRepository<Employee, Long>{
     // Count employees by organization
     long countByOrganizationId(Long organizationId);
     
+    // Data version of one organization's employee list (report cache)
+    @Query("SELECT new com.aurionpro.payroll.dto.response.ReportDataVersion(COUNT(e), MAX(e.updatedAt)) " +
+           "FROM Employee e WHERE e.organization.id = :orgId")
+    ReportDataVersion findReportVersion(@Param("orgId") Long orgId);
+    
+    // All employees of an organization in ID order (reports), read through a cursor -
+    // must be consumed inside a transaction and closed. The user and its inverse organization
+    // side are fetched in the same row so nothing is loaded per employee
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.user u LEFT JOIN FETCH u.organization " +
+           "WHERE e.organization.id = :orgId ORDER BY e.id ASC")
+    Stream<Employee> streamByOrganizationId(@Param("orgId") Long orgId);
+    
     // Count active employees by organization
     long countByOrganizationIdAndStatus(Long organizationId, EmployeeStatus status);
     
+    // Employees a disbursement run still has to visit after its checkpoint
+    long countByOrganizationIdAndStatusInAndIdGreaterThan(Long organizationId, Collection<EmployeeStatus> statuses, Long afterId);
+    
     Optional<Employee> findByUser(User user);
     
     
@@ -77,6 +104,30 @@ public interface EmployeeRepo extends JpaRepository<Employee, Long>{
     
     List<Employee> findByOrganizationAndStatus(Organization organization, EmployeeStatus status);
     
+    // PAYROLL FETCH PLAN
+    // Ids of the next chunk of eligible employees after a checkpoint (keyset pagination on id)
+    @Query("SELECT e.id FROM Employee e WHERE e.organization.id = :orgId " +
+           "AND e.status IN :statuses AND e.id > :afterId ORDER BY e.id ASC")
+    List<Long> findPayrollEligibleIds(
+        @Param("orgId") Long orgId,
+        @Param("statuses") Collection<EmployeeStatus> statuses,
+        @Param("afterId") Long afterId,
+        Pageable pageable);
+    
+    // Those employees with only their active salary structure and user (incl. its inverse
+    // organization side, which Hibernate would otherwise load per row) fetched in one round trip.
+    // Employees without an active structure are not returned.
+    @Query("SELECT e FROM Employee e " +
+           "JOIN FETCH e.salaryStructures s " +
+           "JOIN FETCH e.user u " +
+           "LEFT JOIN FETCH u.organization " +
+           "WHERE e.id IN :ids AND s.isActive = true ORDER BY e.id ASC")
+    List<Employee> findPayrollEligibleWithActiveStructureAndUser(@Param("ids") Collection<Long> ids);
+    
+    // Next page of all employee ids after a given id (keyset pagination, YTD ledger rebuild)
+    @Query("SELECT e.id FROM Employee e WHERE e.id > :afterId ORDER BY e.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     List<Employee> findByOrganizationAndAccountVerificationStatus(
         Organization organization, AccountVerificationStatus status);
     
@@ -0,0 +1,36 @@
+package com.aurionpro.payroll.repo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.aurionpro.payroll.entity.EmployeeYtdLedger;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface EmployeeYtdLedgerRepo extends JpaRepository<EmployeeYtdLedger, Long> {
+
+	// Single-row YTD read (unique key lookup)
+	Optional<EmployeeYtdLedger> findByEmployeeIdAndFinancialYear(Long employeeId, Integer financialYear);
+
+	// Ledgers of a chunk's employees for one year, locked in employee order until the transaction ends
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT l FROM EmployeeYtdLedger l WHERE l.employee.id IN :employeeIds AND l.financialYear = :financialYear " +
+	       "ORDER BY l.employee.id ASC")
+	List<EmployeeYtdLedger> findForUpdate(
+	    @Param("employeeIds") Collection<Long> employeeIds,
+	    @Param("financialYear") Integer financialYear);
+
+	// All years of those employees, locked (rebuild)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT l FROM EmployeeYtdLedger l WHERE l.employee.id IN :employeeIds ORDER BY l.employee.id ASC")
+	List<EmployeeYtdLedger> findAllForUpdate(@Param("employeeIds") Collection<Long> employeeIds);
+
+}
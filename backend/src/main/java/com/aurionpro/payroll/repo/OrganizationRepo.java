@@ -56,6 +56,11 @@ public interface OrganizationRepo extends JpaRepository<Organization, Long>{
     Optional<Organization> findByIdWithAllRelations(@Param("id") Long id);
     
     
+    // Every organization id, for jobs that walk all organizations
+    @Query("SELECT o.id FROM Organization o ORDER BY o.id")
+    List<Long> findAllIds();
+    
+    
     // DEFAULT METHODS (CONVENIENCE)
     // Find verified organizations (convenience method)
     default List<Organization> findVerifiedOrganizations() {
@@ -66,4 +71,5 @@ public interface OrganizationRepo extends JpaRepository<Organization, Long>{
     default List<Organization> findPendingVerifications() {
         return findByVerified(false);
     }
+
 }
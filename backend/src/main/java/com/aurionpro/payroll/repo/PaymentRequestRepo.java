@@ -2,8 +2,11 @@ package com.aurionpro.payroll.repo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +15,10 @@ import com.aurionpro.payroll.entity.Organization;
 import com.aurionpro.payroll.entity.PaymentRequest;
 import com.aurionpro.payroll.enums.PaymentRequestStatus;
 import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 
 @Repository
 public interface PaymentRequestRepo extends JpaRepository<PaymentRequest, Long> {
@@ -28,6 +35,14 @@ public interface PaymentRequestRepo extends JpaRepository<PaymentRequest, Long>
     // Find by type
     List<PaymentRequest> findByRequestType(PaymentRequestType requestType);
     
+    // Locked until the transaction ends - disbursement claims and checkpoints
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pr FROM PaymentRequest pr WHERE pr.id = :id")
+    Optional<PaymentRequest> findForUpdate(@Param("id") Long id);
+    
+    // Requests of a type in a status, oldest first (batch disbursement)
+    List<PaymentRequest> findByRequestTypeAndStatusOrderByCreatedAtAsc(PaymentRequestType requestType, PaymentRequestStatus status);
+    
     // Find Pending Requests (for Bank Admin)
     @Query("SELECT pr FROM PaymentRequest pr WHERE pr.status = 'PENDING' ORDER BY pr.createdAt DESC")
     List<PaymentRequest> findAllPendingRequests();
@@ -59,13 +74,19 @@ public interface PaymentRequestRepo extends JpaRepository<PaymentRequest, Long>
     
     List<PaymentRequest> findByOrganizationAndStatus(Organization organization, PaymentRequestStatus status);
     
-    @Query("SELECT pr FROM PaymentRequest pr WHERE pr.organization = :organization AND pr.month = :month AND pr.year = :year")
-    List<PaymentRequest> findByOrganizationAndMonthAndYear(
+    @Query("SELECT pr FROM PaymentRequest pr WHERE pr.organization = :organization AND pr.periodKey = :periodKey")
+    List<PaymentRequest> findByOrganizationAndPeriodKey(
         @Param("organization") Organization organization,
-        @Param("month") String month,
-        @Param("year") Integer year
+        @Param("periodKey") Integer periodKey
     );
     
+    default List<PaymentRequest> findByOrganizationAndMonthAndYear(Organization organization, String month, Integer year) {
+        return findByOrganizationAndPeriodKey(organization, PayrollPeriod.toKey(month, year));
+    }
+    
+    // Requests of an organization within a period range (yyyymm, inclusive), latest period first
+    List<PaymentRequest> findByOrganizationIdAndPeriodKeyBetweenOrderByPeriodKeyDesc(Long organizationId, Integer fromPeriod, Integer toPeriod);
+    
     @Query("SELECT pr FROM PaymentRequest pr WHERE pr.status = :status ORDER BY pr.createdAt ASC")
     List<PaymentRequest> findPendingRequestsOrderByDate(@Param("status") PaymentRequestStatus status);
     
@@ -75,4 +96,13 @@ public interface PaymentRequestRepo extends JpaRepository<PaymentRequest, Long>
         Integer year, 
         PaymentRequestStatus status
     );
-}
\ No newline at end of file
+    
+    // Distinct periods of rows that predate the period_key column (startup backfill)
+    @Query("SELECT DISTINCT pr.month, pr.year FROM PaymentRequest pr WHERE pr.periodKey IS NULL")
+    List<Object[]> findPeriodsMissingKey();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentRequest pr SET pr.periodKey = :periodKey WHERE pr.periodKey IS NULL AND pr.month = :month AND pr.year = :year")
+    int backfillPeriodKey(@Param("month") String month, @Param("year") Integer year, @Param("periodKey") Integer periodKey);
+}
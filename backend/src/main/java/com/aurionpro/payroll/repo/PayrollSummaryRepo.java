@@ -0,0 +1,56 @@
+package com.aurionpro.payroll.repo;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.aurionpro.payroll.dto.response.PayrollSummaryTotals;
+import com.aurionpro.payroll.entity.PayrollSummary;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PayrollSummaryRepo extends JpaRepository<PayrollSummary, Long> {
+
+	// Row of one group, locked until the surrounding transaction ends
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM PayrollSummary s WHERE s.organization.id = :orgId AND s.periodKey = :periodKey " +
+	       "AND s.department = :department")
+	Optional<PayrollSummary> findForUpdate(
+	    @Param("orgId") Long orgId,
+	    @Param("periodKey") Integer periodKey,
+	    @Param("department") String department);
+	
+	// Every row of an organization, locked (reconciliation repair)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM PayrollSummary s WHERE s.organization.id = :orgId")
+	List<PayrollSummary> findByOrganizationIdForUpdate(@Param("orgId") Long orgId);
+	
+	List<PayrollSummary> findByOrganizationId(Long orgId);
+	
+	// Per period and department - one row per group, no payments read
+	@Query("SELECT new com.aurionpro.payroll.dto.response.PayrollSummaryTotals(" +
+	       "s.periodKey, s.department, s.headcount, s.totalGross, s.totalNet, s.totalProvidentFund) " +
+	       "FROM PayrollSummary s WHERE s.organization.id = :orgId AND s.periodKey BETWEEN :fromPeriod AND :toPeriod " +
+	       "ORDER BY s.periodKey ASC, s.department ASC")
+	List<PayrollSummaryTotals> findDepartmentTotals(
+	    @Param("orgId") Long orgId,
+	    @Param("fromPeriod") Integer fromPeriod,
+	    @Param("toPeriod") Integer toPeriod);
+	
+	// Per period, all departments added up
+	@Query("SELECT new com.aurionpro.payroll.dto.response.PayrollSummaryTotals(" +
+	       "s.periodKey, SUM(s.headcount), SUM(s.totalGross), SUM(s.totalNet), SUM(s.totalProvidentFund)) " +
+	       "FROM PayrollSummary s WHERE s.organization.id = :orgId AND s.periodKey BETWEEN :fromPeriod AND :toPeriod " +
+	       "GROUP BY s.periodKey ORDER BY s.periodKey ASC")
+	List<PayrollSummaryTotals> findPeriodTotals(
+	    @Param("orgId") Long orgId,
+	    @Param("fromPeriod") Integer fromPeriod,
+	    @Param("toPeriod") Integer toPeriod);
+
+}
@@ -0,0 +1,61 @@
+package com.aurionpro.payroll.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.enums.DeliveryStatus;
+
+@Repository
+public interface PayslipDeliveryRepo extends JpaRepository<PayslipDelivery, Long> {
+
+	Optional<PayslipDelivery> findBySalaryPaymentId(Long salaryPaymentId);
+    
+    // Failed deliveries whose backoff has expired, oldest first
+    @Query("SELECT d FROM PayslipDelivery d WHERE d.nextRetryAt IS NOT NULL AND d.nextRetryAt <= :now " +
+           "ORDER BY d.nextRetryAt ASC")
+    List<PayslipDelivery> findDueForRetry(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Claim a due row for the retry worker so it is not picked up again while in flight. Conditional, so of
+    // two workers that read the same row only one changes it (returns 1) and retries it
+    @Modifying
+    @Query("UPDATE PayslipDelivery d SET d.nextRetryAt = NULL " +
+           "WHERE d.id = :id AND d.nextRetryAt IS NOT NULL AND d.nextRetryAt <= :now")
+    int claimForRetry(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Stage outcomes. Each stage writes only its own columns (attempts incremented in SQL), so
+    // stages finishing at the same time cannot overwrite each other's results
+    @Modifying
+    @Query("UPDATE PayslipDelivery d SET d.renderStatus = :status, d.renderAttempts = d.renderAttempts + 1, " +
+           "d.updatedAt = :now WHERE d.salaryPayment.id = :salaryPaymentId")
+    int recordRender(@Param("salaryPaymentId") Long salaryPaymentId, @Param("status") DeliveryStatus status,
+        @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE PayslipDelivery d SET d.uploadStatus = :status, d.uploadAttempts = d.uploadAttempts + 1, " +
+           "d.updatedAt = :now WHERE d.salaryPayment.id = :salaryPaymentId")
+    int recordUpload(@Param("salaryPaymentId") Long salaryPaymentId, @Param("status") DeliveryStatus status,
+        @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE PayslipDelivery d SET d.emailStatus = :status, d.emailAttempts = d.emailAttempts + 1, " +
+           "d.updatedAt = :now WHERE d.salaryPayment.id = :salaryPaymentId")
+    int recordEmail(@Param("salaryPaymentId") Long salaryPaymentId, @Param("status") DeliveryStatus status,
+        @Param("now") LocalDateTime now);
+    
+    // Failure details; an earlier pending retry (scheduled by another stage) is kept. retryAt null = give up
+    @Modifying
+    @Query("UPDATE PayslipDelivery d SET d.lastError = :error, d.nextRetryAt = COALESCE(d.nextRetryAt, :retryAt), " +
+           "d.updatedAt = :now WHERE d.salaryPayment.id = :salaryPaymentId")
+    int recordFailure(@Param("salaryPaymentId") Long salaryPaymentId, @Param("error") String error,
+        @Param("retryAt") LocalDateTime retryAt, @Param("now") LocalDateTime now);
+
+}
@@ -1,21 +1,37 @@
 package com.aurionpro.payroll.repo;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.aurionpro.payroll.dto.response.BankTransferRow;
+import com.aurionpro.payroll.dto.response.EmployeePeriodTotals;
+import com.aurionpro.payroll.dto.response.PayrollSummaryTotals;
+import com.aurionpro.payroll.dto.response.ReportDataVersion;
+import com.aurionpro.payroll.dto.response.ReportTotals;
 import com.aurionpro.payroll.entity.Employee;
 import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PayrollSummary;
 import com.aurionpro.payroll.entity.SalaryPayment;
 import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
 
 @Repository
-public interface SalaryPaymentRepo extends JpaRepository<SalaryPayment, Long>{
+public interface SalaryPaymentRepo extends JpaRepository<SalaryPayment, Long>, SalaryPaymentReportRepo {
 
 	// Find by employee
     List<SalaryPayment> findByEmployeeId(Long employeeId);
@@ -52,9 +68,12 @@ public interface SalaryPaymentRepo extends JpaRepository<SalaryPayment, Long>{
     
     // Find recent payments by employee (last N months)
     @Query("SELECT sp FROM SalaryPayment sp WHERE sp.employee.id = :employeeId " +
-           "ORDER BY sp.year DESC, sp.month DESC")
+           "ORDER BY sp.periodKey DESC")
     List<SalaryPayment> findRecentPaymentsByEmployee(@Param("employeeId") Long employeeId);
 
+    // Payments of an employee within a period range (yyyymm, inclusive) - range scan on (employee_id, period_key)
+    List<SalaryPayment> findByEmployeeIdAndPeriodKeyBetweenOrderByPeriodKeyDesc(Long employeeId, Integer fromPeriod, Integer toPeriod);
+
     List<SalaryPayment> findByEmployee(Employee employee);
     
     List<SalaryPayment> findByEmployeeOrderByPaymentDateDesc(Employee employee);
@@ -68,18 +87,151 @@ public interface SalaryPaymentRepo extends JpaRepository<SalaryPayment, Long>{
         @Param("organization") Organization organization, 
         @Param("status") PaymentStatus status);
     
-    @Query("SELECT sp FROM SalaryPayment sp WHERE sp.employee = :employee AND sp.month = :month AND sp.year = :year")
-    List<SalaryPayment> findByEmployeeAndMonthAndYear(
+    @Query("SELECT sp FROM SalaryPayment sp WHERE sp.employee = :employee AND sp.periodKey = :periodKey")
+    List<SalaryPayment> findByEmployeeAndPeriodKey(
         @Param("employee") Employee employee, 
-        @Param("month") String month, 
-        @Param("year") Integer year);
+        @Param("periodKey") Integer periodKey);
     
-    @Query("SELECT sp FROM SalaryPayment sp WHERE sp.employee.organization = :organization AND sp.month = :month AND sp.year = :year")
-    List<SalaryPayment> findByOrganizationAndMonthAndYear(
+    default List<SalaryPayment> findByEmployeeAndMonthAndYear(Employee employee, String month, Integer year) {
+        return findByEmployeeAndPeriodKey(employee, PayrollPeriod.toKey(month, year));
+    }
+    
+    @Query("SELECT sp FROM SalaryPayment sp WHERE sp.employee.organization = :organization AND sp.periodKey = :periodKey")
+    List<SalaryPayment> findByOrganizationAndPeriodKey(
         @Param("organization") Organization organization,
-        @Param("month") String month,
-        @Param("year") Integer year);
+        @Param("periodKey") Integer periodKey);
+    
+    default List<SalaryPayment> findByOrganizationAndMonthAndYear(Organization organization, String month, Integer year) {
+        return findByOrganizationAndPeriodKey(organization, PayrollPeriod.toKey(month, year));
+    }
+    
+    // Salary report rows: employee, its eager user and the user's inverse organization side fetched
+    // in the same row, ordered by employee ID. Read through a cursor - must be consumed inside a
+    // transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sp FROM SalaryPayment sp JOIN FETCH sp.employee e " +
+           "LEFT JOIN FETCH e.user u LEFT JOIN FETCH u.organization " +
+           "WHERE e.organization.id = :orgId AND sp.periodKey = :periodKey ORDER BY e.id ASC")
+    Stream<SalaryPayment> streamReportRowsByOrganization(
+        @Param("orgId") Long orgId,
+        @Param("periodKey") Integer periodKey);
+    
+    // Completed payments of an organization per period and department (payroll summary reconciliation).
+    // Department as recorded at payment time, falling back to the employee's for older rows
+    @Query("SELECT new com.aurionpro.payroll.dto.response.PayrollSummaryTotals(" +
+           "sp.periodKey, COALESCE(sp.department, e.department, '" + PayrollSummary.UNASSIGNED + "'), COUNT(sp), " +
+           "SUM(sp.grossSalary), SUM(sp.netSalary), SUM(sp.providentFund)) " +
+           "FROM SalaryPayment sp JOIN sp.employee e " +
+           "WHERE e.organization.id = :orgId AND sp.status = :status AND sp.periodKey IS NOT NULL " +
+           "GROUP BY sp.periodKey, COALESCE(sp.department, e.department, '" + PayrollSummary.UNASSIGNED + "')")
+    List<PayrollSummaryTotals> summarizeByPeriodAndDepartment(
+        @Param("orgId") Long orgId,
+        @Param("status") PaymentStatus status);
+    
+    // Payments of a batch of employees per employee and period (YTD ledger rebuild)
+    @Query("SELECT new com.aurionpro.payroll.dto.response.EmployeePeriodTotals(" +
+           "sp.employee.id, sp.periodKey, COUNT(sp), SUM(sp.grossSalary), SUM(sp.netSalary), SUM(sp.providentFund)) " +
+           "FROM SalaryPayment sp WHERE sp.employee.id IN :employeeIds AND sp.status = :status AND sp.periodKey IS NOT NULL " +
+           "GROUP BY sp.employee.id, sp.periodKey")
+    List<EmployeePeriodTotals> summarizeByEmployeeAndPeriod(
+        @Param("employeeIds") Collection<Long> employeeIds,
+        @Param("status") PaymentStatus status);
+    
+    // Payslip archive rows of one payment request, with everything a slip prints fetched in the same row.
+    // Read through a cursor - must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sp FROM SalaryPayment sp JOIN FETCH sp.employee e " +
+           "LEFT JOIN FETCH e.user u LEFT JOIN FETCH u.organization " +
+           "WHERE sp.paymentRequest.id = :paymentRequestId AND sp.status = :status ORDER BY sp.id ASC")
+    Stream<SalaryPayment> streamPayslipsByPaymentRequest(
+        @Param("paymentRequestId") Long paymentRequestId,
+        @Param("status") PaymentStatus status);
+    
+    // Same, for one organization and period
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sp FROM SalaryPayment sp JOIN FETCH sp.employee e " +
+           "LEFT JOIN FETCH e.user u LEFT JOIN FETCH u.organization " +
+           "WHERE e.organization.id = :orgId AND sp.periodKey = :periodKey AND sp.status = :status ORDER BY sp.id ASC")
+    Stream<SalaryPayment> streamPayslipsByOrganization(
+        @Param("orgId") Long orgId,
+        @Param("periodKey") Integer periodKey,
+        @Param("status") PaymentStatus status);
+    
+    // Bank transfer lines of one payment request as plain rows (no managed entities), read through a cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.aurionpro.payroll.dto.response.BankTransferRow(" +
+           "sp.transactionId, e.name, e.bankAccountNumber, e.ifscCode, sp.netSalary) " +
+           "FROM SalaryPayment sp JOIN sp.employee e " +
+           "WHERE sp.paymentRequest.id = :paymentRequestId AND sp.status = :status ORDER BY sp.id ASC")
+    Stream<BankTransferRow> streamBankTransfers(
+        @Param("paymentRequestId") Long paymentRequestId,
+        @Param("status") PaymentStatus status);
+    
+    // Transfer lines the bank cannot pay: no account number or IFSC on the employee
+    @Query("SELECT new com.aurionpro.payroll.dto.response.BankTransferRow(" +
+           "sp.transactionId, e.name, e.bankAccountNumber, e.ifscCode, sp.netSalary) " +
+           "FROM SalaryPayment sp JOIN sp.employee e " +
+           "WHERE sp.paymentRequest.id = :paymentRequestId AND sp.status = :status " +
+           "AND (e.bankAccountNumber IS NULL OR TRIM(e.bankAccountNumber) = '' " +
+           "OR e.ifscCode IS NULL OR TRIM(e.ifscCode) = '') ORDER BY sp.id ASC")
+    List<BankTransferRow> findUnpayableBankTransfers(
+        @Param("paymentRequestId") Long paymentRequestId,
+        @Param("status") PaymentStatus status,
+        Pageable pageable);
+    
+    // Data version of one organization's salary report (report cache)
+    @Query("SELECT new com.aurionpro.payroll.dto.response.ReportDataVersion(COUNT(sp), MAX(sp.updatedAt)) " +
+           "FROM SalaryPayment sp WHERE sp.employee.organization.id = :orgId AND sp.periodKey = :periodKey")
+    ReportDataVersion findReportVersion(
+        @Param("orgId") Long orgId,
+        @Param("periodKey") Integer periodKey);
+    
+    // Header totals of the salary report, computed before the rows are streamed
+    @Query("SELECT new com.aurionpro.payroll.dto.response.ReportTotals(COUNT(sp), SUM(sp.netSalary)) " +
+           "FROM SalaryPayment sp WHERE sp.employee.organization.id = :orgId AND sp.periodKey = :periodKey")
+    ReportTotals summarizeReportRows(
+        @Param("orgId") Long orgId,
+        @Param("periodKey") Integer periodKey);
     
     boolean existsByEmployeeAndMonthAndYear(Employee employee, String month, Integer year);
+    
+    // Ids of every employee of the organization already paid for the period (set-based idempotency check)
+    @Query("SELECT sp.employee.id FROM SalaryPayment sp WHERE sp.employee.organization.id = :orgId AND sp.periodKey = :periodKey")
+    List<Long> findPaidEmployeeIds(
+        @Param("orgId") Long orgId,
+        @Param("periodKey") Integer periodKey);
+    
+    default List<Long> findPaidEmployeeIds(Long orgId, String month, Integer year) {
+        return findPaidEmployeeIds(orgId, PayrollPeriod.toKey(month, year));
+    }
+    
+    // Payment with everything a salary slip needs (used outside a transaction by the payslip pipeline)
+    @Query("SELECT sp FROM SalaryPayment sp JOIN FETCH sp.employee e JOIN FETCH e.organization JOIN FETCH e.user WHERE sp.id = :id")
+    Optional<SalaryPayment> findByIdWithEmployeeDetails(@Param("id") Long id);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE SalaryPayment sp SET sp.salarySlipUrl = :url, sp.updatedAt = CURRENT_TIMESTAMP WHERE sp.id = :id")
+    int updateSalarySlipUrl(@Param("id") Long id, @Param("url") String url);
+    
+    // Distinct periods of rows that predate the period_key column (startup backfill)
+    @Query("SELECT DISTINCT sp.month, sp.year FROM SalaryPayment sp WHERE sp.periodKey IS NULL")
+    List<Object[]> findPeriodsMissingKey();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE SalaryPayment sp SET sp.periodKey = :periodKey WHERE sp.periodKey IS NULL AND sp.month = :month AND sp.year = :year")
+    int backfillPeriodKey(@Param("month") String month, @Param("year") Integer year, @Param("periodKey") Integer periodKey);
 }
-
@@ -0,0 +1,21 @@
+package com.aurionpro.payroll.repo;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aurionpro.payroll.dto.response.ReportTotals;
+import com.aurionpro.payroll.entity.SalaryPayment;
+
+/**
+ * Salary report queries over arbitrary filters (see {@link SalaryPaymentSpecifications})
+ */
+public interface SalaryPaymentReportRepo {
+
+    // Report rows with employee, user and the user's organization fetched, ordered by employee ID.
+    // Read through a cursor - must be consumed inside a transaction and closed
+    Stream<SalaryPayment> streamReportRows(Specification<SalaryPayment> specification);
+
+    // Row count and net total of the same rows
+    ReportTotals summarizeReportRows(Specification<SalaryPayment> specification);
+}
@@ -0,0 +1,72 @@
+package com.aurionpro.payroll.repo;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aurionpro.payroll.dto.response.ReportTotals;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of the filtered report queries. The whole filter becomes one WHERE clause,
+ * so the database only reads the matching rows.
+ */
+public class SalaryPaymentReportRepoImpl implements SalaryPaymentReportRepo {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<SalaryPayment> streamReportRows(Specification<SalaryPayment> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SalaryPayment> query = cb.createQuery(SalaryPayment.class);
+        Root<SalaryPayment> root = query.from(SalaryPayment.class);
+
+        // Same fetch plan as the period report query
+        Fetch<SalaryPayment, Employee> employee = root.fetch("employee");
+        Fetch<Employee, User> user = employee.fetch("user", JoinType.LEFT);
+        user.fetch("organization", JoinType.LEFT);
+
+        query.select(root);
+        where(query, specification, root, cb);
+        query.orderBy(cb.asc(SalaryPaymentSpecifications.employee(root).get("id")));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    @Override
+    public ReportTotals summarizeReportRows(Specification<SalaryPayment> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReportTotals> query = cb.createQuery(ReportTotals.class);
+        Root<SalaryPayment> root = query.from(SalaryPayment.class);
+
+        query.select(cb.construct(ReportTotals.class, cb.count(root), cb.sum(root.get("netSalary"))));
+        where(query, specification, root, cb);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+
+    private void where(CriteriaQuery<?> query, Specification<SalaryPayment> specification,
+            Root<SalaryPayment> root, CriteriaBuilder cb) {
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.aurionpro.payroll.repo;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Report predicates on salary payments. Every factory returns {@link Specification#unrestricted()}
+ * for a missing argument, so optional filters can be chained with {@code .and(..)} directly.
+ */
+public final class SalaryPaymentSpecifications {
+
+    private SalaryPaymentSpecifications() {
+    }
+
+    public static Specification<SalaryPayment> ofOrganization(Long organizationId) {
+        if (organizationId == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> cb.equal(employee(root).get("organization").get("id"), organizationId);
+    }
+
+    // Inclusive yyyymm range
+    public static Specification<SalaryPayment> inPeriods(Integer fromPeriod, Integer toPeriod) {
+        if (fromPeriod == null || toPeriod == null) {
+            return Specification.unrestricted();
+        }
+        return fromPeriod.equals(toPeriod)
+            ? (root, query, cb) -> cb.equal(root.get("periodKey"), fromPeriod)
+            : (root, query, cb) -> cb.between(root.get("periodKey"), fromPeriod, toPeriod);
+    }
+
+    // Either bound may be open
+    public static Specification<SalaryPayment> paidBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> {
+            if (startDate == null) {
+                return cb.lessThanOrEqualTo(root.get("paymentDate"), endDate);
+            }
+            if (endDate == null) {
+                return cb.greaterThanOrEqualTo(root.get("paymentDate"), startDate);
+            }
+            return cb.between(root.get("paymentDate"), startDate, endDate);
+        };
+    }
+
+    public static Specification<SalaryPayment> inDepartment(String department) {
+        if (department == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> cb.equal(employee(root).get("department"), department);
+    }
+
+    // Compared on the foreign key column, no join needed
+    public static Specification<SalaryPayment> ofEmployee(Long employeeId) {
+        if (employeeId == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> cb.equal(root.get("employee").get("id"), employeeId);
+    }
+
+    public static Specification<SalaryPayment> withStatus(PaymentStatus status) {
+        if (status == null) {
+            return Specification.unrestricted();
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * The employee join of the query - the fetch join of a row query, an existing join, or a new one,
+     * so several employee predicates never join the table more than once
+     */
+    @SuppressWarnings("unchecked")
+    static Join<SalaryPayment, Employee> employee(Root<SalaryPayment> root) {
+        for (Fetch<SalaryPayment, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("employee") && fetch instanceof Join<?, ?> join) {
+                return (Join<SalaryPayment, Employee>) join;
+            }
+        }
+        for (Join<SalaryPayment, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("employee")) {
+                return (Join<SalaryPayment, Employee>) join;
+            }
+        }
+        return root.join("employee");
+    }
+}
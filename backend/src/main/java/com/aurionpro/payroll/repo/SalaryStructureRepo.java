@@ -1,6 +1,7 @@
 package com.aurionpro.payroll.repo;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,8 +10,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.aurionpro.payroll.dto.response.DepartmentPayrollTotals;
 import com.aurionpro.payroll.entity.Employee;
 import com.aurionpro.payroll.entity.SalaryStructure;
+import com.aurionpro.payroll.enums.EmployeeStatus;
 
 @Repository
 public interface SalaryStructureRepo extends JpaRepository<SalaryStructure, Long>{
@@ -42,6 +45,23 @@ public interface SalaryStructureRepo extends JpaRepository<SalaryStructure, Long
            "WHERE s.employee.organization.id = :orgId AND s.isActive = true")
     BigDecimal calculateTotalPayrollByOrganization(@Param("orgId") Long orgId);
     
+    // Per-department payroll totals for a period, aggregated in the DB (payroll preview)
+    // Same population as a disbursement run: eligible status, active structure, not yet paid this period.
+    // Like Employee.getActiveSalaryStructure(), an employee with several active structures counts once,
+    // with the oldest one
+    @Query("SELECT new com.aurionpro.payroll.dto.response.DepartmentPayrollTotals(" +
+           "e.department, COUNT(DISTINCT e), SUM(s.grossSalary), SUM(s.netSalary), SUM(s.providentFund)) " +
+           "FROM SalaryStructure s JOIN s.employee e " +
+           "WHERE e.organization.id = :orgId AND e.status IN :statuses AND s.isActive = true " +
+           "AND s.id = (SELECT MIN(s2.id) FROM SalaryStructure s2 WHERE s2.employee = e AND s2.isActive = true) " +
+           "AND NOT EXISTS (SELECT 1 FROM SalaryPayment sp WHERE sp.employee = e AND sp.periodKey = :periodKey) " +
+           "GROUP BY e.department ORDER BY e.department")
+    List<DepartmentPayrollTotals> summarizePayrollByDepartment(
+        @Param("orgId") Long orgId,
+        @Param("statuses") Collection<EmployeeStatus> statuses,
+        @Param("periodKey") Integer periodKey
+    );
+    
     // Find all salary structures for an employee
     List<SalaryStructure> findByEmployee(Employee employee);
     
@@ -6,6 +6,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -19,6 +20,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -47,8 +50,12 @@ public class SecurityConfig {
                         "/swagger-ui/index.html"
                 ).permitAll()	
             		
+                // Streamed downloads finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
+                // Documents of the local storage backend are public links, like Cloudinary URLs
+                .requestMatchers(HttpMethod.GET, "/api/files/local/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("BANK_ADMIN")
                 .requestMatchers("/api/org/**").hasRole("ORGANIZATION")
                 .requestMatchers("/api/employee/**").hasRole("EMPLOYEE")
@@ -0,0 +1,135 @@
+package com.aurionpro.payroll.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.dto.response.BankTransferRow;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.BankFileWriter;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bulk bank transfer file of one salary disbursement, streamed from the database straight into
+ * a channel. Rows are read as plain DTOs through a cursor, so nothing accumulates per payment.
+ */
+@Service
+public class BankFileService {
+
+    // Unpayable transfers named in the validation error
+    private static final int MAX_LISTED_UNPAYABLE = 20;
+
+    @Autowired
+    private PaymentRequestRepo paymentRequestRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // The row cursor only lives as long as its transaction
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Check the request and its payees before any bytes are sent
+     */
+    public void validate(Long paymentRequestId) {
+        PaymentRequest paymentRequest = paymentRequestRepo.findById(paymentRequestId)
+            .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", paymentRequestId));
+        if (paymentRequest.getRequestType() != PaymentRequestType.SALARY_DISBURSEMENT) {
+            throw new BadRequestException("Bank files are only generated for salary disbursements");
+        }
+        if (paymentRequest.getStatus() != PaymentRequestStatus.COMPLETED) {
+            throw new BadRequestException("Bank file is only available once the disbursement is completed ("
+                + paymentRequest.getStatus() + ")");
+        }
+
+        // The bank rejects a transfer without account or IFSC - name them instead of sending the file
+        List<BankTransferRow> unpayable = salaryPaymentRepo.findUnpayableBankTransfers(
+            paymentRequestId, PaymentStatus.COMPLETED, PageRequest.of(0, MAX_LISTED_UNPAYABLE + 1));
+        if (!unpayable.isEmpty()) {
+            String payees = unpayable.stream()
+                .limit(MAX_LISTED_UNPAYABLE)
+                .map(row -> row.getBeneficiaryName() + " (" + row.getTransactionId() + ")")
+                .collect(Collectors.joining(", "));
+            throw new BadRequestException("Bank account number or IFSC missing for: " + payees
+                + (unpayable.size() > MAX_LISTED_UNPAYABLE ? " and more" : ""));
+        }
+    }
+
+    public String fileName(Long paymentRequestId) {
+        return "salary_transfers_" + paymentRequestId + ".csv";
+    }
+
+    /**
+     * Write header, one line per completed salary payment and the control-total trailer
+     */
+    public void writeDisbursementFile(Long paymentRequestId, WritableByteChannel channel) {
+        long start = System.nanoTime();
+        BankFileWriter writer = new BankFileWriter(channel);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            PaymentRequest paymentRequest = paymentRequestRepo.findById(paymentRequestId)
+                .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", paymentRequestId));
+            Integer periodKey = paymentRequest.getPeriodKey() != null
+                ? paymentRequest.getPeriodKey()
+                : PayrollPeriod.toKey(paymentRequest.getMonth(), paymentRequest.getYear());
+
+            try (Stream<BankTransferRow> rows = salaryPaymentRepo.streamBankTransfers(paymentRequestId, PaymentStatus.COMPLETED)) {
+                writer.writeHeader(paymentRequestId, paymentRequest.getOrganization().getName(),
+                    periodKey != null ? periodKey : 0, LocalDate.now());
+
+                Iterator<BankTransferRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    BankTransferRow row = iterator.next();
+                    // Details changed after validate(): stop before the trailer, so the bank refuses the file
+                    if (isBlank(row.getBankAccountNumber()) || isBlank(row.getIfscCode())) {
+                        throw new BadRequestException("Bank account number or IFSC missing for: "
+                            + row.getBeneficiaryName() + " (" + row.getTransactionId() + ")");
+                    }
+                    writer.writeDetail(row.getTransactionId(), row.getIfscCode(), row.getBankAccountNumber(),
+                        row.getBeneficiaryName(), row.getAmount());
+                }
+
+                writer.writeTrailer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        System.out.println(String.format("🏦 Bank file for payment request %d: %d transfers, total %s, hash %d in %d ms",
+            paymentRequestId, writer.getRecords(), writer.getTotalAmount().toPlainString(),
+            writer.getAccountHashTotal(), (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,126 @@
+package com.aurionpro.payroll.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.aurionpro.payroll.dto.response.BatchUploadResponse;
+import com.aurionpro.payroll.dto.response.FileUploadResult;
+import com.aurionpro.payroll.exception.BadRequestException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Uploads the files of one multipart request side by side, so a batch takes about as long as its
+ * slowest file. Each part is streamed from its temp file by CloudinaryService; a failed file is
+ * reported in its result and does not stop the others.
+ *
+ * The pool is shared by all requests and bounded; when its queue is full the request thread
+ * uploads the file itself.
+ */
+@Service
+public class BatchUploadService {
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Value("${storage.batch.upload-workers:8}")
+    private int workers;
+
+    @Value("${storage.batch.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${storage.batch.max-files:20}")
+    private int maxFiles;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "batch-upload-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Upload every file to the folder and wait for all of them (the parts are deleted when the request ends)
+     */
+    public BatchUploadResponse upload(MultipartFile[] files, String folder) {
+        if (files == null || files.length == 0) {
+            throw new BadRequestException("No files to upload");
+        }
+        if (files.length > maxFiles) {
+            throw new BadRequestException(
+                String.format("Too many files: %d. At most %d files can be uploaded at once.", files.length, maxFiles));
+        }
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<FileUploadResult>> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(CompletableFuture.supplyAsync(() -> upload(file, folder), executor));
+        }
+
+        List<FileUploadResult> results = new ArrayList<>();
+        int failed = 0;
+        for (CompletableFuture<FileUploadResult> upload : uploads) {
+            FileUploadResult result = upload.join();
+            if (result.getError() != null) {
+                failed++;
+            }
+            results.add(result);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        int uploaded = results.size() - failed;
+        System.out.println(String.format("📤 Batch upload to %s: %d uploaded, %d failed in %d ms",
+            folder, uploaded, failed, elapsedMillis));
+
+        return BatchUploadResponse.builder()
+            .message(failed == 0 ? "Files uploaded successfully"
+                : String.format("%d of %d files failed to upload", failed, results.size()))
+            .uploaded(uploaded)
+            .failed(failed)
+            .elapsedMillis(elapsedMillis)
+            .files(results)
+            .build();
+    }
+
+
+    private FileUploadResult upload(MultipartFile file, String folder) {
+        long startedAt = System.nanoTime();
+        FileUploadResult result = FileUploadResult.builder()
+            .fileName(file.getOriginalFilename())
+            .fileType(file.getContentType())
+            .fileSize(file.getSize())
+            .build();
+        try {
+            result.setFileUrl(cloudinaryService.uploadFile(file, folder));
+        } catch (Exception e) {
+            result.setError(e.getMessage() != null ? e.getMessage() : "Upload failed");
+        }
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return result;
+    }
+}
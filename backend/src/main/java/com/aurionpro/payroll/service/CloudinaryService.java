@@ -12,6 +12,11 @@ public interface CloudinaryService {
     //Upload Excel from byte array
     String uploadExcel(byte[] excelBytes, String fileName, String folder);
     
+    //Upload a generated report; contentKey names its data, so a regeneration of it is not uploaded again
+    String uploadPdf(byte[] pdfBytes, String fileName, String folder, String contentKey);
+    
+    String uploadExcel(byte[] excelBytes, String fileName, String folder, String contentKey);
+    
     
     void deleteFile(String publicId);
 }
\ No newline at end of file
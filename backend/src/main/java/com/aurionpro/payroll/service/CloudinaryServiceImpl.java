@@ -1,24 +1,37 @@
 package com.aurionpro.payroll.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.aurionpro.payroll.exception.BadRequestException;
 import com.aurionpro.payroll.exception.FileUploadException;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 
 @Service
 public class CloudinaryServiceImpl implements CloudinaryService {
     
+    // Cloudinary or local filesystem, per storage.backend
     @Autowired
-    private Cloudinary cloudinary;
+    private StorageBackend storageBackend;
+    
+    // Content already stored is not uploaded again
+    @Autowired
+    private DocumentRegistry documentRegistry;
 
     // ✅ ALLOWED FILE TYPES - PDF, JPG, JPEG, PNG
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
@@ -28,7 +41,20 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         "application/pdf"
     );
     
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB (generated PDFs/Excel)
+    
+    // Uploaded documents; keep spring.servlet.multipart.max-file-size at least this large
+    @Value("${storage.max-upload-size:25MB}")
+    private DataSize maxUploadSize;
+    
+    private static final String EXCEL_CONTENT_TYPE =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    
+    // Since startup: files written to the backend, and uploads answered with an identical stored file
+    private final LongAdder storedFiles = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder reusedFiles = new LongAdder();
+    private final LongAdder reusedBytes = new LongAdder();
     
     
     @Override
@@ -37,36 +63,37 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     	// ✅ VALIDATE FILE BEFORE UPLOAD
         validateFile(file);
         
-    	try {
-    		
-    		// 🔧 DETERMINE RESOURCE TYPE BASED ON FILE
-            String resourceType = "auto";
-            String type = "upload";
-            
-            // For PDFs, explicitly use "raw" resource type
-            if (file.getContentType() != null && file.getContentType().equals("application/pdf")) {
-                resourceType = "raw";
-            }
-    		
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), 
-                ObjectUtils.asMap("folder", folder,    //claudinary by default assume image file
-                		"resource_type", resourceType,    //
-                		"type", type,
-                        "access_mode", "public"  //or else cant view file from frontend
-                )
-            );
-            
-            return uploadResult.get("secure_url").toString();
-            
-        } catch (IOException e) {
-            throw new FileUploadException("Failed to upload file to Cloudinary: " + e.getMessage());
+    	String extension = getFileExtension(file.getOriginalFilename()).toLowerCase();
+    	String format = extension.isEmpty() ? null : extension;
+    	
+    	// Streamed from the multipart part (a temp file on disk) - the upload is never held on the heap.
+    	// A first pass hashes it, so known content is not sent to the backend at all
+    	MessageDigest digest = sha256();
+    	try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+    		content.transferTo(OutputStream.nullOutputStream());
+    	} catch (IOException e) {
+            throw new FileUploadException("Failed to upload file: " + e.getMessage());
         }
+    	
+    	return store(HexFormat.of().formatHex(digest.digest()), file.getSize(), folder,
+    		file.getOriginalFilename(), format, () -> {
+    			try (InputStream content = file.getInputStream()) {
+    				return storageBackend.store(content, file.getSize(), folder, null, format, file.getContentType());
+    			} catch (IOException e) {
+    	            throw new FileUploadException("Failed to upload file: " + e.getMessage());
+    	        }
+    		});
     }
     
     
  //Upload PDF from byte array
     @Override
     public String uploadPdf(byte[] pdfBytes, String fileName, String folder) {
+        return uploadPdf(pdfBytes, fileName, folder, null);
+    }
+    
+    @Override
+    public String uploadPdf(byte[] pdfBytes, String fileName, String folder, String contentKey) {
         if (pdfBytes == null || pdfBytes.length == 0) {
             throw new BadRequestException("PDF data cannot be empty");
         }
@@ -78,29 +105,18 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             );
         }
         
-        try {
-            Map uploadResult = cloudinary.uploader().upload(
-                pdfBytes, 
-                ObjectUtils.asMap(
-                    "folder", folder,
-                    "resource_type", "raw",
-                    "public_id", fileName,
-                    "format", "pdf",
-                    "type", "upload",
-                    "access_mode", "public"
-                )
-            );
-            
-            return uploadResult.get("secure_url").toString();
-            
-        } catch (IOException e) {
-            throw new FileUploadException("Failed to upload PDF to Cloudinary: " + e.getMessage());
-        }
+        return store(hashOf(pdfBytes, contentKey), pdfBytes.length, folder, fileName, "pdf",
+            () -> storageBackend.store(pdfBytes, folder, fileName, "pdf", "application/pdf"));
     }
     
     //Upload Excel from byte array
     @Override
     public String uploadExcel(byte[] excelBytes, String fileName, String folder) {
+        return uploadExcel(excelBytes, fileName, folder, null);
+    }
+    
+    @Override
+    public String uploadExcel(byte[] excelBytes, String fileName, String folder, String contentKey) {
         if (excelBytes == null || excelBytes.length == 0) {
             throw new BadRequestException("Excel data cannot be empty");
         }
@@ -112,31 +128,49 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             );
         }
         
-        try {
-            Map uploadResult = cloudinary.uploader().upload(
-                excelBytes, 
-                ObjectUtils.asMap(
-                    "folder", folder,
-                    "resource_type", "raw",
-                    "public_id", fileName,
-                    "format", "xlsx"
-                )
-            );
-            return uploadResult.get("secure_url").toString();
-            
-        } catch (IOException e) {
-            throw new FileUploadException("Failed to upload Excel to Cloudinary: " + e.getMessage());
-        }
+        return store(hashOf(excelBytes, contentKey), excelBytes.length, folder, fileName, "xlsx",
+            () -> storageBackend.store(excelBytes, folder, fileName, "xlsx", EXCEL_CONTENT_TYPE));
     }
     
     
     
+    // Releases one reference; the file itself goes with the last one
     @Override
     public void deleteFile(String publicId) {
+        documentRegistry.release(publicId);
+    }
+    
+    // Reuse the stored file with this content, or write it with upload and register it
+    private String store(String contentHash, long size, String folder, String fileName, String extension,
+            Supplier<String> upload) {
+        String existing = documentRegistry.acquire(contentHash);
+        if (existing != null) {
+            reusedFiles.increment();
+            reusedBytes.add(size);
+            System.out.println(String.format("♻️ Identical content already stored, upload skipped: %s (%d uploads / %.1f MB skipped, %d files / %.1f MB written since startup)",
+                existing, reusedFiles.sum(), reusedBytes.sum() / (1024.0 * 1024.0),
+                storedFiles.sum(), storedBytes.sum() / (1024.0 * 1024.0)));
+            return existing;
+        }
+        
+        String url = upload.get();
+        storedFiles.increment();
+        storedBytes.add(size);
+        return documentRegistry.register(url, contentHash, size, folder, fileName, extension);
+    }
+    
+    // Generated PDFs and workbooks embed creation dates and a random document id, so their bytes
+    // differ on every regeneration; with a content key the key is hashed instead of the bytes
+    private static String hashOf(byte[] content, String contentKey) {
+        byte[] hashed = contentKey != null ? ("key:" + contentKey).getBytes(StandardCharsets.UTF_8) : content;
+        return HexFormat.of().formatHex(sha256().digest(hashed));
+    }
+    
+    private static MessageDigest sha256() {
         try {
-            cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
-        } catch (IOException e) {
-            throw new FileUploadException("Failed to delete file from Cloudinary: " + e.getMessage());
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
     
@@ -149,10 +183,10 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         }
         
         // Check file size
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (file.getSize() > maxUploadSize.toBytes()) {
             throw new BadRequestException(
                 String.format("File size exceeds maximum limit of %d MB. Your file size: %.2f MB", 
-                    MAX_FILE_SIZE / (1024 * 1024),
+                    maxUploadSize.toMegabytes(),
                     file.getSize() / (1024.0 * 1024.0))
             );
         }
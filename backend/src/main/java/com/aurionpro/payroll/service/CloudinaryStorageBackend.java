@@ -0,0 +1,103 @@
+package com.aurionpro.payroll.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.exception.FileUploadException;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+
+// Uploads to Cloudinary over HTTPS (default backend)
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryStorageBackend implements StorageBackend {
+
+    @Autowired
+    private Cloudinary cloudinary;
+
+    @Override
+    public String store(byte[] content, String folder, String name, String extension, String contentType) {
+        return upload(content, folder, name, extension, contentType);
+    }
+
+    @Override
+    public String store(InputStream content, long size, String folder, String name, String extension, String contentType) {
+        // The SDK streams File uploads but not InputStreams; spooling to disk keeps the heap out of it
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("cloudinary-upload-", ".tmp");
+            Files.copy(content, spool, StandardCopyOption.REPLACE_EXISTING);
+            return upload(spool.toFile(), folder, name, extension, contentType);
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to upload file to Cloudinary: " + e.getMessage());
+        } finally {
+            if (spool != null) {
+                spool.toFile().delete();
+            }
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        // Documents are raw resources, which destroy() only finds when told so; a URL says which it is
+        String resourceType = id.contains("/raw/upload/") ? "raw" : "image";
+        try {
+            cloudinary.uploader().destroy(idOf(id), ObjectUtils.asMap("resource_type", resourceType));
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to delete file from Cloudinary: " + e.getMessage());
+        }
+    }
+
+    // https://res.cloudinary.com/<cloud>/<resource type>/upload/v<version>/<public id>[.<format>]
+    @Override
+    public String idOf(String url) {
+        int upload = url.indexOf("/upload/");
+        if (!url.startsWith("http") || upload == -1) {
+            return url;        // already a public id
+        }
+        String id = url.substring(upload + "/upload/".length()).replaceFirst("^v\\d+/", "");
+
+        // Raw public ids keep their extension, image ids do not
+        int dot = id.lastIndexOf('.');
+        if (!url.contains("/raw/upload/") && dot > id.lastIndexOf('/')) {
+            id = id.substring(0, dot);
+        }
+        return id;
+    }
+
+
+    // file is a byte[] or a File
+    @SuppressWarnings("unchecked")
+    private String upload(Object file, String folder, String name, String extension, String contentType) {
+        // Cloudinary assumes images by default; documents must be uploaded as raw files
+        boolean image = contentType != null && contentType.startsWith("image/");
+
+        Map<String, Object> options = ObjectUtils.asMap(
+            "folder", folder,
+            "resource_type", image ? "auto" : "raw",
+            "type", "upload",
+            "access_mode", "public"     //or else cant view file from frontend
+        );
+        if (name != null) {
+            options.put("public_id", name);
+            if (extension != null) {
+                options.put("format", extension);
+            }
+        }
+
+        try {
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(file, options);
+            return uploadResult.get("secure_url").toString();
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to upload file to Cloudinary: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.aurionpro.payroll.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database connections that background work may hold at once: the pool size less the connections
+ * reserved for request threads. Disbursement chunks, payslip stage bookkeeping, YTD rebuild batches
+ * and report generation each take a permit around the stretch that holds a connection. Their pools
+ * can then be sized for throughput without together draining the pool.
+ * Permits are handed out in arrival order and are reentrant per thread.
+ */
+@Component
+public class ConnectionBudget {
+
+    private final int permits;
+    private final Semaphore semaphore;
+
+    // Permits held by the current thread - nested work runs on the permit it already has
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+
+    public ConnectionBudget(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${payroll.batch.reserved-connections:2}") int reservedConnections) {
+        this.permits = Math.max(1, connectionPoolSize - reservedConnections);
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailable() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * Run work on one permit, waiting while the budget is used up
+     */
+    public <T> T call(Supplier<T> work) {
+        int[] depth = held.get();
+        if (depth[0] == 0) {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a database connection", e);
+            }
+        }
+        depth[0]++;
+        try {
+            return work.get();
+        } finally {
+            if (--depth[0] == 0) {
+                semaphore.release();
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
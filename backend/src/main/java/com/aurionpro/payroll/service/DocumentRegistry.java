@@ -0,0 +1,159 @@
+package com.aurionpro.payroll.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.entity.Document;
+import com.aurionpro.payroll.enums.DocumentType;
+import com.aurionpro.payroll.repo.DocumentRepo;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Stored files by content hash. Identical content is stored once: every upload of it takes a
+ * reference to the same Document (and URL), and the file is deleted from the storage backend
+ * only when the last reference is released.
+ *
+ * Each call is its own short transaction, so a row lock is never held across an upload.
+ */
+@Service
+public class DocumentRegistry {
+
+    // Stored content is shared, so it belongs to no single entity
+    static final long SHARED_ENTITY_ID = 0L;
+
+    @Autowired
+    private DocumentRepo documentRepo;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Take a reference to the stored file with this content
+     * @return its URL, or null if the content is not stored yet
+     */
+    public String acquire(String contentHash) {
+        return transactionTemplate.execute(status -> documentRepo.findByContentHashForUpdate(contentHash)
+            .map(document -> {
+                document.setReferenceCount(document.getReferenceCount() + 1);
+                return document.getCloudinaryUrl();
+            })
+            .orElse(null));
+    }
+
+    /**
+     * Register a file just written to the backend, with one reference. A named file written over
+     * an earlier one at the same URL takes over its row and references (they see the new content).
+     * @param folder    folder the file was stored in; decides the document type
+     * @param extension without the dot (may be null)
+     * @return URL to hand out - the file's own, or that of identical content registered
+     *         concurrently (the surplus copy is then deleted)
+     */
+    public String register(String url, String contentHash, long size, String folder, String fileName, String extension) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Document> replaced = documentRepo.findByUrlForUpdate(url);
+                Document document;
+                if (replaced.isEmpty()) {
+                    document = Document.builder()
+                        .entityType(entityTypeOf(folder))
+                        .entityId(SHARED_ENTITY_ID)
+                        .documentType(documentTypeOf(folder))
+                        .cloudinaryUrl(url)
+                        .cloudinaryPublicId(storageBackend.idOf(url))
+                        .referenceCount(1)
+                        .build();
+                } else {
+                    document = replaced.get(0);
+                    document.setReferenceCount(document.getReferenceCount() + 1);
+                }
+                document.setContentHash(contentHash);
+                document.setFileName(fileName);
+                document.setFileType(extension != null ? extension.toUpperCase() : null);
+                document.setFileSize(size);
+
+                // Flushed here so a concurrent insert of the same content fails inside this call
+                documentRepo.saveAndFlush(document);
+                return url;
+            });
+
+        } catch (DataIntegrityViolationException e) {
+            // Identical content was registered by a concurrent upload; share that copy
+            String existing = acquire(contentHash);
+            if (existing == null) {
+                throw e;
+            }
+            if (!existing.equals(url)) {
+                storageBackend.delete(url);
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * Drop one reference to the file behind a URL or public id, deleting the file with the last one.
+     * Files stored before the registry existed are deleted straight away.
+     * @return true if the file was deleted
+     */
+    public boolean release(String id) {
+        return transactionTemplate.execute(status -> {
+            // Each lookup uses its own index, so only the matching row is locked
+            List<Document> documents = id.contains("://") || id.startsWith("/")
+                ? documentRepo.findByUrlForUpdate(id)
+                : documentRepo.findByPublicIdForUpdate(id);
+            if (documents.isEmpty()) {
+                storageBackend.delete(id);
+                return true;
+            }
+
+            Document document = documents.get(0);
+            if (document.getReferenceCount() > 1) {
+                document.setReferenceCount(document.getReferenceCount() - 1);
+                return false;
+            }
+
+            // Deleted while the row is still locked, so the same content is not re-registered meanwhile;
+            // a failed delete rolls back and keeps the reference
+            documentRepo.delete(document);
+            documentRepo.flush();
+            storageBackend.delete(document.getCloudinaryUrl());
+            return true;
+        });
+    }
+
+
+    // Folders used by the upload and report code
+    private static String entityTypeOf(String folder) {
+        if (folder == null) return "OTHER";
+        if (folder.startsWith("organization_documents")) return "ORGANIZATION";
+        if (folder.startsWith("employee_account_proofs")) return "EMPLOYEE";
+        if (folder.startsWith("concern_attachments")) return "CONCERN";
+        if (folder.startsWith("salary-slips")) return "SALARY_PAYMENT";
+        if (folder.startsWith("reports")) return "REPORT";
+        return "OTHER";
+    }
+
+    private static DocumentType documentTypeOf(String folder) {
+        if (folder == null) return DocumentType.OTHER;
+        if (folder.startsWith("organization_documents")) return DocumentType.ORGANIZATION_VERIFICATION;
+        if (folder.startsWith("employee_account_proofs")) return DocumentType.EMPLOYEE_BANK_PROOF;
+        if (folder.startsWith("concern_attachments")) return DocumentType.CONCERN_ATTACHMENT;
+        if (folder.startsWith("salary-slips")) return DocumentType.SALARY_SLIP;
+        return DocumentType.OTHER;
+    }
+}
@@ -0,0 +1,338 @@
+package com.aurionpro.payroll.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.dto.response.EmployeePeriodTotals;
+import com.aurionpro.payroll.dto.response.EmployeeYtdRebuildReport;
+import com.aurionpro.payroll.dto.response.EmployeeYtdSummary;
+import com.aurionpro.payroll.entity.EmployeeYtdLedger;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.repo.EmployeeRepo;
+import com.aurionpro.payroll.repo.EmployeeYtdLedgerRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+
+/**
+ * Year-to-date earnings per employee and financial year.
+ * Each disbursement chunk adds its payments to the ledger in the chunk transaction, so a YTD query
+ * is a single unique-key lookup however many payments the employee has. The rebuild recomputes every
+ * ledger from the raw payments, batches of employees in parallel, and rewrites the ones that differ.
+ */
+@Service
+public class EmployeeYtdLedgerService {
+
+    @Autowired
+    private EmployeeYtdLedgerRepo employeeYtdLedgerRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private EmployeeRepo employeeRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payroll.ytd.rebuild-workers:4}")
+    private int rebuildWorkers;
+
+    @Value("${payroll.ytd.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile EmployeeYtdRebuildReport lastRebuild;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Add newly saved completed payments to their employees' ledgers.
+     * Joins the caller's transaction; one locking read per financial year in the chunk.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(List<SalaryPayment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+
+        // A chunk is normally one period, i.e. one financial year
+        Map<Integer, List<SalaryPayment>> byYear = new HashMap<>();
+        for (SalaryPayment payment : payments) {
+            if (payment.getPeriodKey() != null) {
+                byYear.computeIfAbsent(PayrollPeriod.financialYear(payment.getPeriodKey()), year -> new ArrayList<>())
+                    .add(payment);
+            }
+        }
+
+        byYear.forEach((financialYear, yearPayments) -> {
+            Set<Long> employeeIds = new HashSet<>();
+            yearPayments.forEach(payment -> employeeIds.add(payment.getEmployee().getId()));
+
+            Map<Long, EmployeeYtdLedger> ledgers = new HashMap<>();
+            for (EmployeeYtdLedger ledger : employeeYtdLedgerRepo.findForUpdate(employeeIds, financialYear)) {
+                ledgers.put(ledger.getEmployee().getId(), ledger);
+            }
+
+            for (SalaryPayment payment : yearPayments) {
+                EmployeeYtdLedger ledger = ledgers.computeIfAbsent(payment.getEmployee().getId(),
+                    id -> EmployeeYtdLedger.empty(payment.getEmployee(), financialYear));
+                ledger.setPayments(ledger.getPayments() + 1);
+                ledger.setTotalGross(ledger.getTotalGross().add(orZero(payment.getGrossSalary())));
+                ledger.setTotalNet(ledger.getTotalNet().add(orZero(payment.getNetSalary())));
+                ledger.setTotalProvidentFund(ledger.getTotalProvidentFund().add(orZero(payment.getProvidentFund())));
+                if (ledger.getLastPeriodKey() == null || payment.getPeriodKey() > ledger.getLastPeriodKey()) {
+                    ledger.setLastPeriodKey(payment.getPeriodKey());
+                }
+            }
+
+            employeeYtdLedgerRepo.saveAll(ledgers.values());
+        });
+    }
+
+    /**
+     * YTD totals of one employee; the current financial year when none is given
+     */
+    public EmployeeYtdSummary getYtdSummary(Long employeeId, Integer financialYear) {
+        int year = financialYear != null ? financialYear : PayrollPeriod.financialYear(PayrollPeriod.of(LocalDate.now()));
+
+        return employeeYtdLedgerRepo.findByEmployeeIdAndFinancialYear(employeeId, year)
+            .map(ledger -> EmployeeYtdSummary.builder()
+                .employeeId(employeeId)
+                .financialYear(year)
+                .financialYearLabel(PayrollPeriod.financialYearLabel(year))
+                .payments(ledger.getPayments())
+                .totalGross(ledger.getTotalGross())
+                .totalNet(ledger.getTotalNet())
+                .totalProvidentFund(ledger.getTotalProvidentFund())
+                .lastPeriodKey(ledger.getLastPeriodKey())
+                .updatedAt(ledger.getUpdatedAt())
+                .build())
+            // Nothing paid in that year yet
+            .orElseGet(() -> EmployeeYtdSummary.builder()
+                .employeeId(employeeId)
+                .financialYear(year)
+                .financialYearLabel(PayrollPeriod.financialYearLabel(year))
+                .payments(0)
+                .totalGross(BigDecimal.ZERO)
+                .totalNet(BigDecimal.ZERO)
+                .totalProvidentFund(BigDecimal.ZERO)
+                .build());
+    }
+
+    // Disabled unless payroll.ytd.rebuild-cron is set
+    @Scheduled(cron = "${payroll.ytd.rebuild-cron:-}")
+    void scheduledRebuild() {
+        if (rebuilding.get()) {
+            System.out.println("⏭️ Skipping scheduled YTD ledger rebuild - previous rebuild still running");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Recompute every ledger from the raw payments and fix the ones that differ
+     */
+    public EmployeeYtdRebuildReport rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new BadRequestException("A YTD ledger rebuild is already running");
+        }
+
+        try {
+            return execute();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public EmployeeYtdRebuildReport getLastRebuild() {
+        return lastRebuild;
+    }
+
+    public int getParallelism() {
+        return Math.max(1, Math.min(rebuildWorkers, connectionBudget.getPermits()));
+    }
+
+
+    private EmployeeYtdRebuildReport execute() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        int parallelism = getParallelism();
+        System.out.println("🔁 YTD ledger rebuild started on " + parallelism + " workers");
+
+        LongAdder employees = new LongAdder();
+        LongAdder checked = new LongAdder();
+        LongAdder corrected = new LongAdder();
+        LongAdder created = new LongAdder();
+        LongAdder removed = new LongAdder();
+        AtomicInteger failedBatches = new AtomicInteger();
+
+        // Full queue runs the batch on the paging thread, which slows paging down to the workers' pace
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(parallelism),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ytd-rebuild-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try {
+            long afterId = 0;
+            List<Long> employeeIds;
+            while (!(employeeIds = employeeRepo.findIdsAfter(afterId, PageRequest.of(0, rebuildBatchSize))).isEmpty()) {
+                List<Long> batch = employeeIds;
+                afterId = batch.get(batch.size() - 1);
+
+                executor.execute(() -> {
+                    try {
+                        long[] counts = connectionBudget.call(() -> transactionTemplate.execute(status -> rebuildBatch(batch)));
+                        employees.add(batch.size());
+                        checked.add(counts[0]);
+                        corrected.add(counts[1]);
+                        created.add(counts[2]);
+                        removed.add(counts[3]);
+                    } catch (Exception e) {
+                        failedBatches.incrementAndGet();
+                        System.err.println("❌ YTD ledger rebuild failed for employees " + batch.get(0) + "-"
+                            + batch.get(batch.size() - 1) + ": " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        EmployeeYtdRebuildReport report = EmployeeYtdRebuildReport.builder()
+            .startedAt(startedAt)
+            .completedAt(LocalDateTime.now())
+            .parallelism(parallelism)
+            .employees(employees.sum())
+            .ledgersChecked(checked.sum())
+            .corrected(corrected.sum())
+            .created(created.sum())
+            .removed(removed.sum())
+            .failedBatches(failedBatches.get())
+            .elapsedMillis(elapsedMillis)
+            .employeesPerSecond(employees.sum() * 1000.0 / elapsedMillis)
+            .build();
+
+        System.out.println(String.format("🏁 YTD ledger rebuild finished: %d employees, %d ledgers (%d corrected, %d created, %d removed) in %d ms (%.1f employees/s)",
+            report.getEmployees(), report.getLedgersChecked(), report.getCorrected(), report.getCreated(),
+            report.getRemoved(), elapsedMillis, report.getEmployeesPerSecond()));
+
+        lastRebuild = report;
+        return report;
+    }
+
+    /**
+     * Runs inside a batch transaction. The ledgers are locked before the payments are read, so a chunk
+     * paying one of these employees either committed before (and is counted) or waits for this batch
+     * and adds its payment on top of the rebuilt ledger.
+     * @return {checked, corrected, created, removed}
+     */
+    private long[] rebuildBatch(List<Long> employeeIds) {
+        Map<String, EmployeeYtdLedger> ledgers = new HashMap<>();
+        for (EmployeeYtdLedger ledger : employeeYtdLedgerRepo.findAllForUpdate(employeeIds)) {
+            ledgers.put(ledgerKey(ledger.getEmployee().getId(), ledger.getFinancialYear()), ledger);
+        }
+
+        // Fold the per-period totals into financial years
+        Map<String, EmployeeYtdLedger> expected = new HashMap<>();
+        for (EmployeePeriodTotals totals : salaryPaymentRepo.summarizeByEmployeeAndPeriod(employeeIds, PaymentStatus.COMPLETED)) {
+            int financialYear = PayrollPeriod.financialYear(totals.getPeriodKey());
+            EmployeeYtdLedger sum = expected.computeIfAbsent(ledgerKey(totals.getEmployeeId(), financialYear),
+                key -> EmployeeYtdLedger.empty(employeeRepo.getReferenceById(totals.getEmployeeId()), financialYear));
+            sum.setPayments(sum.getPayments() + totals.getPayments().intValue());
+            sum.setTotalGross(sum.getTotalGross().add(orZero(totals.getTotalGross())));
+            sum.setTotalNet(sum.getTotalNet().add(orZero(totals.getTotalNet())));
+            sum.setTotalProvidentFund(sum.getTotalProvidentFund().add(orZero(totals.getTotalProvidentFund())));
+            if (sum.getLastPeriodKey() == null || totals.getPeriodKey() > sum.getLastPeriodKey()) {
+                sum.setLastPeriodKey(totals.getPeriodKey());
+            }
+        }
+
+        long corrected = 0;
+        long created = 0;
+        for (Map.Entry<String, EmployeeYtdLedger> entry : expected.entrySet()) {
+            EmployeeYtdLedger sum = entry.getValue();
+            EmployeeYtdLedger ledger = ledgers.remove(entry.getKey());
+            if (ledger == null) {
+                employeeYtdLedgerRepo.save(sum);
+                created++;
+            } else if (!matches(ledger, sum)) {
+                ledger.setPayments(sum.getPayments());
+                ledger.setTotalGross(sum.getTotalGross());
+                ledger.setTotalNet(sum.getTotalNet());
+                ledger.setTotalProvidentFund(sum.getTotalProvidentFund());
+                ledger.setLastPeriodKey(sum.getLastPeriodKey());
+                employeeYtdLedgerRepo.save(ledger);
+                corrected++;
+            }
+        }
+
+        // Whatever is left has no completed payments behind it
+        employeeYtdLedgerRepo.deleteAll(ledgers.values());
+
+        return new long[] { expected.size(), corrected, created, ledgers.size() };
+    }
+
+    private static String ledgerKey(Long employeeId, Integer financialYear) {
+        return employeeId + "|" + financialYear;
+    }
+
+    private static boolean matches(EmployeeYtdLedger ledger, EmployeeYtdLedger sum) {
+        return ledger.getPayments().equals(sum.getPayments())
+            && ledger.getTotalGross().compareTo(sum.getTotalGross()) == 0
+            && ledger.getTotalNet().compareTo(sum.getTotalNet()) == 0
+            && ledger.getTotalProvidentFund().compareTo(sum.getTotalProvidentFund()) == 0
+            && Objects.equals(ledger.getLastPeriodKey(), sum.getLastPeriodKey());
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -1,8 +1,20 @@
 package com.aurionpro.payroll.service;
 
+import java.io.OutputStream;
+
+import com.aurionpro.payroll.dto.request.ReportFilter;
+
 public interface ExcelGenerationService {
     
     byte[] generateEmployeeListExcel(Long organizationId);
     
     byte[] generateSalaryReportExcel(Long organizationId, String month, Integer year);
+    
+    // Streaming variants - write the workbook straight to the given stream
+    void writeEmployeeListExcel(Long organizationId, OutputStream out);
+    
+    void writeSalaryReportExcel(Long organizationId, String month, Integer year, OutputStream out);
+    
+    // Salary report of the payments matching the filter
+    void writeSalaryReportExcel(Long organizationId, ReportFilter filter, OutputStream out);
 }
\ No newline at end of file
@@ -2,14 +2,22 @@ package com.aurionpro.payroll.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.aurionpro.payroll.dto.request.ReportFilter;
+import com.aurionpro.payroll.dto.response.ReportTotals;
 import com.aurionpro.payroll.entity.Employee;
 import com.aurionpro.payroll.entity.Organization;
 import com.aurionpro.payroll.entity.SalaryPayment;
@@ -18,6 +26,11 @@ import com.aurionpro.payroll.exception.ResourceNotFoundException;
 import com.aurionpro.payroll.repo.EmployeeRepo;
 import com.aurionpro.payroll.repo.OrganizationRepo;
 import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class ExcelGenerationServiceImpl implements ExcelGenerationService {
@@ -31,6 +44,31 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
     @Autowired
     private SalaryPaymentRepo salaryPaymentRepo;
     
+    // Rows kept in memory by the streaming workbook; older rows are flushed to a temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
+    
+    // Processed entities are cleared from the persistence context every this many rows
+    private static final int DETACH_INTERVAL = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Report rows are read through a cursor, which only lives as long as its transaction
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    // Fixed widths (characters) - auto-sizing would need every row in memory
+    private static final int[] EMPLOYEE_LIST_COLUMN_WIDTHS = {10, 28, 34, 18, 20, 24, 18, 14};
+    private static final int[] SALARY_REPORT_COLUMN_WIDTHS = {10, 28, 20, 16, 14, 14, 16, 16, 14, 16, 16, 26};
+    
     
     
     
@@ -244,23 +282,60 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
      return style;
  }
 
+ /**
+  * Clear rows already written from the persistence context so memory stays flat on long cursors
+  */
+ private void detachProcessedRows(int rowsWritten) {
+     if (rowsWritten % DETACH_INTERVAL == 0) {
+         entityManager.clear();
+     }
+ }
+ 
+ private void setColumnWidths(Sheet sheet, int[] widths) {
+     for (int i = 0; i < widths.length; i++) {
+         sheet.setColumnWidth(i, widths[i] * 256);
+     }
+ }
+ 
+ /**
+  * Delete the temp files backing a streaming workbook
+  */
+ private void closeWorkbook(SXSSFWorkbook workbook) {
+     try {
+         workbook.dispose();
+         workbook.close();
+     } catch (IOException e) {
+         System.err.println("⚠️ Failed to close Excel workbook: " + e.getMessage());
+     }
+ }
+
  // ==========================================
  // EMPLOYEE LIST EXCEL
  // ==========================================
 
  @Override
  public byte[] generateEmployeeListExcel(Long organizationId) {
+     ByteArrayOutputStream out = new ByteArrayOutputStream();
+     writeEmployeeListExcel(organizationId, out);
+     return out.toByteArray();
+ }
+
+ @Override
+ public void writeEmployeeListExcel(Long organizationId, OutputStream out) {
+     readOnlyTransaction.executeWithoutResult(status -> streamEmployeeList(organizationId, out));
+ }
+
+ private void streamEmployeeList(Long organizationId, OutputStream out) {
+     Organization organization = organizationRepo.findById(organizationId)
+         .orElseThrow(() -> new ResourceNotFoundException("Organization", "id", organizationId));
+     
+     long employeeCount = employeeRepo.countByOrganizationId(organizationId);
+     
+     SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+     workbook.setCompressTempFiles(true);
      try {
-         Organization organization = organizationRepo.findById(organizationId)
-             .orElseThrow(() -> new ResourceNotFoundException("Organization", "id", organizationId));
-         
-         List<Employee> employees = employeeRepo.findByOrganization(organization);
-         
-         //Sort employees by ID in ascending order
-         employees.sort((e1, e2) -> Long.compare(e1.getId(), e2.getId()));
-         
-         Workbook workbook = new XSSFWorkbook();
-         Sheet sheet = workbook.createSheet("Employee List");
+         SXSSFSheet sheet = workbook.createSheet("Employee List");
+         setColumnWidths(sheet, EMPLOYEE_LIST_COLUMN_WIDTHS);
          
          // Create styles
          CellStyle titleStyle = createTitleStyle(workbook);
@@ -291,7 +366,7 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
          infoCell.setCellStyle(infoStyle);
          
          Cell countCell = infoRow.createCell(6);
-         countCell.setCellValue("Total Employees: " + employees.size());
+         countCell.setCellValue("Total Employees: " + employeeCount);
          countCell.setCellStyle(infoStyle);
          
          // Empty row for spacing
@@ -308,63 +383,60 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
              cell.setCellStyle(headerStyle);
          }
          
-         // Data rows
-         for (int i = 0; i < employees.size(); i++) {
-             Employee employee = employees.get(i);
-             Row row = sheet.createRow(rowNum++);
-             row.setHeightInPoints(20);
+         // Data rows, sorted by ID in the database and read one at a time
+         try (Stream<Employee> employees = employeeRepo.streamByOrganizationId(organizationId)) {
+             Iterator<Employee> rows = employees.iterator();
+             for (int i = 0; rows.hasNext(); i++) {
+                 Employee employee = rows.next();
+                 Row row = sheet.createRow(rowNum++);
+                 row.setHeightInPoints(20);
              
-             // Alternate row colors
-             boolean isAlternate = (i % 2 == 1);
-             CellStyle currentStyle = isAlternate ? alternateStyle : dataStyle;
+                 // Alternate row colors
+                 boolean isAlternate = (i % 2 == 1);
+                 CellStyle currentStyle = isAlternate ? alternateStyle : dataStyle;
              
-             Cell cell0 = row.createCell(0);
-             cell0.setCellValue(employee.getId());
-             cell0.setCellStyle(currentStyle);
+                 Cell cell0 = row.createCell(0);
+                 cell0.setCellValue(employee.getId());
+                 cell0.setCellStyle(currentStyle);
              
-             Cell cell1 = row.createCell(1);
-             cell1.setCellValue(employee.getName());
-             cell1.setCellStyle(currentStyle);
+                 Cell cell1 = row.createCell(1);
+                 cell1.setCellValue(employee.getName());
+                 cell1.setCellStyle(currentStyle);
              
-             Cell cell2 = row.createCell(2);
-             cell2.setCellValue(employee.getEmail());
-             cell2.setCellStyle(currentStyle);
+                 Cell cell2 = row.createCell(2);
+                 cell2.setCellValue(employee.getEmail());
+                 cell2.setCellStyle(currentStyle);
              
-             Cell cell3 = row.createCell(3);
-             cell3.setCellValue(employee.getPhone());
-             cell3.setCellStyle(currentStyle);
+                 Cell cell3 = row.createCell(3);
+                 cell3.setCellValue(employee.getPhone());
+                 cell3.setCellStyle(currentStyle);
              
-             Cell cell4 = row.createCell(4);
-             cell4.setCellValue(employee.getDepartment());
-             cell4.setCellStyle(currentStyle);
+                 Cell cell4 = row.createCell(4);
+                 cell4.setCellValue(employee.getDepartment());
+                 cell4.setCellStyle(currentStyle);
              
-             Cell cell5 = row.createCell(5);
-             cell5.setCellValue(employee.getDesignation());
-             cell5.setCellStyle(currentStyle);
+                 Cell cell5 = row.createCell(5);
+                 cell5.setCellValue(employee.getDesignation());
+                 cell5.setCellStyle(currentStyle);
              
-             Cell cell6 = row.createCell(6);
-             cell6.setCellValue(employee.getDateOfJoining().toString());
-             cell6.setCellStyle(currentStyle);
+                 Cell cell6 = row.createCell(6);
+                 cell6.setCellValue(employee.getDateOfJoining().toString());
+                 cell6.setCellStyle(currentStyle);
              
-             Cell cell7 = row.createCell(7);
-             cell7.setCellValue(employee.getStatus().name());
-             cell7.setCellStyle(currentStyle);
-         }
-         
-         // Auto-size columns
-         for (int i = 0; i < headers.length; i++) {
-             sheet.autoSizeColumn(i);
-             sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000); // Add padding
+                 Cell cell7 = row.createCell(7);
+                 cell7.setCellValue(employee.getStatus().name());
+                 cell7.setCellStyle(currentStyle);
+             
+                 detachProcessedRows(i + 1);
+             }
          }
          
-         ByteArrayOutputStream out = new ByteArrayOutputStream();
          workbook.write(out);
-         workbook.close();
-         
-         return out.toByteArray();
          
      } catch (IOException e) {
          throw new BadRequestException("Failed to generate Excel: " + e.getMessage());
+     } finally {
+         closeWorkbook(workbook);
      }
  }
 
@@ -374,18 +446,53 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
 
  @Override
  public byte[] generateSalaryReportExcel(Long organizationId, String month, Integer year) {
-     try {
+     ByteArrayOutputStream out = new ByteArrayOutputStream();
+     writeSalaryReportExcel(organizationId, month, year, out);
+     return out.toByteArray();
+ }
+
+ @Override
+ public void writeSalaryReportExcel(Long organizationId, String month, Integer year, OutputStream out) {
+     readOnlyTransaction.executeWithoutResult(status -> streamSalaryReport(organizationId, month, year, out));
+ }
+
+ @Override
+ public void writeSalaryReportExcel(Long organizationId, ReportFilter filter, OutputStream out) {
+     SalaryReportCriteria criteria = SalaryReportCriteria.of(organizationId, filter);
+     readOnlyTransaction.executeWithoutResult(status -> {
          Organization organization = organizationRepo.findById(organizationId)
              .orElseThrow(() -> new ResourceNotFoundException("Organization", "id", organizationId));
          
-         List<SalaryPayment> payments = 
-             salaryPaymentRepo.findByOrganizationAndMonthAndYear(organization, month, year);
-         
-         //Sort payments by ID in ascending order
-         payments.sort((p1, p2) -> Long.compare(p1.getEmployee().getId(), p2.getEmployee().getId()));
-         
-         Workbook workbook = new XSSFWorkbook();
-         Sheet sheet = workbook.createSheet("Salary Report");
+         // One filtered query for the totals, one for the rows
+         ReportTotals totals = salaryPaymentRepo.summarizeReportRows(criteria.getSpecification());
+         streamSalaryReport(organization, criteria.getDescription(), totals,
+             () -> salaryPaymentRepo.streamReportRows(criteria.getSpecification()), out);
+     });
+ }
+
+ private void streamSalaryReport(Long organizationId, String month, Integer year, OutputStream out) {
+     Organization organization = organizationRepo.findById(organizationId)
+         .orElseThrow(() -> new ResourceNotFoundException("Organization", "id", organizationId));
+     
+     Integer periodKey = PayrollPeriod.toKey(month, year);
+     if (periodKey == null) {
+         throw new BadRequestException("Invalid month: " + month);
+     }
+     
+     // Header totals come from one aggregate query so the rows can be streamed afterwards
+     ReportTotals totals = salaryPaymentRepo.summarizeReportRows(organizationId, periodKey);
+     
+     streamSalaryReport(organization, month + " " + year, totals,
+         () -> salaryPaymentRepo.streamReportRowsByOrganization(organizationId, periodKey), out);
+ }
+ 
+ private void streamSalaryReport(Organization organization, String title, ReportTotals totals,
+         Supplier<Stream<SalaryPayment>> payments, OutputStream out) {
+     SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+     workbook.setCompressTempFiles(true);
+     try {
+         SXSSFSheet sheet = workbook.createSheet("Salary Report");
+         setColumnWidths(sheet, SALARY_REPORT_COLUMN_WIDTHS);
          
          // Create styles
          CellStyle titleStyle = createTitleStyle(workbook);
@@ -402,7 +509,7 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
          Row titleRow = sheet.createRow(rowNum++);
          titleRow.setHeightInPoints(30);
          Cell titleCell = titleRow.createCell(0);
-         titleCell.setCellValue("SALARY REPORT - " + month + " " + year);
+         titleCell.setCellValue("SALARY REPORT - " + title);
          titleCell.setCellStyle(titleStyle);
          sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 11));
          
@@ -425,13 +532,10 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
          infoCell1.setCellStyle(infoStyle);
          
          Cell infoCell2 = infoRow.createCell(8);
-         infoCell2.setCellValue("Total Employees: " + payments.size());
+         infoCell2.setCellValue("Total Employees: " + totals.getRowCount());
          infoCell2.setCellStyle(infoStyle);
          
-         // Calculate total
-         double totalNetSalary = payments.stream()
-             .mapToDouble(p -> p.getNetSalary().doubleValue())
-             .sum();
+         double totalNetSalary = totals.getTotalNet() != null ? totals.getTotalNet().doubleValue() : 0;
          
          Cell infoCell3 = infoRow.createCell(10);
          infoCell3.setCellValue("Total Payout: ₹" + String.format("%,.2f", totalNetSalary));
@@ -452,94 +556,91 @@ public class ExcelGenerationServiceImpl implements ExcelGenerationService {
              cell.setCellStyle(headerStyle);
          }
          
-         // Data rows
-         for (int i = 0; i < payments.size(); i++) {
-             SalaryPayment payment = payments.get(i);
-             Row row = sheet.createRow(rowNum++);
-             row.setHeightInPoints(20);
+         // Data rows, employee fetched with each payment and sorted by employee ID in the database
+         try (Stream<SalaryPayment> rowStream = payments.get()) {
+             Iterator<SalaryPayment> rows = rowStream.iterator();
+             for (int i = 0; rows.hasNext(); i++) {
+                 SalaryPayment payment = rows.next();
+                 Row row = sheet.createRow(rowNum++);
+                 row.setHeightInPoints(20);
              
-             // ✅ Determine if this is an alternate (grey) row
-             boolean isAlternate = (i % 2 == 1);
+                 // ✅ Determine if this is an alternate (grey) row
+                 boolean isAlternate = (i % 2 == 1);
              
-             // ✅ Choose the correct styles for text and currency cells
-             CellStyle textStyle = isAlternate ? alternateStyle : dataStyle;
-             CellStyle moneyStyle = isAlternate ? alternateCurrencyStyle : currencyStyle;
+                 // ✅ Choose the correct styles for text and currency cells
+                 CellStyle textStyle = isAlternate ? alternateStyle : dataStyle;
+                 CellStyle moneyStyle = isAlternate ? alternateCurrencyStyle : currencyStyle;
              
-             // ID (text)
-             Cell cell0 = row.createCell(0);
-             cell0.setCellValue(payment.getEmployee().getId());
-             cell0.setCellStyle(textStyle);
+                 // ID (text)
+                 Cell cell0 = row.createCell(0);
+                 cell0.setCellValue(payment.getEmployee().getId());
+                 cell0.setCellStyle(textStyle);
              
-             // Name (text)
-             Cell cell1 = row.createCell(1);
-             cell1.setCellValue(payment.getEmployee().getName());
-             cell1.setCellStyle(textStyle);
+                 // Name (text)
+                 Cell cell1 = row.createCell(1);
+                 cell1.setCellValue(payment.getEmployee().getName());
+                 cell1.setCellStyle(textStyle);
              
-             // Department (text)
-             Cell cell2 = row.createCell(2);
-             cell2.setCellValue(payment.getEmployee().getDepartment());
-             cell2.setCellStyle(textStyle);
+                 // Department (text)
+                 Cell cell2 = row.createCell(2);
+                 cell2.setCellValue(payment.getEmployee().getDepartment());
+                 cell2.setCellStyle(textStyle);
              
-             // ✅ Basic Salary (currency with alternating style)
-             Cell cell3 = row.createCell(3);
-             cell3.setCellValue(payment.getBasicSalary().doubleValue());
-             cell3.setCellStyle(moneyStyle);
+                 // ✅ Basic Salary (currency with alternating style)
+                 Cell cell3 = row.createCell(3);
+                 cell3.setCellValue(payment.getBasicSalary().doubleValue());
+                 cell3.setCellStyle(moneyStyle);
              
-             // ✅ HRA (currency with alternating style)
-             Cell cell4 = row.createCell(4);
-             cell4.setCellValue(payment.getHra().doubleValue());
-             cell4.setCellStyle(moneyStyle);
+                 // ✅ HRA (currency with alternating style)
+                 Cell cell4 = row.createCell(4);
+                 cell4.setCellValue(payment.getHra().doubleValue());
+                 cell4.setCellStyle(moneyStyle);
              
-             // ✅ DA (currency with alternating style)
-             Cell cell5 = row.createCell(5);
-             cell5.setCellValue(payment.getDearnessAllowance().doubleValue());
-             cell5.setCellStyle(moneyStyle);
+                 // ✅ DA (currency with alternating style)
+                 Cell cell5 = row.createCell(5);
+                 cell5.setCellValue(payment.getDearnessAllowance().doubleValue());
+                 cell5.setCellStyle(moneyStyle);
              
-             // ✅ Other Allowances (currency with alternating style)
-             Cell cell6 = row.createCell(6);
-             cell6.setCellValue(payment.getOtherAllowances().doubleValue());
-             cell6.setCellStyle(moneyStyle);
+                 // ✅ Other Allowances (currency with alternating style)
+                 Cell cell6 = row.createCell(6);
+                 cell6.setCellValue(payment.getOtherAllowances().doubleValue());
+                 cell6.setCellStyle(moneyStyle);
              
-             // ✅ Gross Salary (currency with alternating style)
-             Cell cell7 = row.createCell(7);
-             cell7.setCellValue(payment.getGrossSalary().doubleValue());
-             cell7.setCellStyle(moneyStyle);
+                 // ✅ Gross Salary (currency with alternating style)
+                 Cell cell7 = row.createCell(7);
+                 cell7.setCellValue(payment.getGrossSalary().doubleValue());
+                 cell7.setCellStyle(moneyStyle);
              
-             // ✅ PF (currency with alternating style)
-             Cell cell8 = row.createCell(8);
-             cell8.setCellValue(payment.getProvidentFund().doubleValue());
-             cell8.setCellStyle(moneyStyle);
+                 // ✅ PF (currency with alternating style)
+                 Cell cell8 = row.createCell(8);
+                 cell8.setCellValue(payment.getProvidentFund().doubleValue());
+                 cell8.setCellStyle(moneyStyle);
              
-             // ✅ Net Salary (currency with alternating style)
-             Cell cell9 = row.createCell(9);
-             cell9.setCellValue(payment.getNetSalary().doubleValue());
-             cell9.setCellStyle(moneyStyle);
+                 // ✅ Net Salary (currency with alternating style)
+                 Cell cell9 = row.createCell(9);
+                 cell9.setCellValue(payment.getNetSalary().doubleValue());
+                 cell9.setCellStyle(moneyStyle);
              
-             // Payment Date (text)
-             Cell cell10 = row.createCell(10);
-             cell10.setCellValue(payment.getPaymentDate().toString());
-             cell10.setCellStyle(textStyle);
+                 // Payment Date (text)
+                 Cell cell10 = row.createCell(10);
+                 cell10.setCellValue(payment.getPaymentDate() != null ? payment.getPaymentDate().toString() : "");
+                 cell10.setCellStyle(textStyle);
              
-             // Transaction ID (text)
-             Cell cell11 = row.createCell(11);
-             cell11.setCellValue(payment.getTransactionId());
-             cell11.setCellStyle(textStyle);
-         }
-         
-         // Auto-size columns
-         for (int i = 0; i < headers.length; i++) {
-             sheet.autoSizeColumn(i);
-             sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
+                 // Transaction ID (text)
+                 Cell cell11 = row.createCell(11);
+                 cell11.setCellValue(payment.getTransactionId());
+                 cell11.setCellStyle(textStyle);
+             
+                 detachProcessedRows(i + 1);
+             }
          }
          
-         ByteArrayOutputStream out = new ByteArrayOutputStream();
          workbook.write(out);
-         workbook.close();
-         
-         return out.toByteArray();
          
      } catch (IOException e) {
          throw new BadRequestException("Failed to generate Excel: " + e.getMessage());
+     } finally {
+         closeWorkbook(workbook);
      }
  }
 }
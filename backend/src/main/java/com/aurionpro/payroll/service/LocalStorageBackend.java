@@ -0,0 +1,212 @@
+package com.aurionpro.payroll.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.FileUploadException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps documents on the local filesystem (dev, test and air-gapped installs, or bulk payslip runs
+ * that should not wait on remote uploads). Files live under root/folder/xx/yy/name, where xx/yy come
+ * from the file name's hash, so no single directory grows past a few hundred entries. A file is written
+ * to a temporary file in its target directory and renamed into place, so readers never see a partial file.
+ * Files are served back by LocalFileController with FileChannel.transferTo.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    // Per upload in flight, whatever the file size
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${storage.local.root:./storage}")
+    private String root;
+
+    // Prefix of the returned URLs; an absolute URL (https://host/api/files/local) if the frontend is served elsewhere
+    @Value("${storage.local.base-url:/api/files/local}")
+    private String baseUrl;
+
+    private Path rootPath;
+
+    @PostConstruct
+    void init() throws IOException {
+        rootPath = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(rootPath);
+        System.out.println("📁 Local document storage at " + rootPath);
+    }
+
+    @Override
+    public String store(byte[] content, String folder, String name, String extension, String contentType) {
+        return write(folder, name, extension, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    @Override
+    public String store(InputStream content, long size, String folder, String name, String extension, String contentType) {
+        return write(folder, name, extension, channel -> {
+            ReadableByteChannel source = Channels.newChannel(content);
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        });
+    }
+
+    @Override
+    public void delete(String id) {
+        try {
+            Files.deleteIfExists(resolve(keyOf(id)));
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to delete file " + id + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String idOf(String url) {
+        return keyOf(url);
+    }
+
+    /**
+     * Existing file of a key
+     */
+    public Path locate(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("File", "path", key);
+        }
+        return path;
+    }
+
+    /**
+     * Copy the file to the stream with transferTo, which lets the kernel move the bytes
+     * without copying them through a heap buffer where the target channel allows it
+     * @return bytes written
+     */
+    public long transferTo(Path path, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return position;
+        }
+    }
+
+
+    private interface ContentWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private String write(String folder, String name, String extension, ContentWriter content) {
+        String fileName = (name != null && !name.isBlank() ? sanitize(name) : UUID.randomUUID().toString())
+            + (extension != null ? "." + sanitize(extension) : "");
+        String key = sanitizeFolder(folder) + "/" + shard(fileName) + "/" + fileName;
+        Path target = resolve(key);
+
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                content.writeTo(channel);
+            }
+
+            move(temp, target);
+            temp = null;
+        } catch (IOException e) {
+            throw new FileUploadException("Failed to store file " + key + ": " + e.getMessage());
+        } finally {
+            deleteQuietly(temp);
+        }
+
+        return baseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        Path path = rootPath.resolve(key).normalize();
+        if (!path.startsWith(rootPath) || path.equals(rootPath)) {
+            throw new BadRequestException("Invalid file path: " + key);
+        }
+        return path;
+    }
+
+    // URL returned by store(), or the bare key
+    private String keyOf(String id) {
+        return id.startsWith(baseUrl + "/") ? id.substring(baseUrl.length() + 1) : id;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // a leftover temp file is harmless
+            }
+        }
+    }
+
+    // Two directory levels of 256 entries each
+    private static String shard(String fileName) {
+        int hash = fileName.hashCode();
+        return String.format("%02x/%02x", (hash >>> 8) & 0xff, hash & 0xff);
+    }
+
+    private static String sanitizeFolder(String folder) {
+        if (folder == null || folder.isBlank()) {
+            return "files";
+        }
+        StringBuilder path = new StringBuilder();
+        for (String segment : folder.split("/")) {
+            if (!segment.isBlank()) {
+                path.append(path.length() > 0 ? "/" : "").append(sanitize(segment));
+            }
+        }
+        return path.length() > 0 ? path.toString() : "files";
+    }
+
+    // Letters, digits, dot, dash and underscore only - no separators, no leading dot
+    private static String sanitize(String name) {
+        String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.startsWith(".") ? "_" + safe.substring(1) : safe;
+    }
+}
@@ -5,16 +5,22 @@ import java.util.List;
 import com.aurionpro.payroll.dto.request.PaymentRequestRequest;
 import com.aurionpro.payroll.dto.response.PaymentRequestList;
 import com.aurionpro.payroll.dto.response.PaymentRequestResponse;
+import com.aurionpro.payroll.dto.response.PayrollPreview;
 import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PeriodRange;
 
 public interface PaymentRequestService {
 
 	PaymentRequestResponse createPaymentRequest(PaymentRequestRequest request, Long organizationId);
     
+    PayrollPreview previewSalaryDisbursement(Long organizationId, String month, Integer year);
+    
     PaymentRequestResponse getPaymentRequestById(Long id);
     
     List<PaymentRequestResponse> getAllPaymentRequestsByOrganization(Long organizationId);
     
+    List<PaymentRequestResponse> getPaymentRequestsByOrganizationAndRange(Long organizationId, PeriodRange range);
+    
     List<PaymentRequestList> getAllPaymentRequests();
     
     List<PaymentRequestList> getPaymentRequestsByStatus(PaymentRequestStatus status);
@@ -1,5 +1,7 @@
 package com.aurionpro.payroll.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -10,16 +12,21 @@ import org.springframework.stereotype.Service;
 
 import com.aurionpro.payroll.dto.request.PaymentRequestRequest;
 import com.aurionpro.payroll.dto.response.PaymentRequestList;
+import com.aurionpro.payroll.dto.response.DepartmentPayrollTotals;
 import com.aurionpro.payroll.dto.response.PaymentRequestResponse;
+import com.aurionpro.payroll.dto.response.PayrollPreview;
 import com.aurionpro.payroll.entity.Organization;
 import com.aurionpro.payroll.entity.User;
 import com.aurionpro.payroll.enums.PaymentRequestStatus;
 import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.enums.PeriodRange;
 import com.aurionpro.payroll.exception.BadRequestException;
 import com.aurionpro.payroll.exception.ResourceNotFoundException;
 import com.aurionpro.payroll.repo.OrganizationRepo;
 import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryStructureRepo;
 import com.aurionpro.payroll.repo.UserRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
 
 import jakarta.transaction.Transactional;
 
@@ -36,6 +43,9 @@ public class PaymentRequestServiceImpl implements PaymentRequestService{
     @Autowired
     private UserRepo userRepo;
     
+    @Autowired
+    private SalaryStructureRepo salaryStructureRepo;
+    
     @Autowired
     private ModelMapper modelMapper;
 
@@ -54,6 +64,10 @@ public class PaymentRequestServiceImpl implements PaymentRequestService{
         }
         
      
+        if (PayrollPeriod.toKey(request.getMonth(), request.getYear()) == null) {
+            throw new BadRequestException("Invalid month: " + request.getMonth());
+        }
+        
         //CHECK FOR DUPLICATE BASED ON REQUEST TYPE
         if (request.getRequestType() == PaymentRequestType.SALARY_DISBURSEMENT) {
             // ⭐ RULE 1: Only ONE salary disbursement per month (any status except REJECTED)
@@ -69,10 +83,23 @@ public class PaymentRequestServiceImpl implements PaymentRequestService{
                     "A salary disbursement request already exists for " + request.getMonth() + " " + request.getYear() + 
                     ". You can only create one salary disbursement per month.");
             }
+            
+            // Amount and headcount come from the active salary structures, not from the client
+            PayrollPreview preview = previewSalaryDisbursement(organizationId, request.getMonth(), request.getYear());
+            if (preview.getEmployeeCount() == 0) {
+                throw new BadRequestException("No employees with an active salary structure to pay for "
+                    + request.getMonth() + " " + request.getYear());
+            }
+            request.setTotalAmount(preview.getTotalNet());
+            request.setEmployeeCount(preview.getEmployeeCount());
         } else if (request.getRequestType() == PaymentRequestType.VENDOR_PAYMENT) {
             // ⭐ RULE 2: Vendor payments are allowed - no duplicate check needed
             // Each vendor can have their own payment request per month
             System.out.println("✅ Vendor payment - no duplicate check needed");
+            
+            if (request.getTotalAmount() == null) {
+                throw new BadRequestException("Total amount is required for vendor payments");
+            }
         }
      
             
@@ -91,6 +118,45 @@ public class PaymentRequestServiceImpl implements PaymentRequestService{
         return modelMapper.map(savedRequest, PaymentRequestResponse.class);
     }
     
+    @Override
+    public PayrollPreview previewSalaryDisbursement(Long organizationId, String month, Integer year) {
+        Integer periodKey = PayrollPeriod.toKey(month, year);
+        if (periodKey == null) {
+            throw new BadRequestException("Invalid month: " + month);
+        }
+        
+        // Single GROUP BY query - nothing is loaded per employee and nothing is written
+        List<DepartmentPayrollTotals> departments = salaryStructureRepo.summarizePayrollByDepartment(
+            organizationId, SalaryDisbursementEngine.ELIGIBLE_STATUSES, periodKey);
+        
+        long employeeCount = 0;
+        BigDecimal totalGross = BigDecimal.ZERO;
+        BigDecimal totalNet = BigDecimal.ZERO;
+        BigDecimal totalProvidentFund = BigDecimal.ZERO;
+        
+        for (DepartmentPayrollTotals department : departments) {
+            employeeCount += department.getEmployeeCount();
+            totalGross = totalGross.add(orZero(department.getTotalGross()));
+            totalNet = totalNet.add(orZero(department.getTotalNet()));
+            totalProvidentFund = totalProvidentFund.add(orZero(department.getTotalProvidentFund()));
+        }
+        
+        return PayrollPreview.builder()
+            .organizationId(organizationId)
+            .month(month)
+            .year(year)
+            .employeeCount((int) employeeCount)
+            .totalGross(totalGross)
+            .totalNet(totalNet)
+            .totalProvidentFund(totalProvidentFund)
+            .departments(departments)
+            .build();
+    }
+    
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
     @Override
     public PaymentRequestResponse getPaymentRequestById(Long id) {
         com.aurionpro.payroll.entity.PaymentRequest paymentRequest = paymentRequestRepo.findById(id)
@@ -112,6 +178,18 @@ public class PaymentRequestServiceImpl implements PaymentRequestService{
             .collect(Collectors.toList());
     }
     
+    @Override
+    public List<PaymentRequestResponse> getPaymentRequestsByOrganizationAndRange(Long organizationId, PeriodRange range) {
+        // Single range scan on (organization_id, period_key)
+        int[] periods = PayrollPeriod.range(range, LocalDate.now());
+        List<com.aurionpro.payroll.entity.PaymentRequest> requests = 
+            paymentRequestRepo.findByOrganizationIdAndPeriodKeyBetweenOrderByPeriodKeyDesc(organizationId, periods[0], periods[1]);
+        
+        return requests.stream()
+            .map(req -> modelMapper.map(req, PaymentRequestResponse.class))
+            .collect(Collectors.toList());
+    }
+    
     @Override
     public List<PaymentRequestList> getAllPaymentRequests() {
         List<com.aurionpro.payroll.entity.PaymentRequest> requests = paymentRequestRepo.findAll();
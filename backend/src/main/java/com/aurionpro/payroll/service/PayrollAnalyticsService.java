@@ -0,0 +1,280 @@
+package com.aurionpro.payroll.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.dto.response.PayrollSummaryReconciliation;
+import com.aurionpro.payroll.dto.response.PayrollSummaryTotals;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PayrollSummary;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.enums.PeriodRange;
+import com.aurionpro.payroll.repo.OrganizationRepo;
+import com.aurionpro.payroll.repo.PayrollSummaryRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+
+/**
+ * Payroll analytics served from the pre-aggregated payroll summary (organization x period x department).
+ * Rows are incremented in the same transaction that saves the payments, so a summary never contains
+ * payments that were rolled back. Dashboards read one row per period and department instead of every
+ * payment. A reconciliation pass recomputes the groups from the raw payments and reports (or repairs)
+ * any difference.
+ */
+@Service
+public class PayrollAnalyticsService {
+
+    private static final int MAX_DIFFERENCES = 50;
+
+    @Autowired
+    private PayrollSummaryRepo payrollSummaryRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private OrganizationRepo organizationRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payroll.analytics.reconcile-repair:false}")
+    private boolean repairOnSchedule;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile PayrollSummaryReconciliation lastReconciliation;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Add newly saved completed payments to their summary rows.
+     * Joins the caller's transaction; rows are locked in department order so concurrent chunks
+     * of the same organization and period cannot deadlock.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(Organization organization, Integer periodKey, List<SalaryPayment> payments) {
+        if (payments.isEmpty() || periodKey == null) {
+            return;
+        }
+
+        Map<String, PayrollSummary> deltas = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (SalaryPayment payment : payments) {
+            String department = departmentOf(payment);
+            PayrollSummary delta = deltas.computeIfAbsent(department,
+                d -> PayrollSummary.empty(organization, periodKey, d));
+            add(delta, 1, payment.getGrossSalary(), payment.getNetSalary(), payment.getProvidentFund());
+        }
+
+        for (PayrollSummary delta : deltas.values()) {
+            Optional<PayrollSummary> existing = payrollSummaryRepo
+                .findForUpdate(organization.getId(), periodKey, delta.getDepartment());
+            if (existing.isPresent()) {
+                PayrollSummary summary = existing.get();
+                add(summary, delta.getHeadcount(), delta.getTotalGross(), delta.getTotalNet(), delta.getTotalProvidentFund());
+                payrollSummaryRepo.save(summary);
+            } else {
+                // First payments of this group - the unique key rejects a concurrent duplicate insert,
+                // and the disbursement engine retries the chunk, which then finds and updates the row
+                payrollSummaryRepo.save(delta);
+            }
+        }
+    }
+
+    /**
+     * Cost, headcount and PF per period and department
+     */
+    public List<PayrollSummaryTotals> getDepartmentTotals(Long organizationId, PeriodRange range) {
+        int[] periods = PayrollPeriod.range(range, LocalDate.now());
+        return payrollSummaryRepo.findDepartmentTotals(organizationId, periods[0], periods[1]);
+    }
+
+    /**
+     * Organization-wide cost, headcount and PF per period
+     */
+    public List<PayrollSummaryTotals> getPeriodTotals(Long organizationId, PeriodRange range) {
+        int[] periods = PayrollPeriod.range(range, LocalDate.now());
+        return payrollSummaryRepo.findPeriodTotals(organizationId, periods[0], periods[1]);
+    }
+
+    // Disabled unless payroll.analytics.reconcile-cron is set
+    @Scheduled(cron = "${payroll.analytics.reconcile-cron:-}")
+    void scheduledReconciliation() {
+        reconcileAll(repairOnSchedule);
+    }
+
+    /**
+     * Compare one organization's summary with its raw payments; with repair, make the summary match
+     */
+    public PayrollSummaryReconciliation reconcile(Long organizationId, boolean repair) {
+        long start = System.nanoTime();
+        PayrollSummaryReconciliation report = newReport(organizationId, repair);
+
+        transactionTemplate.executeWithoutResult(status -> reconcileOrganization(organizationId, repair, report));
+
+        return finish(report, start);
+    }
+
+    /**
+     * Same for every organization, one transaction each
+     */
+    public PayrollSummaryReconciliation reconcileAll(boolean repair) {
+        long start = System.nanoTime();
+        PayrollSummaryReconciliation report = newReport(null, repair);
+
+        for (Long organizationId : organizationRepo.findAllIds()) {
+            transactionTemplate.executeWithoutResult(status -> reconcileOrganization(organizationId, repair, report));
+        }
+
+        lastReconciliation = finish(report, start);
+        return lastReconciliation;
+    }
+
+    public PayrollSummaryReconciliation getLastReconciliation() {
+        return lastReconciliation;
+    }
+
+
+    private void reconcileOrganization(Long organizationId, boolean repair, PayrollSummaryReconciliation report) {
+        // Repair locks the organization's rows first, so no chunk can increment them in between
+        List<PayrollSummary> summaries = repair
+            ? payrollSummaryRepo.findByOrganizationIdForUpdate(organizationId)
+            : payrollSummaryRepo.findByOrganizationId(organizationId);
+
+        Map<String, PayrollSummary> remaining = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (PayrollSummary summary : summaries) {
+            remaining.put(groupKey(summary.getPeriodKey(), summary.getDepartment()), summary);
+        }
+
+        List<PayrollSummaryTotals> groups = salaryPaymentRepo.summarizeByPeriodAndDepartment(
+            organizationId, PaymentStatus.COMPLETED);
+        for (PayrollSummaryTotals group : groups) {
+            report.setGroupsChecked(report.getGroupsChecked() + 1);
+            PayrollSummary summary = remaining.remove(groupKey(group.getPeriodKey(), group.getDepartment()));
+
+            if (summary == null) {
+                report.setMissing(report.getMissing() + 1);
+                difference(report, organizationId, group.getPeriodKey(), group.getDepartment(),
+                    "missing (raw " + describe(group) + ")");
+                if (repair) {
+                    summary = PayrollSummary.empty(organizationRepo.getReferenceById(organizationId),
+                        group.getPeriodKey(), group.getDepartment());
+                    overwrite(summary, group);
+                    payrollSummaryRepo.save(summary);
+                }
+            } else if (!matches(summary, group)) {
+                report.setMismatched(report.getMismatched() + 1);
+                difference(report, organizationId, group.getPeriodKey(), group.getDepartment(),
+                    "summary " + describe(summary) + " vs raw " + describe(group));
+                if (repair) {
+                    overwrite(summary, group);
+                    payrollSummaryRepo.save(summary);
+                }
+            }
+        }
+
+        for (PayrollSummary orphan : remaining.values()) {
+            report.setOrphaned(report.getOrphaned() + 1);
+            difference(report, organizationId, orphan.getPeriodKey(), orphan.getDepartment(),
+                "no payments (summary " + describe(orphan) + ")");
+            if (repair) {
+                payrollSummaryRepo.delete(orphan);
+            }
+        }
+    }
+
+    private PayrollSummaryReconciliation newReport(Long organizationId, boolean repair) {
+        return PayrollSummaryReconciliation.builder()
+            .organizationId(organizationId)
+            .checkedAt(LocalDateTime.now())
+            .repaired(repair)
+            .differences(new ArrayList<>())
+            .build();
+    }
+
+    private PayrollSummaryReconciliation finish(PayrollSummaryReconciliation report, long start) {
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        if (report.isConsistent()) {
+            System.out.println("✅ Payroll summary reconciled: " + report.getGroupsChecked() + " groups match the payments");
+        } else {
+            System.err.println("⚠️ Payroll summary differs from the payments: " + report.getMismatched() + " mismatched, "
+                + report.getMissing() + " missing, " + report.getOrphaned() + " orphaned"
+                + (report.isRepaired() ? " - repaired" : ""));
+        }
+        return report;
+    }
+
+    private void difference(PayrollSummaryReconciliation report, Long organizationId, Integer periodKey,
+            String department, String detail) {
+        if (report.getDifferences().size() < MAX_DIFFERENCES) {
+            report.getDifferences().add("org " + organizationId + ", " + periodKey + ", " + department + ": " + detail);
+        }
+    }
+
+    private static String departmentOf(SalaryPayment payment) {
+        if (payment.getDepartment() != null) {
+            return payment.getDepartment();
+        }
+        String department = payment.getEmployee() != null ? payment.getEmployee().getDepartment() : null;
+        return department != null ? department : PayrollSummary.UNASSIGNED;
+    }
+
+    private static String groupKey(Integer periodKey, String department) {
+        return periodKey + "|" + department;
+    }
+
+    private static void add(PayrollSummary summary, long headcount, BigDecimal gross, BigDecimal net, BigDecimal providentFund) {
+        summary.setHeadcount(summary.getHeadcount() + headcount);
+        summary.setTotalGross(summary.getTotalGross().add(orZero(gross)));
+        summary.setTotalNet(summary.getTotalNet().add(orZero(net)));
+        summary.setTotalProvidentFund(summary.getTotalProvidentFund().add(orZero(providentFund)));
+    }
+
+    private static void overwrite(PayrollSummary summary, PayrollSummaryTotals group) {
+        summary.setHeadcount(group.getHeadcount());
+        summary.setTotalGross(orZero(group.getTotalGross()));
+        summary.setTotalNet(orZero(group.getTotalNet()));
+        summary.setTotalProvidentFund(orZero(group.getTotalProvidentFund()));
+    }
+
+    private static boolean matches(PayrollSummary summary, PayrollSummaryTotals group) {
+        return summary.getHeadcount().equals(group.getHeadcount())
+            && summary.getTotalGross().compareTo(orZero(group.getTotalGross())) == 0
+            && summary.getTotalNet().compareTo(orZero(group.getTotalNet())) == 0
+            && summary.getTotalProvidentFund().compareTo(orZero(group.getTotalProvidentFund())) == 0;
+    }
+
+    private static String describe(PayrollSummary summary) {
+        return summary.getHeadcount() + " / " + summary.getTotalGross() + " / " + summary.getTotalNet()
+            + " / " + summary.getTotalProvidentFund();
+    }
+
+    private static String describe(PayrollSummaryTotals group) {
+        return group.getHeadcount() + " / " + group.getTotalGross() + " / " + group.getTotalNet()
+            + " / " + group.getTotalProvidentFund();
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,196 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.dto.response.PayrollBatchReport;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.service.SalaryDisbursementEngine.DisbursementRun;
+
+/**
+ * Disburses every APPROVED salary request in one batch.
+ * Requests share a small fixed pool of workers. A worker takes the request at the head of a run
+ * queue, commits one chunk of it and puts it back at the tail, so a huge organization gets one chunk
+ * per turn like everybody else instead of holding a worker until it is done. Every chunk takes a permit
+ * of the shared ConnectionBudget, so the batch, payroll jobs, payslip stages, YTD rebuilds and report
+ * jobs together cannot starve request-serving threads of connections.
+ */
+@Service
+public class PayrollBatchScheduler {
+
+    @Autowired
+    private PaymentRequestRepo paymentRequestRepo;
+
+    @Autowired
+    private SalaryDisbursementEngine salaryDisbursementEngine;
+
+    @Value("${payroll.batch.max-parallelism:4}")
+    private int maxParallelism;
+
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile PayrollBatchReport lastReport;
+
+    /**
+     * One payment request waiting for its next turn
+     */
+    private static class Slot {
+        private final Long paymentRequestId;
+        private DisbursementRun run;
+
+        Slot(Long paymentRequestId) {
+            this.paymentRequestId = paymentRequestId;
+        }
+    }
+
+
+    // Disabled unless payroll.batch.cron is set
+    @Scheduled(cron = "${payroll.batch.cron:-}")
+    void scheduledBatch() {
+        if (running.get()) {
+            System.out.println("⏭️ Skipping scheduled payroll batch - previous batch still running");
+            return;
+        }
+        runBatch();
+    }
+
+    /**
+     * Disburse all approved salary requests and report aggregate throughput
+     */
+    public PayrollBatchReport runBatch() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("A payroll batch is already running");
+        }
+
+        try {
+            return execute();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public PayrollBatchReport getLastReport() {
+        return lastReport;
+    }
+
+    public int getParallelism() {
+        return Math.max(1, Math.min(maxParallelism, connectionBudget.getPermits()));
+    }
+
+
+    private PayrollBatchReport execute() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+
+        List<PaymentRequest> approved = paymentRequestRepo.findByRequestTypeAndStatusOrderByCreatedAtAsc(
+            PaymentRequestType.SALARY_DISBURSEMENT, PaymentRequestStatus.APPROVED);
+
+        ConcurrentLinkedQueue<Slot> runQueue = new ConcurrentLinkedQueue<>();
+        approved.forEach(paymentRequest -> runQueue.add(new Slot(paymentRequest.getId())));
+
+        int parallelism = Math.min(getParallelism(), Math.max(1, approved.size()));
+        System.out.println("🚀 Payroll batch started: " + approved.size()
+            + " salary requests on " + parallelism + " workers");
+
+        LongAdder paid = new LongAdder();
+        LongAdder skipped = new LongAdder();
+        LongAdder chunks = new LongAdder();
+        AtomicInteger completed = new AtomicInteger();
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "payroll-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Runnable worker = () -> {
+            Slot slot;
+            while ((slot = runQueue.poll()) != null) {
+                try {
+                    if (slot.run == null) {
+                        slot.run = salaryDisbursementEngine.start(slot.paymentRequestId);
+                    }
+
+                    if (salaryDisbursementEngine.processNextChunk(slot.run)) {
+                        runQueue.add(slot);     // back of the line
+                        continue;
+                    }
+
+                    salaryDisbursementEngine.complete(slot.run);
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    // Committed chunks stay committed; the request stays PROCESSING and resumes on retry
+                    if (slot.run != null) {
+                        salaryDisbursementEngine.release(slot.run);
+                    }
+                    failures.put(slot.paymentRequestId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                    System.err.println("❌ Payroll batch: payment request " + slot.paymentRequestId + " failed: " + e.getMessage());
+                }
+
+                if (slot.run != null) {
+                    paid.add(slot.run.getPaid());
+                    skipped.add(slot.run.getSkipped());
+                    chunks.add(slot.run.getChunks());
+                }
+            }
+        };
+
+        for (int i = 0; i < parallelism; i++) {
+            executor.execute(worker);
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        PayrollBatchReport report = PayrollBatchReport.builder()
+            .startedAt(startedAt)
+            .completedAt(LocalDateTime.now())
+            .parallelism(parallelism)
+            .paymentRequests(approved.size())
+            .completedRequests(completed.get())
+            .failedRequests(failures.size())
+            .employeesPaid(paid.sum())
+            .employeesSkipped(skipped.sum())
+            .chunks(chunks.sum())
+            .elapsedMillis(elapsedMillis)
+            .employeesPerSecond(paid.sum() * 1000.0 / elapsedMillis)
+            .failures(failures)
+            .build();
+
+        System.out.println(String.format("🏁 Payroll batch finished: %d/%d requests, %d employees paid in %d ms (%.1f employees/s)",
+            report.getCompletedRequests(), report.getPaymentRequests(), report.getEmployeesPaid(),
+            elapsedMillis, report.getEmployeesPerSecond()));
+
+        lastReport = report;
+        return report;
+    }
+}
@@ -0,0 +1,153 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.aurionpro.payroll.dto.response.PayrollJobResponse;
+import com.aurionpro.payroll.dto.response.PayrollJobStageResponse;
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.enums.PayrollJobState;
+
+import lombok.Getter;
+
+/**
+ * Live progress of one asynchronous disbursement.
+ * Counters are LongAdders bumped once per committed chunk (DB_WRITE) or per finished payslip stage,
+ * so writers never contend; status reads just sum them.
+ */
+@Getter
+public class PayrollJob {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long paymentRequestId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile PayrollJobState state = PayrollJobState.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile Long totalEmployees;
+    private volatile String error;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final Map<PayrollJobStage, LongAdder> stageCompleted = new EnumMap<>(PayrollJobStage.class);
+    private final Map<PayrollJobStage, LongAdder> stageFailed = new EnumMap<>(PayrollJobStage.class);
+
+    PayrollJob(Long paymentRequestId) {
+        this.paymentRequestId = paymentRequestId;
+        for (PayrollJobStage stage : PayrollJobStage.values()) {
+            stageCompleted.put(stage, new LongAdder());
+            stageFailed.put(stage, new LongAdder());
+        }
+    }
+
+    void started(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+        this.startNanos = System.nanoTime();
+        this.startedAt = LocalDateTime.now();
+        this.state = PayrollJobState.RUNNING;
+    }
+
+    void finished(PayrollJobState state, String error) {
+        this.error = error;
+        this.endNanos = System.nanoTime();
+        this.completedAt = LocalDateTime.now();
+        this.state = state;
+    }
+
+    boolean isFinished() {
+        return state == PayrollJobState.COMPLETED || state == PayrollJobState.FAILED;
+    }
+
+    void recordChunk(int paid, int skippedInChunk) {
+        processed.add(paid);
+        skipped.add(skippedInChunk);
+        stageCompleted.get(PayrollJobStage.DB_WRITE).add(paid);
+    }
+
+    void stageCompleted(PayrollJobStage stage) {
+        stageCompleted.get(stage).increment();
+    }
+
+    void stageFailed(PayrollJobStage stage) {
+        stageFailed.get(stage).increment();
+    }
+
+
+    public PayrollJobResponse toResponse() {
+        long done = processed.sum();
+        long visited = done + skipped.sum();
+
+        double throughput = 0;
+        Long etaSeconds = null;
+        if (startNanos != 0) {
+            double seconds = Math.max(1e-3, ((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos) / 1e9);
+            throughput = visited / seconds;
+            if (state == PayrollJobState.RUNNING && totalEmployees != null && throughput > 0) {
+                etaSeconds = (long) Math.ceil(Math.max(0, totalEmployees - visited) / throughput);
+            }
+        }
+
+        long failed = 0;
+        List<PayrollJobStageResponse> stages = new ArrayList<>();
+        for (PayrollJobStage stage : PayrollJobStage.values()) {
+            long stageFailures = stageFailed.get(stage).sum();
+            failed += stageFailures;
+            stages.add(PayrollJobStageResponse.builder()
+                .stage(stage)
+                .state(stageState(stage))
+                .completed(stageCompleted.get(stage).sum())
+                .failed(stageFailures)
+                .build());
+        }
+
+        return PayrollJobResponse.builder()
+            .jobId(id)
+            .paymentRequestId(paymentRequestId)
+            .state(state)
+            .totalEmployees(totalEmployees)
+            .processed(done)
+            .skipped(skipped.sum())
+            .failed(failed)
+            .throughputPerSecond(throughput)
+            .etaSeconds(etaSeconds)
+            .submittedAt(submittedAt)
+            .startedAt(startedAt)
+            .completedAt(completedAt)
+            .error(error)
+            .stages(stages)
+            .build();
+    }
+
+    // DB_WRITE follows the job; each payslip stage is done once its upstream is done and has drained
+    private PayrollJobState stageState(PayrollJobStage stage) {
+        if (stage == PayrollJobStage.DB_WRITE) {
+            return state;
+        }
+
+        PayrollJobStage upstream = PayrollJobStage.values()[stage.ordinal() - 1];
+        PayrollJobState upstreamState = stageState(upstream);
+        long handled = stageCompleted.get(stage).sum() + stageFailed.get(stage).sum();
+
+        // Every rendered slip is uploaded; every slip (rendered or not) is emailed
+        long expected = switch (stage) {
+            case PDF -> processed.sum();
+            case UPLOAD -> stageCompleted.get(PayrollJobStage.PDF).sum();
+            default -> stageCompleted.get(PayrollJobStage.PDF).sum() + stageFailed.get(PayrollJobStage.PDF).sum();
+        };
+
+        boolean upstreamDone = upstreamState == PayrollJobState.COMPLETED || upstreamState == PayrollJobState.FAILED;
+        if (upstreamDone && handled >= expected) {
+            return PayrollJobState.COMPLETED;
+        }
+        return handled > 0 || upstreamState == PayrollJobState.RUNNING || upstreamDone
+            ? PayrollJobState.RUNNING : PayrollJobState.QUEUED;
+    }
+}
@@ -0,0 +1,126 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.enums.PayrollJobState;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+import com.aurionpro.payroll.service.SalaryDisbursementEngine.DisbursementRun;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs salary disbursements in the background so the HTTP call returns straight away.
+ * Jobs are kept in memory and dropped some time after they finish; a payment request that is
+ * submitted again while its job is still active gets the existing job back.
+ */
+@Service
+public class PayrollJobService {
+
+    @Autowired
+    private SalaryDisbursementEngine salaryDisbursementEngine;
+
+    @Value("${payroll.jobs.workers:2}")
+    private int workers;
+
+    @Value("${payroll.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${payroll.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, PayrollJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, PayrollJob> activeJobsByRequest = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "payroll-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a disbursement and return its job immediately
+     */
+    public PayrollJob submit(Long paymentRequestId) {
+        evictExpiredJobs();
+
+        PayrollJob job = new PayrollJob(paymentRequestId);
+        PayrollJob existing = activeJobsByRequest.putIfAbsent(paymentRequestId, job);
+        if (existing != null) {
+            return existing;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            activeJobsByRequest.remove(paymentRequestId, job);
+            throw new BadRequestException("Too many payroll jobs are queued, please try again later");
+        }
+        return job;
+    }
+
+    public PayrollJob getJob(String jobId) {
+        PayrollJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("PayrollJob", "id", jobId);
+        }
+        return job;
+    }
+
+
+    private void run(PayrollJob job) {
+        DisbursementRun run = null;
+        try {
+            run = salaryDisbursementEngine.start(job.getPaymentRequestId());
+            run.setJob(job);
+            job.started(run.getRemainingEmployees());
+
+            while (salaryDisbursementEngine.processNextChunk(run)) {
+                // progress is reported per committed chunk
+            }
+
+            salaryDisbursementEngine.complete(run);
+            job.finished(PayrollJobState.COMPLETED, null);
+        } catch (Exception e) {
+            if (run != null) {
+                salaryDisbursementEngine.release(run);
+            }
+            System.err.println("❌ Payroll job " + job.getId() + " failed: " + e.getMessage());
+            job.finished(PayrollJobState.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            activeJobsByRequest.remove(job.getPaymentRequestId(), job);
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,56 @@
+package com.aurionpro.payroll.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+/**
+ * Fills period_key on rows written before the column existed.
+ * Works per distinct (month, year) pair, so the whole backfill is a handful of UPDATE statements.
+ */
+@Service
+public class PayrollPeriodBackfill {
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private PaymentRequestRepo paymentRequestRepo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int salaryPayments = 0;
+        for (Object[] period : salaryPaymentRepo.findPeriodsMissingKey()) {
+            Integer key = keyOf(period);
+            if (key != null) {
+                salaryPayments += salaryPaymentRepo.backfillPeriodKey((String) period[0], (Integer) period[1], key);
+            }
+        }
+
+        int paymentRequests = 0;
+        for (Object[] period : paymentRequestRepo.findPeriodsMissingKey()) {
+            Integer key = keyOf(period);
+            if (key != null) {
+                paymentRequests += paymentRequestRepo.backfillPeriodKey((String) period[0], (Integer) period[1], key);
+            }
+        }
+
+        if (salaryPayments > 0 || paymentRequests > 0) {
+            System.out.println("🗓️ Backfilled period key on " + salaryPayments + " salary payments and "
+                + paymentRequests + " payment requests");
+        }
+    }
+
+    private Integer keyOf(Object[] period) {
+        Integer key = PayrollPeriod.toKey((String) period[0], (Integer) period[1]);
+        if (key == null) {
+            System.err.println("⚠️ Cannot derive period key for month '" + period[0] + "' year " + period[1]);
+        }
+        return key;
+    }
+}
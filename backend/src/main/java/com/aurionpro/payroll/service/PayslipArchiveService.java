@@ -0,0 +1,290 @@
+package com.aurionpro.payroll.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+import com.aurionpro.payroll.repo.OrganizationRepo;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * ZIP of every salary slip of a disbursement, streamed to the client while it is built.
+ * Payments are read through a cursor and handed to a bounded render pool; the writer takes the
+ * results back in cursor order through a fixed window, so at most a window of slips is held in
+ * memory regardless of how many employees there are. Slips are stored uncompressed (PDF content is
+ * already compressed) with their checksum computed by the render worker, so the single writer
+ * thread only copies bytes.
+ */
+@Service
+public class PayslipArchiveService {
+
+    // Processed entities are cleared from the persistence context every this many rows
+    private static final int DETACH_INTERVAL = 500;
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private PaymentRequestRepo paymentRequestRepo;
+
+    @Autowired
+    private OrganizationRepo organizationRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private PayslipRenderer payslipRenderer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${payroll.payslip.archive-workers:4}")
+    private int workers;
+
+    // Slips rendered ahead of the writer, per archive
+    @Value("${payroll.payslip.archive-window:32}")
+    private int window;
+
+    // The payment cursor only lives as long as its transaction
+    private TransactionTemplate readOnlyTransaction;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * One rendered slip, ready to be stored
+     */
+    static class RenderedSlip {
+        final Long salaryPaymentId;
+        final String entryName;
+        byte[] pdfBytes;
+        long crc;
+        String error;
+
+        RenderedSlip(Long salaryPaymentId, String entryName) {
+            this.salaryPaymentId = salaryPaymentId;
+            this.entryName = entryName;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // When the pool is saturated by several archives the writing thread renders the slip itself
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(window),
+            runnable -> {
+                Thread thread = new Thread(runnable, "payslip-archive-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check the request before any bytes are sent
+     */
+    public void validatePaymentRequest(Long paymentRequestId) {
+        PaymentRequest paymentRequest = paymentRequestRepo.findById(paymentRequestId)
+            .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", paymentRequestId));
+        if (paymentRequest.getRequestType() != PaymentRequestType.SALARY_DISBURSEMENT) {
+            throw new BadRequestException("Payslips are only generated for salary disbursements");
+        }
+    }
+
+    public String fileName(Long paymentRequestId) {
+        return "salary_slips_" + paymentRequestId + ".zip";
+    }
+
+    public String fileName(String month, Integer year) {
+        return "salary_slips_" + month + "_" + year + ".zip";
+    }
+
+    /**
+     * All completed slips of one salary disbursement
+     */
+    public void writePaymentRequestArchive(Long paymentRequestId, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            PaymentRequest paymentRequest = paymentRequestRepo.findById(paymentRequestId)
+                .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", paymentRequestId));
+
+            writeArchive(paymentRequest.getOrganization().getName(),
+                () -> salaryPaymentRepo.streamPayslipsByPaymentRequest(paymentRequestId, PaymentStatus.COMPLETED), out);
+        });
+    }
+
+    /**
+     * All completed slips of one organization for a month
+     */
+    public void writeOrganizationArchive(Long organizationId, String month, Integer year, OutputStream out) {
+        Integer periodKey = PayrollPeriod.toKey(month, year);
+        if (periodKey == null) {
+            throw new BadRequestException("Invalid month: " + month);
+        }
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Organization organization = organizationRepo.findById(organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Organization", "id", organizationId));
+
+            writeArchive(organization.getName(),
+                () -> salaryPaymentRepo.streamPayslipsByOrganization(organizationId, periodKey, PaymentStatus.COMPLETED), out);
+        });
+    }
+
+
+    private void writeArchive(String organizationName, Supplier<Stream<SalaryPayment>> payments, OutputStream out) {
+        long start = System.nanoTime();
+        ArrayDeque<Future<RenderedSlip>> pending = new ArrayDeque<>(window);
+        List<RenderedSlip> failures = new ArrayList<>();
+        long written = 0;
+        long bytes = 0;
+
+        try (Stream<SalaryPayment> rows = payments.get()) {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE));
+
+            Iterator<SalaryPayment> iterator = rows.iterator();
+            int read = 0;
+            while (iterator.hasNext()) {
+                SalaryPayment payment = iterator.next();
+                pending.add(executor.submit(() -> render(payment, organizationName)));
+
+                // Window full: store the oldest slip before reading further
+                if (pending.size() >= window) {
+                    bytes += store(zip, await(pending.poll()), failures);
+                    written++;
+                }
+
+                // Slips still in the window only use fields that are already loaded
+                if (++read % DETACH_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+            while (!pending.isEmpty()) {
+                bytes += store(zip, await(pending.poll()), failures);
+                written++;
+            }
+
+            if (!failures.isEmpty()) {
+                writeFailures(zip, failures);
+            }
+            zip.finish();
+            zip.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Client went away or the cursor failed - stop rendering what nobody will read
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+        System.out.println(String.format("🗜️ Payslip archive: %d slips (%d failed), %.1f MB in %.2f s (%.0f slips/s)",
+            written, failures.size(), bytes / (1024.0 * 1024.0), seconds, written / seconds));
+    }
+
+    private RenderedSlip render(SalaryPayment payment, String organizationName) {
+        RenderedSlip slip = new RenderedSlip(payment.getId(), entryName(payment));
+        try {
+            slip.pdfBytes = payslipRenderer.render(payment, organizationName);
+            CRC32 crc = new CRC32();
+            crc.update(slip.pdfBytes);
+            slip.crc = crc.getValue();
+        } catch (Exception e) {
+            slip.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        return slip;
+    }
+
+    private RenderedSlip await(Future<RenderedSlip> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payslip archive interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payslip rendering failed", e.getCause());
+        }
+    }
+
+    private long store(ZipOutputStream zip, RenderedSlip slip, List<RenderedSlip> failures) throws IOException {
+        if (slip.error != null) {
+            failures.add(slip);
+            return 0;
+        }
+        ZipEntry entry = new ZipEntry(slip.entryName);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(slip.pdfBytes.length);
+        entry.setCompressedSize(slip.pdfBytes.length);
+        entry.setCrc(slip.crc);
+
+        zip.putNextEntry(entry);
+        zip.write(slip.pdfBytes);
+        zip.closeEntry();
+        return slip.pdfBytes.length;
+    }
+
+    private void writeFailures(ZipOutputStream zip, List<RenderedSlip> failures) throws IOException {
+        StringBuilder report = new StringBuilder("Salary payment ID,Error\n");
+        for (RenderedSlip slip : failures) {
+            report.append(slip.salaryPaymentId).append(',').append(slip.error.replace('\n', ' ')).append('\n');
+        }
+        zip.putNextEntry(new ZipEntry("failed_payslips.csv"));
+        zip.write(report.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // Same naming as the uploaded slips
+    private String entryName(SalaryPayment payment) {
+        String employeeName = payment.getEmployee() != null && payment.getEmployee().getName() != null
+            ? payment.getEmployee().getName().replaceAll("[^A-Za-z0-9._-]+", "_")
+            : "unknown";
+        return String.format("salary_slip_%d_%s_%s_%d.pdf",
+            payment.getId(), employeeName, payment.getMonth(), payment.getYear());
+    }
+}
@@ -0,0 +1,108 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.enums.DeliveryStatus;
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.repo.PayslipDeliveryRepo;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Persists the outcome of every payslip stage on the salary payment's PayslipDelivery row.
+ * A failure schedules the next attempt with exponential backoff (base * 2^(attempts-1), capped)
+ * until the stage has used up its attempts.
+ */
+@Service
+public class PayslipDeliveryTracker {
+
+    @Autowired
+    private PayslipDeliveryRepo payslipDeliveryRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    @Value("${payroll.payslip.retry.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${payroll.payslip.retry.base-delay-seconds:30}")
+    private long baseDelaySeconds;
+
+    @Value("${payroll.payslip.retry.max-delay-seconds:3600}")
+    private long maxDelaySeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void succeeded(Long salaryPaymentId, PayrollJobStage stage) {
+        record(salaryPaymentId, stage, null);
+    }
+
+    public void failed(Long salaryPaymentId, PayrollJobStage stage, String error) {
+        record(salaryPaymentId, stage, error != null ? error : "Unknown error");
+    }
+
+
+    private void record(Long salaryPaymentId, PayrollJobStage stage, String error) {
+        try {
+            connectionBudget.run(() -> transactionTemplate.executeWithoutResult(status -> {
+                // Column-targeted updates: the stages of one slip finish concurrently on different threads
+                LocalDateTime now = LocalDateTime.now();
+                DeliveryStatus outcome = error == null ? DeliveryStatus.SUCCEEDED : DeliveryStatus.FAILED;
+                int updated = switch (stage) {
+                    case PDF -> payslipDeliveryRepo.recordRender(salaryPaymentId, outcome, now);
+                    case UPLOAD -> payslipDeliveryRepo.recordUpload(salaryPaymentId, outcome, now);
+                    case EMAIL -> payslipDeliveryRepo.recordEmail(salaryPaymentId, outcome, now);
+                    default -> throw new IllegalArgumentException("Not a payslip stage: " + stage);
+                };
+                if (updated == 0 || error == null) {
+                    return;     // no row: payments made before delivery tracking existed
+                }
+
+                // The row stays locked by the update above until commit, so this count is our own
+                PayslipDelivery delivery = payslipDeliveryRepo.findBySalaryPaymentId(salaryPaymentId).orElseThrow();
+                int attempts = attempts(delivery, stage);
+                LocalDateTime retryAt = null;
+                if (attempts < maxAttempts) {
+                    retryAt = now.plusSeconds(backoffSeconds(attempts));
+                } else {
+                    System.err.println("⛔ Giving up on payslip " + stage + " for salary payment "
+                        + salaryPaymentId + " after " + attempts + " attempts");
+                }
+                payslipDeliveryRepo.recordFailure(salaryPaymentId,
+                    error.length() > 1000 ? error.substring(0, 1000) : error, retryAt, now);
+            }));
+        } catch (Exception e) {
+            // Never let bookkeeping break the pipeline
+            System.err.println("❌ Could not record payslip " + stage + " outcome for salary payment "
+                + salaryPaymentId + ": " + e.getMessage());
+        }
+    }
+
+    long backoffSeconds(int attempts) {
+        long delay = baseDelaySeconds << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxDelaySeconds);
+    }
+
+    private static int attempts(PayslipDelivery delivery, PayrollJobStage stage) {
+        return switch (stage) {
+            case PDF -> delivery.getRenderAttempts();
+            case UPLOAD -> delivery.getUploadAttempts();
+            default -> delivery.getEmailAttempts();
+        };
+    }
+}
@@ -0,0 +1,263 @@
+package com.aurionpro.payroll.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.dto.response.PipelineStageStats;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Staged payslip pipeline: RENDER -> UPLOAD -> EMAIL.
+ * Fed with salary payment ids only after their transaction has committed. Every stage has its own
+ * worker pool and a bounded queue; when a queue is full the submitting thread runs the task itself,
+ * which slows the producer down and keeps memory bounded.
+ */
+@Service
+public class PayslipPipeline {
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PayslipDeliveryTracker payslipDeliveryTracker;
+
+    // Stage threads only hold a connection for the reads and writes around their work
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    @Value("${payroll.payslip.render-workers:4}")
+    private int renderWorkers;
+
+    @Value("${payroll.payslip.upload-workers:8}")
+    private int uploadWorkers;
+
+    @Value("${payroll.payslip.email-workers:4}")
+    private int emailWorkers;
+
+    @Value("${payroll.payslip.queue-capacity:200}")
+    private int queueCapacity;
+
+    private Stage renderStage;
+    private Stage uploadStage;
+    private Stage emailStage;
+
+    /**
+     * One payslip travelling through the stages
+     */
+    static class PayslipTask {
+        final Long salaryPaymentId;
+        final PayrollJob job;
+        boolean skipUpload;     // retries only re-drive the stages that have not succeeded
+        boolean skipEmail;
+        String employeeName;
+        String email;
+        String month;
+        Integer year;
+        String fileName;
+        byte[] pdfBytes;
+
+        PayslipTask(Long salaryPaymentId, PayrollJob job) {
+            this.salaryPaymentId = salaryPaymentId;
+            this.job = job;
+        }
+    }
+
+    /**
+     * Worker pool + bounded queue with counters
+     */
+    static class Stage {
+        private final String name;
+        private final PayrollJobStage jobStage;
+        private final PayslipDeliveryTracker tracker;
+        private final int workers;
+        private final int capacity;
+        private final ThreadPoolExecutor executor;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final long startedAt = System.nanoTime();
+
+        Stage(String name, PayrollJobStage jobStage, PayslipDeliveryTracker tracker, int workers, int capacity) {
+            this.name = name;
+            this.jobStage = jobStage;
+            this.tracker = tracker;
+            this.workers = workers;
+            this.capacity = capacity;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payslip-" + name.toLowerCase() + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+
+        /**
+         * Run work on the pool, record its outcome, then call next (also after a failure) -
+         * the next stage only starts once this one's outcome is stored
+         */
+        void submit(PayslipTask task, Consumer<PayslipTask> work, Consumer<PayslipTask> next) {
+            executor.execute(() -> {
+                try {
+                    work.accept(task);
+                    completed.increment();
+                    if (task.job != null) {
+                        task.job.stageCompleted(jobStage);
+                    }
+                    tracker.succeeded(task.salaryPaymentId, jobStage);
+                } catch (Exception e) {
+                    failed.increment();
+                    if (task.job != null) {
+                        task.job.stageFailed(jobStage);
+                    }
+                    tracker.failed(task.salaryPaymentId, jobStage, e.getMessage());
+                    System.err.println("❌ Payslip " + name + " failed for salary payment "
+                        + task.salaryPaymentId + ": " + e.getMessage());
+                }
+                if (next != null) {
+                    next.accept(task);
+                }
+            });
+        }
+
+        PipelineStageStats stats() {
+            double seconds = Math.max(1e-3, (System.nanoTime() - startedAt) / 1e9);
+            return PipelineStageStats.builder()
+                .stage(name)
+                .workers(workers)
+                .activeWorkers(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(capacity)
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .throughputPerSecond(completed.sum() / seconds)
+                .build();
+        }
+
+        void shutdown() throws InterruptedException {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+
+    @PostConstruct
+    void init() {
+        renderStage = new Stage("RENDER", PayrollJobStage.PDF, payslipDeliveryTracker, renderWorkers, queueCapacity);
+        uploadStage = new Stage("UPLOAD", PayrollJobStage.UPLOAD, payslipDeliveryTracker, uploadWorkers, queueCapacity);
+        emailStage = new Stage("EMAIL", PayrollJobStage.EMAIL, payslipDeliveryTracker, emailWorkers, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Drain in stage order so downstream stages receive everything upstream produced
+        renderStage.shutdown();
+        uploadStage.shutdown();
+        emailStage.shutdown();
+    }
+
+    /**
+     * Queue a committed salary payment for slip rendering, upload and email
+     */
+    public void submit(Long salaryPaymentId) {
+        submit(salaryPaymentId, null);
+    }
+
+    /**
+     * Same, reporting each stage outcome to the given job (may be null)
+     */
+    public void submit(Long salaryPaymentId, PayrollJob job) {
+        renderStage.submit(new PayslipTask(salaryPaymentId, job), this::render, this::afterRender);
+    }
+
+    /**
+     * Re-drive a failed delivery. The slip is always re-rendered (upload and email need it);
+     * upload and email are skipped if they already succeeded.
+     */
+    public void retry(Long salaryPaymentId, boolean skipUpload, boolean skipEmail) {
+        PayslipTask task = new PayslipTask(salaryPaymentId, null);
+        task.skipUpload = skipUpload;
+        task.skipEmail = skipEmail;
+        renderStage.submit(task, this::render, this::afterRender);
+    }
+
+    public List<PipelineStageStats> getStageStats() {
+        return List.of(renderStage.stats(), uploadStage.stats(), emailStage.stats());
+    }
+
+
+    private void render(PayslipTask task) {
+        SalaryPayment payment = connectionBudget.call(() -> salaryPaymentRepo.findByIdWithEmployeeDetails(task.salaryPaymentId))
+            .orElseThrow(() -> new IllegalStateException("Salary payment no longer exists"));
+        Employee employee = payment.getEmployee();
+
+        task.employeeName = employee.getName();
+        task.email = employee.getUser().getEmail();
+        task.month = payment.getMonth();
+        task.year = payment.getYear();
+        task.fileName = String.format("salary_slip_%d_%s_%s_%d",
+            payment.getId(),
+            employee.getName().replace(" ", "_"),
+            payment.getMonth(),
+            payment.getYear()
+        );
+
+        task.pdfBytes = pdfGenerationService.generateSalarySlip(payment);
+    }
+
+    // Upload needs the PDF; the email still goes out (without attachment) if rendering failed
+    private void afterRender(PayslipTask task) {
+        if (task.pdfBytes != null && !task.skipUpload) {
+            uploadStage.submit(task, this::upload, this::afterUpload);
+        } else if (task.email != null && !task.skipEmail) {
+            emailStage.submit(task, this::email, null);
+        }
+    }
+
+    private void upload(PayslipTask task) {
+        String pdfUrl = cloudinaryService.uploadPdf(task.pdfBytes, task.fileName, "salary-slips");
+        connectionBudget.run(() -> salaryPaymentRepo.updateSalarySlipUrl(task.salaryPaymentId, pdfUrl));
+    }
+
+    private void afterUpload(PayslipTask task) {
+        if (!task.skipEmail) {
+            emailStage.submit(task, this::email, null);
+        }
+    }
+
+    private void email(PayslipTask task) {
+        emailService.sendSalaryPaymentNotification(
+            task.email,
+            task.employeeName,
+            task.month,
+            task.year,
+            task.pdfBytes
+        );
+        task.pdfBytes = null;
+    }
+}
@@ -0,0 +1,250 @@
+package com.aurionpro.payroll.service;
+
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.ALTERNATE_ROW;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.BORDER_COLOR;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.DATA_FONT;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.FOOTER_FONT;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.HEADER_BG;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.HEADER_FONT;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.NET_BG;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.SUBTITLE_FONT;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.TITLE_FONT;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.TOTAL_BG;
+import static com.aurionpro.payroll.service.PdfGenerationServiceImpl.TOTAL_FONT;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.stereotype.Component;
+
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfImportedPage;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Renders salary slips on top of a pre-rendered background.
+ * Everything that is the same on every slip (title band, labels, table frames, footer) is drawn once
+ * into a one-page template at startup. A slip imports that page as a form XObject and only writes the
+ * per-employee fields at fixed positions, so no table layout happens per slip.
+ * Thread-safe: the template bytes and fonts are shared read-only, and each thread keeps its own reader.
+ */
+@Component
+public class PayslipRenderer {
+
+    private static final DateTimeFormatter PAYMENT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    // ==========================================
+    // LAYOUT (A4 portrait, points from the bottom-left corner)
+    // ==========================================
+    private static final float LEFT = 40;
+    private static final float RIGHT = 555;
+    private static final float CENTER = (LEFT + RIGHT) / 2;
+    private static final float LABEL_RIGHT = LEFT + (RIGHT - LEFT) / 3;   // employee details: label | value = 1 : 2
+    private static final float AMOUNT_LEFT = CENTER;                      // earnings and deductions: label | amount = 1 : 1
+
+    private static final float TITLE_TOP = 802;
+    private static final float TITLE_BOTTOM = 752;
+    private static final float ORGANIZATION_Y = 728;
+    private static final float PERIOD_Y = 708;
+
+    private static final float ROW = 22;
+    private static final float DETAILS_TOP = 690;                         // 5 rows
+    private static final float EARNINGS_TOP = 560;                       // header + 4 rows
+    private static final float GROSS_TOP = EARNINGS_TOP - 5 * ROW;
+    private static final float TOTAL_ROW = 24;
+    private static final float DEDUCTIONS_TOP = GROSS_TOP - TOTAL_ROW - 15; // header + 1 row
+    private static final float NET_TOP = DEDUCTIONS_TOP - 2 * ROW - 15;
+    private static final float NET_ROW = 28;
+    private static final float TRANSACTION_Y = NET_TOP - NET_ROW - 30;
+    private static final float FOOTER_Y = TRANSACTION_Y - 35;
+
+    private static final float PADDING = 6;
+
+    private static final String[] DETAIL_LABELS = {
+        "Employee Name:", "Employee ID:", "Department:", "Designation:", "Payment Date:"
+    };
+    private static final String[] EARNING_LABELS = {
+        "Basic Salary", "HRA", "Dearness Allowance", "Other Allowances"
+    };
+
+    private final byte[] background;
+
+    // PdfReader is not safe for concurrent use; one per rendering thread, parsed once
+    private final ThreadLocal<PdfReader> backgroundReader;
+
+    public PayslipRenderer() {
+        this.background = renderBackground();
+        this.backgroundReader = ThreadLocal.withInitial(() -> {
+            try {
+                return new PdfReader(background);
+            } catch (IOException e) {
+                throw new IllegalStateException("Payslip background is unreadable", e);
+            }
+        });
+    }
+
+    /**
+     * Render one slip. Employee and organization must already be loaded.
+     */
+    public byte[] render(SalaryPayment payment, String organizationName) throws DocumentException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(background.length + 4096);
+        Document document = new Document(PageSize.A4, 0, 0, 0, 0);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+
+        PdfContentByte canvas = writer.getDirectContent();
+        PdfImportedPage page = writer.getImportedPage(backgroundReader.get(), 1);
+        canvas.addTemplate(page, 0, 0);
+
+        centered(canvas, organizationName, SUBTITLE_FONT, ORGANIZATION_Y);
+        centered(canvas, "For the month of " + payment.getMonth() + " " + payment.getYear(), SUBTITLE_FONT, PERIOD_Y);
+
+        String[] details = {
+            payment.getEmployee().getName(),
+            String.valueOf(payment.getEmployee().getId()),
+            payment.getEmployee().getDepartment(),
+            payment.getEmployee().getDesignation(),
+            payment.getPaymentDate() != null ? payment.getPaymentDate().format(PAYMENT_DATE_FORMAT) : null
+        };
+        for (int i = 0; i < details.length; i++) {
+            float top = DETAILS_TOP - i * ROW;
+            inCell(canvas, details[i], DATA_FONT, LABEL_RIGHT, top - ROW, RIGHT, top, Element.ALIGN_LEFT);
+        }
+
+        Object[] earnings = {
+            payment.getBasicSalary(), payment.getHra(), payment.getDearnessAllowance(), payment.getOtherAllowances()
+        };
+        for (int i = 0; i < earnings.length; i++) {
+            float top = EARNINGS_TOP - (i + 1) * ROW;
+            inCell(canvas, "₹ " + earnings[i], DATA_FONT, AMOUNT_LEFT, top - ROW, RIGHT, top, Element.ALIGN_RIGHT);
+        }
+        inCell(canvas, "₹ " + payment.getGrossSalary(), TOTAL_FONT,
+            AMOUNT_LEFT, GROSS_TOP - TOTAL_ROW, RIGHT, GROSS_TOP, Element.ALIGN_RIGHT);
+
+        inCell(canvas, "₹ " + payment.getProvidentFund(), DATA_FONT,
+            AMOUNT_LEFT, DEDUCTIONS_TOP - 2 * ROW, RIGHT, DEDUCTIONS_TOP - ROW, Element.ALIGN_RIGHT);
+
+        inCell(canvas, "₹ " + payment.getNetSalary(), TOTAL_FONT,
+            AMOUNT_LEFT, NET_TOP - NET_ROW, RIGHT, NET_TOP, Element.ALIGN_RIGHT);
+
+        ColumnText.showTextAligned(canvas, Element.ALIGN_LEFT,
+            new Phrase("Transaction ID: " + payment.getTransactionId(), FOOTER_FONT), LEFT, TRANSACTION_Y, 0);
+
+        document.close();
+        return out.toByteArray();
+    }
+
+
+    /**
+     * The static part of every slip, as a one-page PDF
+     */
+    private static byte[] renderBackground() {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Document document = new Document(PageSize.A4, 0, 0, 0, 0);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            document.open();
+            PdfContentByte canvas = writer.getDirectContent();
+
+            // Title band
+            fill(canvas, HEADER_BG, LEFT, TITLE_BOTTOM, RIGHT, TITLE_TOP, false);
+            ColumnText.showTextAligned(canvas, Element.ALIGN_CENTER, new Phrase("SALARY SLIP", TITLE_FONT),
+                CENTER, (TITLE_TOP + TITLE_BOTTOM) / 2 - 7, 0);
+
+            // Employee details: blue labels, alternating value rows
+            for (int i = 0; i < DETAIL_LABELS.length; i++) {
+                float top = DETAILS_TOP - i * ROW;
+                fill(canvas, HEADER_BG, LEFT, top - ROW, LABEL_RIGHT, top, true);
+                fill(canvas, i % 2 == 1 ? ALTERNATE_ROW : BaseColor.WHITE, LABEL_RIGHT, top - ROW, RIGHT, top, true);
+                inCell(canvas, DETAIL_LABELS[i], HEADER_FONT, LEFT, top - ROW, LABEL_RIGHT, top, Element.ALIGN_CENTER);
+            }
+
+            // Earnings
+            headerRow(canvas, "EARNINGS", EARNINGS_TOP);
+            for (int i = 0; i < EARNING_LABELS.length; i++) {
+                float top = EARNINGS_TOP - (i + 1) * ROW;
+                BaseColor background = i % 2 == 1 ? ALTERNATE_ROW : BaseColor.WHITE;
+                fill(canvas, background, LEFT, top - ROW, AMOUNT_LEFT, top, true);
+                fill(canvas, background, AMOUNT_LEFT, top - ROW, RIGHT, top, true);
+                inCell(canvas, EARNING_LABELS[i], DATA_FONT, LEFT, top - ROW, AMOUNT_LEFT, top, Element.ALIGN_LEFT);
+            }
+            totalRow(canvas, "Gross Salary", TOTAL_BG, GROSS_TOP, TOTAL_ROW);
+
+            // Deductions
+            headerRow(canvas, "DEDUCTIONS", DEDUCTIONS_TOP);
+            fill(canvas, BaseColor.WHITE, LEFT, DEDUCTIONS_TOP - 2 * ROW, AMOUNT_LEFT, DEDUCTIONS_TOP - ROW, true);
+            fill(canvas, BaseColor.WHITE, AMOUNT_LEFT, DEDUCTIONS_TOP - 2 * ROW, RIGHT, DEDUCTIONS_TOP - ROW, true);
+            inCell(canvas, "Provident Fund", DATA_FONT,
+                LEFT, DEDUCTIONS_TOP - 2 * ROW, AMOUNT_LEFT, DEDUCTIONS_TOP - ROW, Element.ALIGN_LEFT);
+
+            // Net salary
+            totalRow(canvas, "NET SALARY", NET_BG, NET_TOP, NET_ROW);
+
+            // Footer
+            centered(canvas, "This is a system-generated document. No signature required.", FOOTER_FONT, FOOTER_Y);
+
+            document.close();
+            return out.toByteArray();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to render payslip background", e);
+        }
+    }
+
+    private static void headerRow(PdfContentByte canvas, String title, float top) throws DocumentException {
+        fill(canvas, HEADER_BG, LEFT, top - ROW, RIGHT, top, true);
+        inCell(canvas, title, HEADER_FONT, LEFT, top - ROW, RIGHT, top, Element.ALIGN_CENTER);
+    }
+
+    private static void totalRow(PdfContentByte canvas, String label, BaseColor color, float top, float height)
+            throws DocumentException {
+        fill(canvas, color, LEFT, top - height, AMOUNT_LEFT, top, true);
+        fill(canvas, color, AMOUNT_LEFT, top - height, RIGHT, top, true);
+        inCell(canvas, label, TOTAL_FONT, LEFT, top - height, AMOUNT_LEFT, top, Element.ALIGN_LEFT);
+    }
+
+    private static void fill(PdfContentByte canvas, BaseColor color, float llx, float lly, float urx, float ury,
+            boolean border) {
+        canvas.saveState();
+        canvas.setColorFill(color);
+        canvas.setColorStroke(BORDER_COLOR);
+        canvas.setLineWidth(0.5f);
+        canvas.rectangle(llx, lly, urx - llx, ury - lly);
+        if (border) {
+            canvas.fillStroke();
+        } else {
+            canvas.fill();
+        }
+        canvas.restoreState();
+    }
+
+    /**
+     * Single line of text vertically centred in a cell; anything that does not fit the cell is cut off
+     */
+    private static void inCell(PdfContentByte canvas, String text, Font font,
+            float llx, float lly, float urx, float ury, int alignment) throws DocumentException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        float leading = font.getSize() * 1.2f;
+        float top = (ury + lly) / 2 + leading / 2 + 1;
+        ColumnText column = new ColumnText(canvas);
+        column.setSimpleColumn(new Phrase(text, font), llx + PADDING, top - leading - 2, urx - PADDING, top,
+            leading, alignment);
+        column.go();
+    }
+
+    private static void centered(PdfContentByte canvas, String text, Font font, float y) {
+        ColumnText.showTextAligned(canvas, Element.ALIGN_CENTER, new Phrase(text, font), CENTER, y, 0);
+    }
+}
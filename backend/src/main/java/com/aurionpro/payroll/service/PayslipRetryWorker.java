@@ -0,0 +1,85 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.enums.DeliveryStatus;
+import com.aurionpro.payroll.repo.PayslipDeliveryRepo;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Periodically re-drives failed payslip deliveries whose backoff has expired.
+ * Each pass reads up to batch-size due rows, claims them with a conditional update and feeds only
+ * the rows it actually claimed back into the PayslipPipeline, which records the new outcome (and the
+ * next backoff on failure). Another worker reading the same rows claims none of them.
+ */
+@Service
+public class PayslipRetryWorker {
+
+    @Autowired
+    private PayslipDeliveryRepo payslipDeliveryRepo;
+
+    @Autowired
+    private PayslipPipeline payslipPipeline;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${payroll.payslip.retry.batch-size:100}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${payroll.payslip.retry.interval-ms:30000}")
+    public void retryFailedDeliveries() {
+        int batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            List<PayslipDelivery> due = payslipDeliveryRepo.findDueForRetry(now, PageRequest.of(0, batchSize));
+            batch = due.size();
+            List<PayslipDelivery> claimed = claim(due, now);
+
+            for (PayslipDelivery delivery : claimed) {
+                payslipPipeline.retry(
+                    delivery.getSalaryPayment().getId(),
+                    delivery.getUploadStatus() == DeliveryStatus.SUCCEEDED,
+                    delivery.getEmailStatus() == DeliveryStatus.SUCCEEDED
+                );
+            }
+
+            if (!claimed.isEmpty()) {
+                System.out.println("🔁 Re-queued " + claimed.size() + " failed payslip deliveries");
+            }
+        } while (batch == batchSize);
+    }
+
+
+    private List<PayslipDelivery> claim(List<PayslipDelivery> due, LocalDateTime now) {
+        if (due.isEmpty()) {
+            return due;
+        }
+        // In id order, so two workers claiming overlapping batches lock rows in the same order
+        List<PayslipDelivery> byId = due.stream()
+            .sorted(Comparator.comparing(PayslipDelivery::getId))
+            .toList();
+        return transactionTemplate.execute(status -> byId.stream()
+            .filter(delivery -> payslipDeliveryRepo.claimForRetry(delivery.getId(), now) == 1)
+            .toList());
+    }
+}
@@ -1,5 +1,8 @@
 package com.aurionpro.payroll.service;
 
+import java.io.OutputStream;
+
+import com.aurionpro.payroll.dto.request.ReportFilter;
 import com.aurionpro.payroll.entity.SalaryPayment;
 
 public interface PdfGenerationService {
@@ -9,5 +12,11 @@ public interface PdfGenerationService {
 
     //For payment reports
     byte[] generateSalaryReportPdf(Long organizationId, String month, Integer year);
+    
+    // Streaming variant - pages are written to the stream as the table is flushed
+    void writeSalaryReportPdf(Long organizationId, String month, Integer year, OutputStream out);
+    
+    // Salary report of the payments matching the filter
+    void writeSalaryReportPdf(Long organizationId, ReportFilter filter, OutputStream out);
 
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.aurionpro.payroll.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.repo.EmployeeRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+
+/**
+ * Generated reports keyed by (organization, report type, format, period) and stamped with the
+ * version of the data they were built from. A lookup whose version still matches returns the stored
+ * bytes or uploaded URL without regenerating or re-uploading anything.
+ * Entries are evicted least-recently-used first once their bytes exceed the budget, and the
+ * disbursement engine drops an organization's salary report entries whenever it commits payments.
+ */
+@Service
+public class ReportCache {
+
+    // Rough per-entry overhead (key, entry, map node) counted against the budget
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    @Autowired
+    private EmployeeRepo employeeRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ReportCache(
+            @Value("${payroll.reports.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${payroll.reports.cache.max-entry-bytes:16777216}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    record Key(Long organizationId, ReportType type, ReportFormat format, Integer periodKey) {
+    }
+
+    private static class Entry {
+        private final String version;
+        private byte[] bytes;
+        private String url;
+
+        Entry(String version) {
+            this.version = version;
+        }
+
+        long weight() {
+            return ENTRY_OVERHEAD_BYTES + (bytes != null ? bytes.length : 0) + (url != null ? url.length() * 2L : 0);
+        }
+    }
+
+
+    // ==========================================
+    // DATA VERSIONS
+    // ==========================================
+
+    public String employeeListVersion(Long organizationId) {
+        return employeeRepo.findReportVersion(organizationId).stamp();
+    }
+
+    public String salaryReportVersion(Long organizationId, Integer periodKey) {
+        return salaryPaymentRepo.findReportVersion(organizationId, periodKey).stamp();
+    }
+
+    // ==========================================
+    // LOOKUPS
+    // ==========================================
+
+    /**
+     * Stored bytes of a report at this version, or null
+     */
+    public byte[] peekBytes(Long organizationId, ReportType type, ReportFormat format, Integer periodKey, String version) {
+        Entry entry = current(new Key(organizationId, type, format, periodKey), version);
+        byte[] bytes = entry != null ? entry.bytes : null;
+        (bytes != null ? hits : misses).increment();
+        return bytes;
+    }
+
+    /**
+     * Report bytes at this version, generating them on a miss
+     */
+    public byte[] getBytes(Long organizationId, ReportType type, ReportFormat format, Integer periodKey,
+            String version, Supplier<byte[]> generator) {
+        Key key = new Key(organizationId, type, format, periodKey);
+        Entry entry = current(key, version);
+        if (entry != null && entry.bytes != null) {
+            hits.increment();
+            System.out.println("♻️ Report cache hit: " + key);
+            return entry.bytes;
+        }
+
+        misses.increment();
+        byte[] bytes = generator.get();
+        store(key, version, bytes, null);
+        return bytes;
+    }
+
+    /**
+     * Uploaded URL of a report at this version, generating and uploading it on a miss.
+     * Bytes already cached for this version are uploaded without regenerating them.
+     * The uploader also gets a content key naming the report and data version, which stays the same
+     * across regenerations and outlives evictions and restarts.
+     */
+    public String getUrl(Long organizationId, ReportType type, ReportFormat format, Integer periodKey,
+            String version, Supplier<byte[]> generator, BiFunction<byte[], String, String> uploader) {
+        Key key = new Key(organizationId, type, format, periodKey);
+        Entry entry = current(key, version);
+        if (entry != null && entry.url != null) {
+            hits.increment();
+            System.out.println("♻️ Report cache hit: " + key);
+            return entry.url;
+        }
+
+        misses.increment();
+        byte[] bytes = entry != null && entry.bytes != null ? entry.bytes : generator.get();
+        String url = uploader.apply(bytes, contentKey(key, version));
+        store(key, version, bytes, url);
+        return url;
+    }
+
+    private static String contentKey(Key key, String version) {
+        return key.organizationId() + ":" + key.type() + ":" + key.format() + ":" + key.periodKey() + "@" + version;
+    }
+
+    // ==========================================
+    // INVALIDATION
+    // ==========================================
+
+    /**
+     * Drop every format of one report of an organization
+     */
+    public synchronized void invalidate(Long organizationId, ReportType type, Integer periodKey) {
+        removeIf(key -> key.organizationId().equals(organizationId) && key.type() == type
+            && Objects.equals(key.periodKey(), periodKey));
+    }
+
+    public synchronized void invalidateOrganization(Long organizationId) {
+        removeIf(key -> key.organizationId().equals(organizationId));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+
+    private synchronized Entry current(Key key, String version) {
+        // An entry built from other data stays until it is replaced or evicted
+        Entry entry = entries.get(key);
+        return entry != null && entry.version.equals(version) ? entry : null;
+    }
+
+    private synchronized void store(Key key, String version, byte[] bytes, String url) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.weight();
+        }
+
+        Entry entry = previous != null && previous.version.equals(version) ? previous : new Entry(version);
+        if (url != null) {
+            entry.url = url;
+        }
+        // Oversized reports keep only their URL
+        if (bytes != null && bytes.length + ENTRY_OVERHEAD_BYTES <= maxEntryBytes) {
+            entry.bytes = bytes;
+        }
+        if (entry.bytes == null && entry.url == null) {
+            return;
+        }
+
+        entries.put(key, entry);
+        usedBytes += entry.weight();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            usedBytes -= eldest.getValue().weight();
+            iterator.remove();
+        }
+    }
+
+    private void removeIf(Predicate<Key> predicate) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> next = iterator.next();
+            if (predicate.test(next.getKey())) {
+                usedBytes -= next.getValue().weight();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.aurionpro.payroll.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.aurionpro.payroll.dto.response.ReportJobResponse;
+import com.aurionpro.payroll.enums.PayrollJobState;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * One queued report generation. Identical requests that arrive while it is in flight share it.
+ * The finished document is spooled to a file of its own, outside the report cache, until the job expires.
+ */
+@Getter
+public class ReportJob {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long organizationId;
+    private final ReportType reportType;
+    private final ReportFormat format;
+    private final String month;
+    private final Integer year;
+    private final Integer periodKey;
+    private final String version;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private final AtomicInteger coalescedRequests = new AtomicInteger();
+
+    private volatile PayrollJobState state = PayrollJobState.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile Long generationMillis;
+    private volatile Long sizeBytes;
+    private volatile String error;
+
+    @Getter(AccessLevel.PACKAGE)
+    private volatile Path file;
+
+    ReportJob(Long organizationId, ReportType reportType, ReportFormat format,
+            String month, Integer year, Integer periodKey, String version) {
+        this.organizationId = organizationId;
+        this.reportType = reportType;
+        this.format = format;
+        this.month = month;
+        this.year = year;
+        this.periodKey = periodKey;
+        this.version = version;
+    }
+
+    void started() {
+        this.startedAt = LocalDateTime.now();
+        this.state = PayrollJobState.RUNNING;
+    }
+
+    void completed(Path file, long sizeBytes, long generationMillis) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.generationMillis = generationMillis;
+        this.completedAt = LocalDateTime.now();
+        this.state = PayrollJobState.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.state = PayrollJobState.FAILED;
+    }
+
+    // Document deleted on expiry - the job itself is still listed for a while
+    Path discardFile() {
+        Path discarded = file;
+        file = null;
+        return discarded;
+    }
+
+    boolean isFinished() {
+        return state == PayrollJobState.COMPLETED || state == PayrollJobState.FAILED;
+    }
+
+    public String getFileName() {
+        String extension = format == ReportFormat.PDF ? ".pdf" : ".xlsx";
+        return reportType == ReportType.EMPLOYEE_LIST
+            ? "employee_list" + extension
+            : "salary_report_" + month + "_" + year + extension;
+    }
+
+    public String getContentType() {
+        return format == ReportFormat.PDF
+            ? "application/pdf"
+            : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+
+    public ReportJobResponse toResponse() {
+        return ReportJobResponse.builder()
+            .jobId(id)
+            .reportType(reportType)
+            .format(format)
+            .month(month)
+            .year(year)
+            .state(state)
+            .coalescedRequests(coalescedRequests.get())
+            .submittedAt(submittedAt)
+            .startedAt(startedAt)
+            .completedAt(completedAt)
+            .generationMillis(generationMillis)
+            .sizeBytes(sizeBytes)
+            .fileName(getFileName())
+            .downloadUrl(state == PayrollJobState.COMPLETED && file != null ? "/api/reports/jobs/" + id + "/download" : null)
+            .error(error)
+            .build();
+    }
+}
@@ -0,0 +1,297 @@
+package com.aurionpro.payroll.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.aurionpro.payroll.dto.response.ReportJobStats;
+import com.aurionpro.payroll.enums.PayrollJobState;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceGoneException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates reports on a small bounded pool instead of the request thread.
+ * Requests for the same report over the same data version are single-flighted: while one job is
+ * queued or running, identical submissions get that job back instead of generating the document
+ * again. Results go through the report cache, so a finished report is also served to later jobs.
+ * Each finished document is spooled to a file outside the cache and served from there until the job
+ * expires; a download after that gets 410 instead of the report being generated on the request thread.
+ */
+@Service
+public class ReportJobService {
+
+    @Autowired
+    private ExcelGenerationService excelGenerationService;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    // Generation reads through a cursor, holding a connection until the document is done
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    @Value("${payroll.reports.workers:2}")
+    private int workers;
+
+    @Value("${payroll.reports.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${payroll.reports.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${payroll.reports.spool-dir:${java.io.tmpdir}/payroll-report-jobs}")
+    private String spoolDir;
+
+    // Same report over the same data
+    private record FlightKey(Long organizationId, ReportType type, ReportFormat format, Integer periodKey, String version) {
+    }
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<FlightKey, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, LongAdder> generationCount = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> generationMillisTotal = new ConcurrentHashMap<>();
+    private final Map<String, LongAccumulator> generationMillisMax = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Path spool;
+
+    @PostConstruct
+    void init() throws IOException {
+        spool = Files.createDirectories(Paths.get(spoolDir));
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::deleteFile);
+    }
+
+    /**
+     * Queue a report, or join the identical one already in flight
+     */
+    public ReportJob submit(Long organizationId, ReportType type, ReportFormat format, String month, Integer year) {
+        evictExpiredJobs();
+
+        Integer periodKey = null;
+        if (type == ReportType.EMPLOYEE_LIST) {
+            if (format != ReportFormat.EXCEL) {
+                throw new BadRequestException("Employee list is only available as EXCEL");
+            }
+            month = null;
+            year = null;
+        } else {
+            periodKey = PayrollPeriod.toKey(month, year);
+            if (periodKey == null) {
+                throw new BadRequestException("Invalid month: " + month);
+            }
+            month = PayrollPeriod.monthName(periodKey);
+        }
+        // Only valid requests count
+        submitted.increment();
+        String version = currentVersion(organizationId, type, periodKey);
+
+        FlightKey key = new FlightKey(organizationId, type, format, periodKey, version);
+        ReportJob job = new ReportJob(organizationId, type, format, month, year, periodKey, version);
+        ReportJob existing = inFlight.putIfAbsent(key, job);
+        if (existing != null) {
+            existing.getCoalescedRequests().incrementAndGet();
+            coalesced.increment();
+            return existing;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(key, job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            inFlight.remove(key, job);
+            rejected.increment();
+            throw new BadRequestException("Too many reports are being generated, please try again later");
+        }
+        return job;
+    }
+
+    /**
+     * A job of this organization
+     */
+    public ReportJob getJob(Long organizationId, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || !job.getOrganizationId().equals(organizationId)) {
+            throw new ResourceNotFoundException("ReportJob", "id", jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Document of a finished job, read from its spooled file
+     */
+    public InputStream openContent(ReportJob job) {
+        if (job.getState() != PayrollJobState.COMPLETED) {
+            throw new BadRequestException("Report is not ready yet (" + job.getState() + ")");
+        }
+
+        Path file = job.getFile();
+        if (file != null) {
+            try {
+                return Files.newInputStream(file);
+            } catch (NoSuchFileException e) {
+                // deleted by expiry since the check
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        throw new ResourceGoneException("Report " + job.getFileName() + " has expired, please generate it again");
+    }
+
+    public ReportJobStats getStats() {
+        Map<String, Double> average = new TreeMap<>();
+        Map<String, Long> max = new TreeMap<>();
+        generationCount.forEach((report, count) -> {
+            long runs = Math.max(1, count.sum());
+            average.put(report, generationMillisTotal.get(report).sum() / (double) runs);
+            max.put(report, generationMillisMax.get(report).get());
+        });
+
+        return ReportJobStats.builder()
+            .workers(workers)
+            .activeWorkers(executor.getActiveCount())
+            .queueDepth(executor.getQueue().size())
+            .queueCapacity(queueCapacity)
+            .submitted(submitted.sum())
+            .coalesced(coalesced.sum())
+            .rejected(rejected.sum())
+            .completed(completed.sum())
+            .failed(failed.sum())
+            .cacheHits(reportCache.getHits())
+            .cacheMisses(reportCache.getMisses())
+            .averageGenerationMillis(average)
+            .maxGenerationMillis(max)
+            .build();
+    }
+
+
+    private void run(FlightKey key, ReportJob job) {
+        job.started();
+        long start = System.nanoTime();
+        try {
+            byte[] content = connectionBudget.call(() -> reportCache.getBytes(job.getOrganizationId(),
+                job.getReportType(), job.getFormat(), job.getPeriodKey(), job.getVersion(), () -> generate(job)));
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            recordGenerationTime(job.getReportType() + "/" + job.getFormat(), millis);
+            job.completed(spool(job, content), content.length, millis);
+            completed.increment();
+            System.out.println("✅ Report job " + job.getId() + " (" + job.getFileName() + ") finished in " + millis + " ms");
+        } catch (Exception e) {
+            System.err.println("❌ Report job " + job.getId() + " failed: " + e.getMessage());
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            failed.increment();
+        } finally {
+            inFlight.remove(key, job);
+        }
+    }
+
+    private Path spool(ReportJob job, byte[] content) throws IOException {
+        String extension = job.getFormat() == ReportFormat.PDF ? ".pdf" : ".xlsx";
+        Path file = Files.createTempFile(spool, "report-job-", extension);
+        try {
+            return Files.write(file, content);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private void deleteFile(ReportJob job) {
+        Path file = job.discardFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete report file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private String currentVersion(Long organizationId, ReportType type, Integer periodKey) {
+        return type == ReportType.EMPLOYEE_LIST
+            ? reportCache.employeeListVersion(organizationId)
+            : reportCache.salaryReportVersion(organizationId, periodKey);
+    }
+
+    private byte[] generate(ReportJob job) {
+        if (job.getReportType() == ReportType.EMPLOYEE_LIST) {
+            return excelGenerationService.generateEmployeeListExcel(job.getOrganizationId());
+        }
+        return job.getFormat() == ReportFormat.PDF
+            ? pdfGenerationService.generateSalaryReportPdf(job.getOrganizationId(), job.getMonth(), job.getYear())
+            : excelGenerationService.generateSalaryReportExcel(job.getOrganizationId(), job.getMonth(), job.getYear());
+    }
+
+    private void recordGenerationTime(String report, long millis) {
+        // Count last - stats only read reports that have a count
+        generationMillisTotal.computeIfAbsent(report, r -> new LongAdder()).add(millis);
+        generationMillisMax.computeIfAbsent(report, r -> new LongAccumulator(Math::max, 0)).accumulate(millis);
+        generationCount.computeIfAbsent(report, r -> new LongAdder()).increment();
+    }
+
+    /**
+     * Delete the documents of jobs past their retention. The jobs stay listed for as long again, so a
+     * late download is told the report has expired rather than that the job never existed.
+     */
+    @Scheduled(fixedDelayString = "${payroll.reports.cleanup-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().stream()
+            .filter(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff))
+            .forEach(this::deleteFile);
+
+        LocalDateTime forgetCutoff = cutoff.minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(forgetCutoff));
+    }
+}
@@ -0,0 +1,423 @@
+package com.aurionpro.payroll.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.dto.response.SalaryPaymentResponse;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.entity.SalaryStructure;
+import com.aurionpro.payroll.enums.EmployeeStatus;
+import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.DuplicateResourceException;
+import com.aurionpro.payroll.exception.PaymentAlreadyProcessedException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+import com.aurionpro.payroll.repo.EmployeeRepo;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.PayslipDeliveryRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.util.LongHashSet;
+import com.aurionpro.payroll.util.PayrollPeriod;
+import com.aurionpro.payroll.util.TransactionIdGenerator;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Chunked salary disbursement engine.
+ * Eligible employees are processed in fixed-size chunks ordered by employee id. Each chunk is
+ * committed in its own transaction together with a checkpoint (last processed employee id) on
+ * the PaymentRequest, so a failed run can be restarted and resumes after the last committed chunk.
+ * A run holds a lease on its request (renewed per chunk), so two runs - scheduler, job endpoint or
+ * another node - never process the same request at once.
+ * Payslip rendering, upload and email are handed to the PayslipPipeline after each commit.
+ */
+@Service
+public class SalaryDisbursementEngine {
+
+    // Employees paid by a run (also used by the payroll preview)
+    static final List<EmployeeStatus> ELIGIBLE_STATUSES =
+        List.of(EmployeeStatus.ACTIVE, EmployeeStatus.ON_LEAVE);
+
+    // Unique key that makes a second payment of an employee for the same period fail
+    private static final String SALARY_PAYMENT_KEY = "UK_salary_payment_employee_period";
+
+    // Chunk transactions rolled back by a concurrent insert of a summary or ledger row
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    @Autowired
+    private PaymentRequestRepo paymentRequestRepo;
+
+    @Autowired
+    private SalaryPaymentRepo salaryPaymentRepo;
+
+    @Autowired
+    private EmployeeRepo employeeRepo;
+
+    @Autowired
+    private PayslipDeliveryRepo payslipDeliveryRepo;
+
+    @Autowired
+    private PayslipPipeline payslipPipeline;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private PayrollAnalyticsService payrollAnalyticsService;
+
+    @Autowired
+    private EmployeeYtdLedgerService employeeYtdLedgerService;
+
+    // Chunk transactions count against the background connection budget, wherever the run is driven from
+    @Autowired
+    private ConnectionBudget connectionBudget;
+
+    @Value("${payroll.disbursement.chunk-size:500}")
+    private int chunkSize;
+
+    // How long a run may go without committing a chunk before another run can take the request over
+    @Value("${payroll.disbursement.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * State of one disbursement run (a single payment request)
+     */
+    @Getter
+    public static class DisbursementRun {
+        private final Long paymentRequestId;
+        private final Long organizationId;
+        private final String month;
+        private final Integer year;
+        private final String owner = UUID.randomUUID().toString();
+        private final long startNanos = System.nanoTime();
+        private final List<SalaryPaymentResponse> responses = new ArrayList<>();
+        private Long checkpoint;
+        private long remainingEmployees;
+        private LongHashSet paidEmployeeIds;
+        @Setter
+        private PayrollJob job;     // progress listener for asynchronous runs, may be null
+        private int chunks;
+        private int paid;
+        private int skipped;
+
+        DisbursementRun(PaymentRequest paymentRequest) {
+            this.paymentRequestId = paymentRequest.getId();
+            this.organizationId = paymentRequest.getOrganization().getId();
+            this.month = paymentRequest.getMonth();
+            this.year = paymentRequest.getYear();
+            this.checkpoint = paymentRequest.getLastProcessedEmployeeId() != null
+                ? paymentRequest.getLastProcessedEmployeeId() : 0L;
+        }
+
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+
+
+    /**
+     * Run a complete disbursement, chunk by chunk
+     */
+    public List<SalaryPaymentResponse> disburse(Long paymentRequestId) {
+        DisbursementRun run = start(paymentRequestId);
+        try {
+            while (processNextChunk(run)) {
+                // each iteration commits one chunk
+            }
+            complete(run);
+        } catch (RuntimeException e) {
+            release(run);
+            throw e;
+        }
+        return run.getResponses();
+    }
+
+    /**
+     * Claim the payment request for a new run, mark it PROCESSING and load its checkpoint.
+     * APPROVED requests start from the beginning, PROCESSING requests resume after the checkpoint
+     * once the previous run's lease has expired or been released.
+     */
+    public DisbursementRun start(Long paymentRequestId) {
+        return connectionBudget.call(() -> transactionTemplate.execute(status -> {
+            // Row lock: concurrent starts of the same request queue here and see each other's claim
+            PaymentRequest paymentRequest = paymentRequestRepo.findForUpdate(paymentRequestId)
+                .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", paymentRequestId));
+
+            if (paymentRequest.getStatus() != PaymentRequestStatus.APPROVED
+                    && paymentRequest.getStatus() != PaymentRequestStatus.PROCESSING) {
+                throw new BadRequestException("Payment request is not approved");
+            }
+
+            if (paymentRequest.getOrganization() == null) {
+                throw new BadRequestException("Organization not found for this payment request");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (paymentRequest.getStatus() == PaymentRequestStatus.PROCESSING) {
+                if (paymentRequest.getProcessingLeaseUntil() != null && paymentRequest.getProcessingLeaseUntil().isAfter(now)) {
+                    throw new PaymentAlreadyProcessedException("Payment request " + paymentRequestId
+                        + " is being processed by another run");
+                }
+                System.out.println("🔁 Resuming payment request " + paymentRequestId
+                    + " after employee id " + paymentRequest.getLastProcessedEmployeeId());
+            } else {
+                paymentRequest.setProcessingStartedAt(now);
+                paymentRequest.setProcessedEmployeeCount(0);
+            }
+
+            paymentRequest.setStatus(PaymentRequestStatus.PROCESSING);
+            DisbursementRun run = new DisbursementRun(paymentRequest);
+            paymentRequest.setProcessingOwner(run.owner);
+            paymentRequest.setProcessingLeaseUntil(now.plusSeconds(leaseSeconds));
+            paymentRequestRepo.save(paymentRequest);
+
+            // One query for everyone already paid this period instead of an exists-check per employee
+            run.paidEmployeeIds = LongHashSet.of(salaryPaymentRepo.findPaidEmployeeIds(
+                run.organizationId, run.month, run.year));
+            run.remainingEmployees = employeeRepo.countByOrganizationIdAndStatusInAndIdGreaterThan(
+                run.organizationId, ELIGIBLE_STATUSES, run.checkpoint);
+            return run;
+        }));
+    }
+
+    /**
+     * Process and commit the next chunk after the run's checkpoint.
+     * @return false when there are no employees left
+     */
+    public boolean processNextChunk(DisbursementRun run) {
+        long chunkStart = System.nanoTime();
+
+        ChunkResult result = null;
+        for (int attempt = 1; result == null; attempt++) {
+            try {
+                result = connectionBudget.call(() -> transactionTemplate.execute(status -> processChunk(run)));
+            } catch (DataIntegrityViolationException e) {
+                if (violates(e, SALARY_PAYMENT_KEY)) {
+                    // Another run paid one of these employees first
+                    throw new DuplicateResourceException("Salary for " + run.month + " " + run.year
+                        + " was already disbursed to an employee in this chunk by a concurrent run");
+                }
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                // A concurrent chunk created the same payroll summary or YTD ledger row first.
+                // The whole chunk rolled back; the retry finds that row and updates it instead
+                System.out.println("🔁 Retrying chunk of payment request " + run.paymentRequestId
+                    + " after a concurrent summary/ledger insert (attempt " + (attempt + 1) + ")");
+            }
+        }
+
+        if (result.size == 0) {
+            return false;
+        }
+
+        // Chunk is committed - advance the in-memory run state
+        run.checkpoint = result.lastEmployeeId;
+        run.chunks++;
+        run.paid += result.responses.size();
+        run.skipped += result.size - result.responses.size();
+        run.responses.addAll(result.responses);
+        if (run.job != null) {
+            run.job.recordChunk(result.responses.size(), result.size - result.responses.size());
+        }
+
+        // Reports of this period no longer match the data
+        reportCache.invalidate(run.organizationId, ReportType.SALARY_REPORT, PayrollPeriod.toKey(run.month, run.year));
+
+        // Slips, uploads and emails only start once the payments are durable
+        result.responses.forEach(response -> payslipPipeline.submit(response.getId(), run.job));
+
+        long chunkMillis = Math.max(1, (System.nanoTime() - chunkStart) / 1_000_000);
+        System.out.println(String.format("📦 Chunk #%d (payment request %d): %d employees, %d paid in %d ms (%.1f employees/s)",
+            run.chunks, run.paymentRequestId, result.size, result.responses.size(), chunkMillis,
+            result.size * 1000.0 / chunkMillis));
+
+        return result.size == chunkSize;
+    }
+
+    /**
+     * Mark the payment request COMPLETED and end the run's lease
+     */
+    public void complete(DisbursementRun run) {
+        connectionBudget.run(() -> transactionTemplate.executeWithoutResult(status -> {
+            PaymentRequest paymentRequest = claimed(run);
+            paymentRequest.setStatus(PaymentRequestStatus.COMPLETED);
+            paymentRequest.setProcessingCompletedAt(LocalDateTime.now());
+            paymentRequest.setProcessingOwner(null);
+            paymentRequest.setProcessingLeaseUntil(null);
+            paymentRequestRepo.save(paymentRequest);
+        }));
+
+        long elapsed = Math.max(1, run.getElapsedMillis());
+        System.out.println(String.format("✅ Payment request %d completed: %d paid, %d skipped in %d chunks, %d ms (%.1f employees/s)",
+            run.paymentRequestId, run.paid, run.skipped, run.chunks, elapsed,
+            (run.paid + run.skipped) * 1000.0 / elapsed));
+    }
+
+
+    /**
+     * Give up the lease of a failed run so the request can be resumed straight away
+     * (committed chunks stay committed). Does nothing if the run no longer holds it.
+     */
+    public void release(DisbursementRun run) {
+        try {
+            connectionBudget.run(() -> transactionTemplate.executeWithoutResult(status -> paymentRequestRepo.findForUpdate(run.paymentRequestId)
+                .filter(paymentRequest -> run.owner.equals(paymentRequest.getProcessingOwner()))
+                .ifPresent(paymentRequest -> {
+                    paymentRequest.setProcessingOwner(null);
+                    paymentRequest.setProcessingLeaseUntil(null);
+                    paymentRequestRepo.save(paymentRequest);
+                })));
+        } catch (Exception e) {
+            // The lease then simply expires
+            System.err.println("⚠️ Could not release payment request " + run.paymentRequestId + ": " + e.getMessage());
+        }
+    }
+
+
+    // The run's request, locked; fails if another run has taken it over since
+    private PaymentRequest claimed(DisbursementRun run) {
+        PaymentRequest paymentRequest = paymentRequestRepo.findForUpdate(run.paymentRequestId)
+            .orElseThrow(() -> new ResourceNotFoundException("PaymentRequest", "id", run.paymentRequestId));
+        if (!run.owner.equals(paymentRequest.getProcessingOwner())) {
+            throw new PaymentAlreadyProcessedException("Payment request " + run.paymentRequestId
+                + " was taken over by another run after this run's lease expired");
+        }
+        return paymentRequest;
+    }
+
+    // Whether the violation is of this unique key (MySQL and H2 name it in the message)
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toUpperCase().contains(constraint.toUpperCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class ChunkResult {
+        private int size;
+        private Long lastEmployeeId;
+        private final List<SalaryPaymentResponse> responses = new ArrayList<>();
+    }
+
+    // Runs inside the chunk transaction
+    private ChunkResult processChunk(DisbursementRun run) {
+        ChunkResult result = new ChunkResult();
+
+        // Locked first, so only the lease holder advances the checkpoint
+        PaymentRequest paymentRequest = claimed(run);
+        paymentRequest.setProcessingLeaseUntil(LocalDateTime.now().plusSeconds(leaseSeconds));
+
+        // Constant number of SELECTs per chunk: one id page, one fetch-plan query
+        List<Long> employeeIds = employeeRepo.findPayrollEligibleIds(
+            run.organizationId, ELIGIBLE_STATUSES, run.checkpoint, PageRequest.of(0, chunkSize));
+
+        if (employeeIds.isEmpty()) {
+            return result;
+        }
+
+        List<Employee> employees = employeeRepo.findPayrollEligibleWithActiveStructureAndUser(employeeIds);
+
+        List<SalaryPayment> payments = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            SalaryPayment payment = payEmployee(employee, paymentRequest, run.paidEmployeeIds);
+            if (payment != null) {
+                payments.add(payment);
+                result.responses.add(modelMapper.map(payment, SalaryPaymentResponse.class));
+            }
+        }
+
+        // Summary rows and YTD ledgers commit (or roll back) together with the chunk's payments
+        payrollAnalyticsService.record(paymentRequest.getOrganization(),
+            PayrollPeriod.toKey(run.month, run.year), payments);
+        employeeYtdLedgerService.record(payments);
+
+        // Employees missing from the fetch (no active structure) count as skipped
+        result.size = employeeIds.size();
+        result.lastEmployeeId = employeeIds.get(employeeIds.size() - 1);
+
+        // Checkpoint commits atomically with the chunk's payments
+        paymentRequest.setLastProcessedEmployeeId(result.lastEmployeeId);
+        paymentRequest.setProcessedEmployeeCount(
+            (paymentRequest.getProcessedEmployeeCount() != null ? paymentRequest.getProcessedEmployeeCount() : 0)
+            + result.responses.size());
+        paymentRequestRepo.save(paymentRequest);
+
+        return result;
+    }
+
+    private SalaryPayment payEmployee(Employee employee, PaymentRequest paymentRequest, LongHashSet paidEmployeeIds) {
+        if (paidEmployeeIds.contains(employee.getId())) {
+            return null;
+        }
+
+        SalaryStructure salaryStructure = employee.getActiveSalaryStructure();
+
+        if (salaryStructure == null || !salaryStructure.getIsActive()) {
+            return null;
+        }
+
+        SalaryPayment salaryPayment = SalaryPayment.builder()
+            .employee(employee)
+            .department(employee.getDepartment())
+            .paymentRequest(paymentRequest)
+            .month(paymentRequest.getMonth())
+            .year(paymentRequest.getYear())
+            .amount(salaryStructure.getNetSalary())    //netSalary = grossSalary - deductions
+            .basicSalary(salaryStructure.getBasicSalary())
+            .hra(salaryStructure.getHra())
+            .dearnessAllowance(salaryStructure.getDearnessAllowance())
+            .otherAllowances(salaryStructure.getOtherAllowances())
+            .grossSalary(salaryStructure.getGrossSalary())
+            .providentFund(salaryStructure.getProvidentFund())
+            .netSalary(salaryStructure.getNetSalary())
+            .paymentDate(LocalDate.now())
+            .status(PaymentStatus.COMPLETED)
+            .transactionId(transactionIdGenerator.nextSalaryTransactionId())
+            .build();
+
+        SalaryPayment savedPayment = salaryPaymentRepo.save(salaryPayment);
+
+        // Delivery tracking row commits with the payment, before the pipeline picks it up
+        payslipDeliveryRepo.save(PayslipDelivery.pending(savedPayment));
+
+        return savedPayment;
+    }
+}
@@ -2,8 +2,10 @@ package com.aurionpro.payroll.service;
 
 import java.util.List;
 
+import com.aurionpro.payroll.dto.response.PayslipDeliveryResponse;
 import com.aurionpro.payroll.dto.response.SalaryPaymentHistory;
 import com.aurionpro.payroll.dto.response.SalaryPaymentResponse;
+import com.aurionpro.payroll.enums.PeriodRange;
 
 public interface SalaryPaymentService {
 
@@ -15,7 +17,11 @@ public interface SalaryPaymentService {
     
     List<SalaryPaymentHistory> getSalaryPaymentHistoryByEmployeeAndYear(Long employeeId, Integer year);
     
+    List<SalaryPaymentHistory> getSalaryPaymentHistoryByEmployeeAndRange(Long employeeId, PeriodRange range);
+    
     List<SalaryPaymentResponse> getSalaryPaymentsByOrganization(Long organizationId, String month, Integer year);
     
     byte[] generateSalarySlipPdf(Long salaryPaymentId);
+    
+    PayslipDeliveryResponse getPayslipDelivery(Long salaryPaymentId);
 }
@@ -0,0 +1,120 @@
+package com.aurionpro.payroll.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aurionpro.payroll.dto.request.ReportFilter;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.repo.SalaryPaymentSpecifications;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+import lombok.Getter;
+
+/**
+ * A validated {@link ReportFilter} of one organization: the database predicate it stands for,
+ * the requested format and a readable description for the report title.
+ */
+@Getter
+public class SalaryReportCriteria {
+
+    private final Specification<SalaryPayment> specification;
+    private final ReportFormat format;
+    private final String description;
+
+    private SalaryReportCriteria(Specification<SalaryPayment> specification, ReportFormat format, String description) {
+        this.specification = specification;
+        this.format = format;
+        this.description = description;
+    }
+
+    public static SalaryReportCriteria of(Long organizationId, ReportFilter filter) {
+        ReportFormat format = parseFormat(filter.getFormat());
+        List<String> parts = new ArrayList<>();
+
+        // Month + year is one period; a year alone is all of its periods
+        Integer fromPeriod = null;
+        Integer toPeriod = null;
+        if (hasText(filter.getMonth())) {
+            if (filter.getYear() == null) {
+                throw new BadRequestException("Year is required when filtering by month");
+            }
+            fromPeriod = PayrollPeriod.toKey(filter.getMonth(), filter.getYear());
+            if (fromPeriod == null) {
+                throw new BadRequestException("Invalid month: " + filter.getMonth());
+            }
+            toPeriod = fromPeriod;
+            parts.add(PayrollPeriod.monthName(fromPeriod) + " " + filter.getYear());
+        } else if (filter.getYear() != null) {
+            fromPeriod = PayrollPeriod.of(filter.getYear(), 1);
+            toPeriod = PayrollPeriod.of(filter.getYear(), 12);
+            parts.add(String.valueOf(filter.getYear()));
+        }
+
+        if (filter.getStartDate() != null && filter.getEndDate() != null
+                && filter.getStartDate().isAfter(filter.getEndDate())) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            parts.add("Paid " + (filter.getStartDate() != null ? filter.getStartDate() : "...")
+                + " to " + (filter.getEndDate() != null ? filter.getEndDate() : "..."));
+        }
+
+        String department = hasText(filter.getDepartment()) ? filter.getDepartment().trim() : null;
+        if (department != null) {
+            parts.add(department);
+        }
+        if (filter.getEmployeeId() != null) {
+            parts.add("Employee " + filter.getEmployeeId());
+        }
+
+        PaymentStatus status = parseStatus(filter.getStatus());
+        if (status != null) {
+            parts.add(status.name());
+        }
+
+        Specification<SalaryPayment> specification = SalaryPaymentSpecifications.ofOrganization(organizationId)
+            .and(SalaryPaymentSpecifications.inPeriods(fromPeriod, toPeriod))
+            .and(SalaryPaymentSpecifications.paidBetween(filter.getStartDate(), filter.getEndDate()))
+            .and(SalaryPaymentSpecifications.inDepartment(department))
+            .and(SalaryPaymentSpecifications.ofEmployee(filter.getEmployeeId()))
+            .and(SalaryPaymentSpecifications.withStatus(status));
+
+        return new SalaryReportCriteria(specification, format,
+            parts.isEmpty() ? "All Payments" : String.join(" | ", parts));
+    }
+
+    public String getFileName() {
+        String name = "salary_report_" + description.replaceAll("[^A-Za-z0-9]+", "_");
+        return name + (format == ReportFormat.PDF ? ".pdf" : ".xlsx");
+    }
+
+
+    private static ReportFormat parseFormat(String format) {
+        try {
+            return ReportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid format: " + format + " (expected PDF or EXCEL)");
+        }
+    }
+
+    private static PaymentStatus parseStatus(String status) {
+        if (!hasText(status)) {
+            return null;
+        }
+        try {
+            return PaymentStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid payment status: " + status);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,34 @@
+package com.aurionpro.payroll.service;
+
+import java.io.InputStream;
+
+/**
+ * Where uploaded and generated documents are kept, selected per deployment with storage.backend
+ * ("cloudinary" by default, or "local"). Callers go through CloudinaryService, which validates
+ * the file and hands the bytes to the active backend.
+ */
+public interface StorageBackend {
+
+    /**
+     * @param folder      logical folder, e.g. "salary-slips"
+     * @param name        file name without extension; null generates a unique one.
+     *                    Storing the same name again replaces the file
+     * @param extension   without the dot, e.g. "pdf" (may be null)
+     * @param contentType MIME type of the content (may be null)
+     * @return URL the client fetches the file from
+     */
+    String store(byte[] content, String folder, String name, String extension, String contentType);
+
+    /**
+     * Same for content read from a stream (uploads). The content is copied through a small fixed
+     * buffer, so the file is never held in memory as a whole. The stream is not closed.
+     * @param size content length in bytes, or -1 if unknown
+     */
+    String store(InputStream content, long size, String folder, String name, String extension, String contentType);
+
+    // Cloudinary public id or URL, or the URL / key returned for a local file
+    void delete(String id);
+
+    // Backend id of a URL returned by store() - the Cloudinary public id, or the local key
+    String idOf(String url);
+}
@@ -17,6 +17,7 @@ import com.aurionpro.payroll.exception.ResourceNotFoundException;
 import com.aurionpro.payroll.repo.PaymentRequestRepo;
 import com.aurionpro.payroll.repo.VendorPaymentRepo;
 import com.aurionpro.payroll.repo.VendorRepo;
+import com.aurionpro.payroll.util.TransactionIdGenerator;
 
 import jakarta.transaction.Transactional;
 
@@ -33,6 +34,9 @@ public class VendorPaymentServiceImpl implements VendorPaymentService{
     @Autowired
     private PaymentRequestRepo paymentRequestRepo;
     
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+    
     @Autowired
     private ModelMapper modelMapper;
     
@@ -49,7 +53,7 @@ public class VendorPaymentServiceImpl implements VendorPaymentService{
         vendorPayment.setPaymentRequest(paymentRequest);
         vendorPayment.setStatus(PaymentStatus.PENDING);
         vendorPayment.setPaymentDate(LocalDate.now());
-        vendorPayment.setTransactionId("VTX" + System.currentTimeMillis());
+        vendorPayment.setTransactionId(transactionIdGenerator.nextVendorTransactionId());
         
         VendorPayment savedPayment = vendorPaymentRepo.save(vendorPayment);
         
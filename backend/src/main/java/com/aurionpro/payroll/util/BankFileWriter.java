@@ -0,0 +1,215 @@
+package com.aurionpro.payroll.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Writes a bulk salary transfer file as CSV records:
+ * <pre>
+ * H,SALARY,&lt;payment request id&gt;,&lt;organization&gt;,&lt;period yyyymm&gt;,&lt;value date yyyyMMdd&gt;
+ * D,&lt;sequence&gt;,&lt;transaction id&gt;,&lt;IFSC&gt;,&lt;account number&gt;,&lt;beneficiary&gt;,&lt;amount&gt;
+ * T,&lt;record count&gt;,&lt;total amount&gt;,&lt;account hash total&gt;
+ * </pre>
+ * Every record is assembled in one reused char buffer and encoded into one reused byte buffer that is
+ * drained to the channel when full, so writing a line allocates nothing and memory does not grow
+ * with the number of rows. The trailer carries the control totals the bank reconciles against.
+ */
+public class BankFileWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_CHARS = 4096;
+
+    // Account hash total: sum of all account numbers read as numbers (digits only), kept to 15 digits
+    private static final long HASH_TOTAL_MODULUS = 1_000_000_000_000_000L;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer line = CharBuffer.allocate(MAX_LINE_CHARS);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final char[] digits = new char[20];
+
+    private long records;
+    private long totalPaise;
+    private long accountHashTotal;
+
+    public BankFileWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public void writeHeader(long paymentRequestId, String organizationName, int periodKey, LocalDate valueDate)
+            throws IOException {
+        line.clear();
+        line.append("H,SALARY,");
+        appendLong(paymentRequestId);
+        line.append(',');
+        appendField(organizationName);
+        line.append(',');
+        appendLong(periodKey);
+        line.append(',');
+        appendLong(valueDate.getYear() * 10000L + valueDate.getMonthValue() * 100L + valueDate.getDayOfMonth());
+        endLine();
+    }
+
+    public void writeDetail(String transactionId, String ifscCode, String accountNumber,
+            String beneficiaryName, BigDecimal amount) throws IOException {
+        long paise = toPaise(amount);
+        records++;
+        totalPaise += paise;
+        accountHashTotal = (accountHashTotal + accountNumberValue(accountNumber)) % HASH_TOTAL_MODULUS;
+
+        line.clear();
+        line.append("D,");
+        appendLong(records);
+        line.append(',');
+        appendField(transactionId);
+        line.append(',');
+        appendField(ifscCode);
+        line.append(',');
+        appendField(accountNumber);
+        line.append(',');
+        appendField(beneficiaryName);
+        line.append(',');
+        appendAmount(paise);
+        endLine();
+    }
+
+    /**
+     * Write the control totals and push everything buffered to the channel
+     */
+    public void writeTrailer() throws IOException {
+        line.clear();
+        line.append("T,");
+        appendLong(records);
+        line.append(',');
+        appendAmount(totalPaise);
+        line.append(',');
+        appendLong(accountHashTotal);
+        endLine();
+        drain();
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return BigDecimal.valueOf(totalPaise, 2);
+    }
+
+    public long getAccountHashTotal() {
+        return accountHashTotal;
+    }
+
+
+    private void endLine() throws IOException {
+        line.append('\n');
+        line.flip();
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(line, bytes, true);
+            if (result.isOverflow()) {
+                drain();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    // CSV field: quoted only when it contains a separator, quote or line break
+    private void appendField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendAmount(long paise) {
+        if (paise < 0) {
+            line.append('-');
+            paise = -paise;
+        }
+        appendLong(paise / 100);
+        line.append('.');
+        long fraction = paise % 100;
+        line.append((char) ('0' + fraction / 10));
+        line.append((char) ('0' + fraction % 10));
+    }
+
+    private void appendLong(long value) {
+        if (value < 0) {
+            line.append('-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        line.put(digits, position, digits.length - position);
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.scale() == 2
+            ? amount.unscaledValue().longValueExact()
+            : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long accountNumberValue(String accountNumber) {
+        if (accountNumber == null) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            char c = accountNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value * 10 + (c - '0')) % HASH_TOTAL_MODULUS;
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.aurionpro.payroll.util;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+import com.aurionpro.payroll.enums.PeriodRange;
+
+/**
+ * Integer payroll period keys of the form yyyymm (e.g. 202503 for March 2025).
+ * Keys sort chronologically, so "last 12 months" or "financial year to date" become a single
+ * BETWEEN range on an indexed column instead of string comparisons on month names.
+ */
+public final class PayrollPeriod {
+
+    // Indian financial year: April to March
+    private static final Month FINANCIAL_YEAR_START = Month.APRIL;
+
+    private PayrollPeriod() {
+    }
+
+    /**
+     * @param month full or short month name ("January", "jan") or number ("1", "01")
+     * @return yyyymm, or null if month/year are missing or the month is not recognised
+     */
+    public static Integer toKey(String month, Integer year) {
+        Month parsed = parseMonth(month);
+        if (parsed == null || year == null) {
+            return null;
+        }
+        return of(year, parsed.getValue());
+    }
+
+    public static int of(int year, int month) {
+        return year * 100 + month;
+    }
+
+    public static int of(LocalDate date) {
+        return of(date.getYear(), date.getMonthValue());
+    }
+
+    public static int year(int key) {
+        return key / 100;
+    }
+
+    public static int month(int key) {
+        return key % 100;
+    }
+
+    // Month name as stored in the month columns ("January")
+    public static String monthName(int key) {
+        return Month.of(month(key)).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+    }
+
+    public static int minusMonths(int key, int months) {
+        int index = year(key) * 12 + month(key) - 1 - months;
+        return of(index / 12, index % 12 + 1);
+    }
+
+    // First period of the financial year that contains the key
+    public static int financialYearStart(int key) {
+        int startYear = month(key) >= FINANCIAL_YEAR_START.getValue() ? year(key) : year(key) - 1;
+        return of(startYear, FINANCIAL_YEAR_START.getValue());
+    }
+
+    // Financial year of the key, identified by the calendar year it starts in (202502 -> 2024)
+    public static int financialYear(int key) {
+        return year(financialYearStart(key));
+    }
+
+    // "2024-25"
+    public static String financialYearLabel(int financialYear) {
+        return financialYear + "-" + String.format("%02d", (financialYear + 1) % 100);
+    }
+
+    /**
+     * Inclusive {from, to} period keys of a range ending at the current month
+     */
+    public static int[] range(PeriodRange range, LocalDate today) {
+        int current = of(today);
+        return switch (range) {
+            case LAST_12_MONTHS -> new int[] { minusMonths(current, 11), current };
+            case FINANCIAL_YEAR_TO_DATE -> new int[] { financialYearStart(current), current };
+        };
+    }
+
+    public static Month parseMonth(String month) {
+        if (month == null || month.isBlank()) {
+            return null;
+        }
+
+        String value = month.trim();
+        if (Character.isDigit(value.charAt(0))) {
+            try {
+                int number = Integer.parseInt(value);
+                return number >= 1 && number <= 12 ? Month.of(number) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String lower = value.toLowerCase(Locale.ENGLISH);
+        for (Month candidate : Month.values()) {
+            String name = candidate.getDisplayName(TextStyle.FULL, Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+            if (name.equals(lower) || (lower.length() >= 3 && name.startsWith(lower))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
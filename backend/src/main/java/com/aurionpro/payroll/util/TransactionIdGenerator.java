@@ -0,0 +1,65 @@
+package com.aurionpro.payroll.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time-ordered, node-aware transaction id generator.
+ * An id packs 41 bits of milliseconds since 2024-01-01 UTC, a 10-bit node id and a 12-bit
+ * per-millisecond sequence. The last issued (millis, sequence) pair lives in a single AtomicLong
+ * and is advanced with CAS, so ids are unique and strictly increasing per node without locking.
+ * When the sequence runs out within a millisecond it carries into the next one, and a clock that
+ * moves backwards simply keeps counting from the last issued value.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;   // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    public static final String SALARY_PREFIX = "TXN";
+    public static final String VENDOR_PREFIX = "VTX";
+
+    private final long nodeId;
+
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${payroll.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payroll.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        long tick;
+        while (true) {
+            long last = lastTick.get();
+            long nowTick = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            // New millisecond: restart the sequence; otherwise take the next one (overflow borrows the next ms)
+            tick = nowTick > last ? nowTick : last + 1;
+            if (lastTick.compareAndSet(last, tick)) {
+                break;
+            }
+        }
+
+        long millis = tick >>> SEQUENCE_BITS;
+        long sequence = tick & SEQUENCE_MASK;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public String nextSalaryTransactionId() {
+        return SALARY_PREFIX + nextId();
+    }
+
+    public String nextVendorTransactionId() {
+        return VENDOR_PREFIX + nextId();
+    }
+}
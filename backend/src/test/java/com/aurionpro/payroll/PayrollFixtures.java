@@ -0,0 +1,97 @@
+package com.aurionpro.payroll;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.entity.SalaryStructure;
+import com.aurionpro.payroll.entity.User;
+import com.aurionpro.payroll.enums.EmployeeStatus;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.enums.Role;
+import com.aurionpro.payroll.enums.UserStatus;
+
+/**
+ * Test data for JPA tests, @Import it next to the classes under test.
+ * Organizations, users and employees are persisted as they are created; salary structures and
+ * payments come back as builders so a test sets only the amounts it asserts on.
+ * Defaults: basic 1000.00, provident fund 100.00, no allowances - gross 1000.00, net 900.00.
+ */
+public class PayrollFixtures {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	public User user(String email, Role role) {
+		return entityManager.persist(User.builder()
+			.email(email)
+			.password("secret")
+			.role(role)
+			.status(UserStatus.ACTIVE)
+			.build());
+	}
+
+	// Verified, signing in as <name>@org.test
+	public Organization organization(String name) {
+		return entityManager.persist(Organization.builder()
+			.user(user(name + "@org.test", Role.ORGANIZATION))
+			.name(name)
+			.verified(true)
+			.build());
+	}
+
+	public Employee employee(Organization organization, String name) {
+		return employee(organization, name, null, EmployeeStatus.ACTIVE);
+	}
+
+	public Employee employee(Organization organization, String name, String department) {
+		return employee(organization, name, department, EmployeeStatus.ACTIVE);
+	}
+
+	// Signing in as <name>@emp.test
+	public Employee employee(Organization organization, String name, String department, EmployeeStatus status) {
+		String email = name + "@emp.test";
+		return entityManager.persist(Employee.builder()
+			.organization(organization)
+			.user(user(email, Role.EMPLOYEE))
+			.name(name)
+			.email(email)
+			.phone("9999999999")
+			.department(department)
+			.status(status)
+			.build());
+	}
+
+	// Active; gross and net are calculated when it is persisted
+	public SalaryStructure.SalaryStructureBuilder salaryStructure(Employee employee) {
+		return SalaryStructure.builder()
+			.employee(employee)
+			.basicSalary(new BigDecimal("1000.00"))
+			.hra(BigDecimal.ZERO)
+			.dearnessAllowance(BigDecimal.ZERO)
+			.otherAllowances(BigDecimal.ZERO)
+			.providentFund(new BigDecimal("100.00"))
+			.isActive(true);
+	}
+
+	// Completed, paying the net salary
+	public SalaryPayment.SalaryPaymentBuilder payment(Employee employee, String month, int year) {
+		return SalaryPayment.builder()
+			.employee(employee)
+			.amount(new BigDecimal("900.00"))
+			.month(month)
+			.year(year)
+			.status(PaymentStatus.COMPLETED)
+			.basicSalary(new BigDecimal("1000.00"))
+			.hra(BigDecimal.ZERO)
+			.dearnessAllowance(BigDecimal.ZERO)
+			.otherAllowances(BigDecimal.ZERO)
+			.providentFund(new BigDecimal("100.00"))
+			.grossSalary(new BigDecimal("1000.00"))
+			.netSalary(new BigDecimal("900.00"));
+	}
+}
@@ -0,0 +1,141 @@
+package com.aurionpro.payroll.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.dto.response.DepartmentPayrollTotals;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.SalaryStructure;
+import com.aurionpro.payroll.enums.EmployeeStatus;
+
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:payroll;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PayrollFixtures.class)
+class EmployeeRepoFetchPlanTest {
+
+	private static final List<EmployeeStatus> ELIGIBLE = List.of(EmployeeStatus.ACTIVE, EmployeeStatus.ON_LEAVE);
+
+	@Autowired
+	private EmployeeRepo employeeRepo;
+
+	@Autowired
+	private SalaryStructureRepo salaryStructureRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	@Test
+	void payrollFetchPlanIssuesTwoSelectsRegardlessOfHeadcount() {
+		Organization small = seedOrganization("small", 3);
+		Organization large = seedOrganization("large", 60);
+
+		assertEquals(2, statementsToLoadPayroll(small, 3));
+		assertEquals(2, statementsToLoadPayroll(large, 60));
+	}
+
+	@Test
+	void onlyActiveStructureIsFetched() {
+		Organization organization = seedOrganization("org", 2);
+
+		List<Long> ids = employeeRepo.findPayrollEligibleIds(organization.getId(), ELIGIBLE, 0L, PageRequest.of(0, 10));
+		entityManager.clear();
+
+		for (Employee employee : employeeRepo.findPayrollEligibleWithActiveStructureAndUser(ids)) {
+			assertEquals(1, employee.getSalaryStructures().size());
+			assertEquals(new BigDecimal("1500.00"), employee.getActiveSalaryStructure().getNetSalary());
+		}
+	}
+
+	@Test
+	void previewCountsEachEmployeeOnceWithTheStructureTheEnginePays() {
+		// Schemas that predate UK_employee_active_salary can hold two active structures per employee
+		entityManager.getEntityManager()
+			.createNativeQuery("ALTER TABLE salary_structures DROP CONSTRAINT IF EXISTS UK_employee_active_salary")
+			.executeUpdate();
+		Organization organization = seedOrganization("preview", 4);
+		List<Long> ids = employeeRepo.findPayrollEligibleIds(organization.getId(), ELIGIBLE, 0L, PageRequest.of(0, 10));
+		entityManager.persist(structure(employeeRepo.findById(ids.get(0)).orElseThrow(), true, "2000.00"));
+		entityManager.flush();
+		entityManager.clear();
+
+		List<DepartmentPayrollTotals> departments = salaryStructureRepo.summarizePayrollByDepartment(
+			organization.getId(), ELIGIBLE, 202503);
+		assertEquals(1, departments.size());
+		assertEquals(4, departments.get(0).getEmployeeCount().longValue());
+		assertEquals(0, new BigDecimal("6000.00").compareTo(departments.get(0).getTotalNet()));
+
+		for (Employee employee : employeeRepo.findPayrollEligibleWithActiveStructureAndUser(ids)) {
+			assertEquals(new BigDecimal("1500.00"), employee.getActiveSalaryStructure().getNetSalary());
+		}
+	}
+
+	private long statementsToLoadPayroll(Organization organization, int expectedEmployees) {
+		entityManager.clear();
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+			.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Long> ids = employeeRepo.findPayrollEligibleIds(organization.getId(), ELIGIBLE, 0L, PageRequest.of(0, 500));
+		List<Employee> employees = employeeRepo.findPayrollEligibleWithActiveStructureAndUser(ids);
+
+		// Touch everything the disbursement engine reads
+		for (Employee employee : employees) {
+			assertNotNull(employee.getActiveSalaryStructure().getNetSalary());
+			assertNotNull(employee.getUser().getEmail());
+		}
+		assertEquals(expectedEmployees, employees.size());
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Organization seedOrganization(String name, int employees) {
+		Organization organization = fixtures.organization(name);
+
+		for (int i = 0; i < employees; i++) {
+			Employee employee = fixtures.employee(organization, name + i, null,
+				i % 2 == 0 ? EmployeeStatus.ACTIVE : EmployeeStatus.ON_LEAVE);
+
+			entityManager.persist(structure(employee, false, "900.00"));
+			entityManager.persist(structure(employee, true, "1000.00"));
+		}
+
+		// Not eligible for payroll
+		fixtures.employee(organization, name + "-gone", null, EmployeeStatus.TERMINATED);
+
+		entityManager.flush();
+		return organization;
+	}
+
+	// Net is basic + 500.00
+	private SalaryStructure structure(Employee employee, boolean active, String basic) {
+		return fixtures.salaryStructure(employee)
+			.basicSalary(new BigDecimal(basic))
+			.hra(new BigDecimal("300.00"))
+			.dearnessAllowance(new BigDecimal("200.00"))
+			.providentFund(BigDecimal.ZERO)
+			.isActive(active)
+			.build();
+	}
+
+}
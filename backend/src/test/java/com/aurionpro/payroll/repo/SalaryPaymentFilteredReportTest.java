@@ -0,0 +1,173 @@
+package com.aurionpro.payroll.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.dto.request.ReportFilter;
+import com.aurionpro.payroll.dto.response.ReportTotals;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.service.SalaryReportCriteria;
+
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:payroll;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PayrollFixtures.class)
+class SalaryPaymentFilteredReportTest {
+
+	private static final String[] DEPARTMENTS = { "Engineering", "Finance", "Sales" };
+
+	@Autowired
+	private SalaryPaymentRepo salaryPaymentRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	private Organization organization;
+	private Organization otherOrganization;
+
+	@BeforeEach
+	void seed() {
+		organization = fixtures.organization("org");
+		otherOrganization = fixtures.organization("other");
+
+		// 30 employees: department by i % 3, one payment each for January-March 2025, every fifth one FAILED
+		for (int i = 0; i < 30; i++) {
+			Employee employee = fixtures.employee(organization, "emp" + i, DEPARTMENTS[i % 3]);
+			for (int month = 1; month <= 3; month++) {
+				PaymentStatus status = i % 5 == 0 ? PaymentStatus.FAILED : PaymentStatus.COMPLETED;
+				entityManager.persist(payment(employee, month, status));
+			}
+		}
+		// Same department in another organization - must never show up
+		entityManager.persist(payment(fixtures.employee(otherOrganization, "other0", "Engineering"), 3, PaymentStatus.COMPLETED));
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void departmentStatusAndPeriodAreAppliedInOneQuery() {
+		ReportFilter filter = filter();
+		filter.setMonth("March");
+		filter.setYear(2025);
+		filter.setDepartment("Engineering");
+		filter.setStatus("completed");
+		SalaryReportCriteria criteria = SalaryReportCriteria.of(organization.getId(), filter);
+		Statistics statistics = statistics();
+
+		List<SalaryPayment> rows;
+		try (Stream<SalaryPayment> payments = salaryPaymentRepo.streamReportRows(criteria.getSpecification())) {
+			rows = payments.toList();
+		}
+
+		// Engineering is i = 0, 3, ..., 27; i = 0, 15 failed
+		assertEquals(8, rows.size());
+		long previousEmployeeId = 0;
+		for (SalaryPayment payment : rows) {
+			assertEquals("Engineering", payment.getEmployee().getDepartment());
+			assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+			assertEquals(202503, payment.getPeriodKey());
+			assertTrue(payment.getEmployee().getId() > previousEmployeeId);
+			previousEmployeeId = payment.getEmployee().getId();
+			payment.getEmployee().getUser().getEmail();
+		}
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void totalsCoverTheSameRows() {
+		ReportFilter filter = filter();
+		filter.setYear(2025);
+		filter.setStatus("FAILED");
+
+		ReportTotals totals = salaryPaymentRepo.summarizeReportRows(
+			SalaryReportCriteria.of(organization.getId(), filter).getSpecification());
+
+		// 6 failed employees x 3 months
+		assertEquals(18, totals.getRowCount());
+		assertEquals(0, new BigDecimal("18000.00").compareTo(totals.getTotalNet()));
+	}
+
+	@Test
+	void paymentDateRangeAndEmployeeNarrowTheReport() {
+		Long employeeId;
+		try (Stream<SalaryPayment> payments = salaryPaymentRepo.streamReportRows(
+				SalaryReportCriteria.of(organization.getId(), filter()).getSpecification())) {
+			employeeId = payments.findFirst().orElseThrow().getEmployee().getId();
+		}
+
+		ReportFilter filter = filter();
+		filter.setStartDate(LocalDate.of(2025, 2, 1));
+		filter.setEmployeeId(employeeId);
+		ReportTotals totals = salaryPaymentRepo.summarizeReportRows(
+			SalaryReportCriteria.of(organization.getId(), filter).getSpecification());
+
+		// February and March of one employee
+		assertEquals(2, totals.getRowCount());
+	}
+
+	@Test
+	void invalidFiltersAreRejected() {
+		ReportFilter filter = filter();
+		filter.setStatus("PAID");
+		assertThrows(BadRequestException.class, () -> SalaryReportCriteria.of(organization.getId(), filter));
+
+		ReportFilter range = filter();
+		range.setStartDate(LocalDate.of(2025, 3, 1));
+		range.setEndDate(LocalDate.of(2025, 2, 1));
+		assertThrows(BadRequestException.class, () -> SalaryReportCriteria.of(organization.getId(), range));
+
+		ReportFilter month = filter();
+		month.setMonth("March");
+		assertThrows(BadRequestException.class, () -> SalaryReportCriteria.of(organization.getId(), month));
+	}
+
+	private ReportFilter filter() {
+		ReportFilter filter = new ReportFilter();
+		filter.setFormat("EXCEL");
+		return filter;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+			.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	private SalaryPayment payment(Employee employee, int month, PaymentStatus status) {
+		return fixtures.payment(employee, Month.of(month).name(), 2025)
+			.paymentDate(LocalDate.of(2025, month, 28))
+			.status(status)
+			.netSalary(new BigDecimal("1000.00"))
+			.build();
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.aurionpro.payroll.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.dto.response.ReportTotals;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:payroll;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PayrollFixtures.class)
+class SalaryPaymentReportStreamTest {
+
+	private static final int EMPLOYEES = 1200;
+	private static final int PERIOD = PayrollPeriod.of(2025, 3);
+
+	@Autowired
+	private SalaryPaymentRepo salaryPaymentRepo;
+
+	@Autowired
+	private EmployeeRepo employeeRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	@Test
+	void reportRowsStreamInEmployeeOrderWithOneStatementAndClearedContext() {
+		Organization organization = seed();
+		Statistics statistics = statistics();
+
+		long previousEmployeeId = 0;
+		int rows = 0;
+		try (Stream<SalaryPayment> payments = salaryPaymentRepo.streamReportRowsByOrganization(organization.getId(), PERIOD)) {
+			Iterator<SalaryPayment> iterator = payments.iterator();
+			while (iterator.hasNext()) {
+				SalaryPayment payment = iterator.next();
+				assertTrue(payment.getEmployee().getId() > previousEmployeeId);
+				assertEquals(PERIOD, payment.getPeriodKey());
+				previousEmployeeId = payment.getEmployee().getId();
+
+				// Same detaching the report generators do
+				if (++rows % 500 == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+
+		assertEquals(EMPLOYEES, rows);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void employeeRowsStreamWithoutLoadingUsersOneByOne() {
+		Organization organization = seed();
+		Statistics statistics = statistics();
+
+		long count;
+		try (Stream<Employee> employees = employeeRepo.streamByOrganizationId(organization.getId())) {
+			count = employees.map(Employee::getUser).count();
+		}
+
+		assertEquals(EMPLOYEES, count);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void totalsAreAggregatedForTheRequestedPeriodOnly() {
+		Organization organization = seed();
+
+		ReportTotals totals = salaryPaymentRepo.summarizeReportRows(organization.getId(), PERIOD);
+
+		assertEquals(EMPLOYEES, totals.getRowCount());
+		assertEquals(0, new BigDecimal("1500.00").multiply(BigDecimal.valueOf(EMPLOYEES)).compareTo(totals.getTotalNet()));
+	}
+
+	private Statistics statistics() {
+		entityManager.clear();
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+			.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	private Organization seed() {
+		Organization organization = fixtures.organization("org");
+
+		for (int i = 0; i < EMPLOYEES; i++) {
+			Employee employee = fixtures.employee(organization, "emp" + i, "Engineering");
+
+			entityManager.persist(payment(employee, "March"));
+			// Another period that must not show up in the report
+			if (i % 10 == 0) {
+				entityManager.persist(payment(employee, "February"));
+			}
+
+			if (i % 500 == 0) {
+				entityManager.flush();
+				entityManager.clear();
+				organization = entityManager.find(Organization.class, organization.getId());
+			}
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		return organization;
+	}
+
+	private SalaryPayment payment(Employee employee, String month) {
+		return fixtures.payment(employee, month, 2025)
+			.netSalary(new BigDecimal("1500.00"))
+			.build();
+	}
+
+}
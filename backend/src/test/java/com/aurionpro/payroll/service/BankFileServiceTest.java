@@ -0,0 +1,98 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.aurionpro.payroll.dto.response.BankTransferRow;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+
+class BankFileServiceTest {
+
+	private BankFileService service;
+	private SalaryPaymentRepo salaryPaymentRepo;
+	private PaymentRequest paymentRequest;
+
+	@BeforeEach
+	void setUp() {
+		paymentRequest = PaymentRequest.builder()
+			.id(5L)
+			.organization(Organization.builder().name("Acme").build())
+			.requestType(PaymentRequestType.SALARY_DISBURSEMENT)
+			.status(PaymentRequestStatus.COMPLETED)
+			.month("March")
+			.year(2025)
+			.build();
+		PaymentRequestRepo paymentRequestRepo = mock(PaymentRequestRepo.class);
+		when(paymentRequestRepo.findById(5L)).thenReturn(Optional.of(paymentRequest));
+
+		salaryPaymentRepo = mock(SalaryPaymentRepo.class);
+		when(salaryPaymentRepo.findUnpayableBankTransfers(eq(5L), eq(PaymentStatus.COMPLETED), any())).thenReturn(List.of());
+
+		service = new BankFileService();
+		ReflectionTestUtils.setField(service, "paymentRequestRepo", paymentRequestRepo);
+		ReflectionTestUtils.setField(service, "salaryPaymentRepo", salaryPaymentRepo);
+		ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+		service.init();
+	}
+
+	@Test
+	void onlyCompletedDisbursementsGetABankFile() {
+		assertDoesNotThrow(() -> service.validate(5L));
+
+		paymentRequest.setStatus(PaymentRequestStatus.PROCESSING);
+		BadRequestException e = assertThrows(BadRequestException.class, () -> service.validate(5L));
+		assertTrue(e.getMessage().contains("PROCESSING"));
+	}
+
+	@Test
+	void payeesWithoutAccountOrIfscAreListed() {
+		when(salaryPaymentRepo.findUnpayableBankTransfers(eq(5L), eq(PaymentStatus.COMPLETED), any())).thenReturn(List.of(
+			row("TXN1", "Asha Rao", "", "HDFC0000001"),
+			row("TXN2", "Ravi Kumar", "123456789", null)));
+
+		BadRequestException e = assertThrows(BadRequestException.class, () -> service.validate(5L));
+		assertTrue(e.getMessage().contains("Asha Rao (TXN1)"));
+		assertTrue(e.getMessage().contains("Ravi Kumar (TXN2)"));
+	}
+
+	@Test
+	void fileStopsBeforeTheTrailerAtAnUnpayableRow() {
+		when(salaryPaymentRepo.streamBankTransfers(5L, PaymentStatus.COMPLETED)).thenReturn(Stream.of(
+			row("TXN1", "Asha Rao", "123456789", "HDFC0000001"),
+			row("TXN2", "Ravi Kumar", "  ", "HDFC0000001")));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertThrows(BadRequestException.class, () -> service.writeDisbursementFile(5L, Channels.newChannel(out)));
+		assertFalse(out.toString(StandardCharsets.UTF_8).contains("\nT,"));
+	}
+
+	private static BankTransferRow row(String transactionId, String name, String account, String ifsc) {
+		return new BankTransferRow(transactionId, name, account, ifsc, new BigDecimal("900.00"));
+	}
+}
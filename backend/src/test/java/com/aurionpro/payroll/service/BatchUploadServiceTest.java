@@ -0,0 +1,104 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.aurionpro.payroll.dto.response.BatchUploadResponse;
+import com.aurionpro.payroll.exception.BadRequestException;
+
+class BatchUploadServiceTest {
+
+	private static final int FILES = 8;
+
+	private BatchUploadService service;
+
+	// Uploads running right now, and the most that ever ran at once
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		// Every upload waits until all of them have started, so a serial batch never gets past the first;
+		// the invalid file is rejected
+		CountDownLatch allStarted = new CountDownLatch(FILES);
+		CloudinaryService cloudinaryService = mock(CloudinaryService.class);
+		when(cloudinaryService.uploadFile(any(MultipartFile.class), eq("organization_documents"))).thenAnswer(invocation -> {
+			MultipartFile file = invocation.getArgument(0);
+			peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				allStarted.countDown();
+				allStarted.await(5, TimeUnit.SECONDS);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			if (file.getOriginalFilename().endsWith(".exe")) {
+				throw new BadRequestException("Invalid file type: application/octet-stream");
+			}
+			return "https://files.example/" + file.getOriginalFilename();
+		});
+
+		service = new BatchUploadService();
+		ReflectionTestUtils.setField(service, "cloudinaryService", cloudinaryService);
+		ReflectionTestUtils.setField(service, "workers", FILES);
+		ReflectionTestUtils.setField(service, "queueCapacity", 16);
+		ReflectionTestUtils.setField(service, "maxFiles", 10);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		service.shutdown();
+	}
+
+	@Test
+	void filesAreUploadedConcurrentlyWithPerFileResults() {
+		MultipartFile[] files = new MultipartFile[FILES];
+		for (int i = 0; i < FILES; i++) {
+			String name = i == 3 ? "setup.exe" : "document" + i + ".pdf";
+			files[i] = new MockMultipartFile("files", name, "application/pdf", name.getBytes(StandardCharsets.UTF_8));
+		}
+
+		BatchUploadResponse response = service.upload(files, "organization_documents");
+
+		assertEquals(FILES - 1, response.getUploaded());
+		assertEquals(1, response.getFailed());
+		for (int i = 0; i < FILES; i++) {
+			assertEquals(files[i].getOriginalFilename(), response.getFiles().get(i).getFileName());
+		}
+		assertEquals("https://files.example/document0.pdf", response.getFiles().get(0).getFileUrl());
+		assertNull(response.getFiles().get(3).getFileUrl());
+		assertTrue(response.getFiles().get(3).getError().startsWith("Invalid file type"));
+
+		// All files were in flight at the same time
+		assertEquals(FILES, peakInFlight.get());
+	}
+
+	@Test
+	void batchSizeIsLimited() {
+		MultipartFile[] files = new MultipartFile[11];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = new MockMultipartFile("files", "document" + i + ".pdf", "application/pdf", new byte[] { 1 });
+		}
+
+		assertThrows(BadRequestException.class, () -> service.upload(files, "organization_documents"));
+		assertThrows(BadRequestException.class, () -> service.upload(new MultipartFile[0], "organization_documents"));
+	}
+}
@@ -0,0 +1,206 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.repo.DocumentRepo;
+
+class CloudinaryServiceImplTest {
+
+	private static final String BASE_URL = "/api/files/local";
+	private static final int UPLOADS = 50;
+	private static final int FILE_SIZE = 4 * 1024 * 1024;
+
+	@TempDir
+	Path tempDir;
+
+	private CloudinaryServiceImpl cloudinaryService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		LocalStorageBackend backend = new LocalStorageBackend();
+		ReflectionTestUtils.setField(backend, "root", tempDir.resolve("storage").toString());
+		ReflectionTestUtils.setField(backend, "baseUrl", BASE_URL);
+		backend.init();
+
+		// Nothing registered yet, so every upload is written
+		DocumentRegistry documentRegistry = new DocumentRegistry();
+		ReflectionTestUtils.setField(documentRegistry, "documentRepo", mock(DocumentRepo.class));
+		ReflectionTestUtils.setField(documentRegistry, "storageBackend", backend);
+		ReflectionTestUtils.setField(documentRegistry, "transactionManager", mock(PlatformTransactionManager.class));
+		documentRegistry.init();
+
+		cloudinaryService = new CloudinaryServiceImpl();
+		ReflectionTestUtils.setField(cloudinaryService, "storageBackend", backend);
+		ReflectionTestUtils.setField(cloudinaryService, "documentRegistry", documentRegistry);
+		ReflectionTestUtils.setField(cloudinaryService, "maxUploadSize", DataSize.ofMegabytes(25));
+	}
+
+	@Test
+	void concurrentUploadsAreStreamedWithoutBufferingTheFiles() throws Exception {
+		// One on-disk part per upload, like the servlet container's multipart temp files
+		List<DiskPart> parts = new ArrayList<>();
+		Random random = new Random(42);
+		byte[] content = new byte[FILE_SIZE];
+		for (int i = 0; i < UPLOADS; i++) {
+			random.nextBytes(content);
+			Path file = tempDir.resolve("part" + i + ".pdf");
+			Files.write(file, content);
+			parts.add(new DiskPart(file));
+		}
+		content = null;
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		long baseline = memory.getHeapMemoryUsage().getUsed();
+		AtomicLong peak = new AtomicLong(baseline);
+		AtomicBoolean sampling = new AtomicBoolean(true);
+		Thread sampler = new Thread(() -> {
+			while (sampling.get()) {
+				peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+				Thread.onSpinWait();
+			}
+		});
+		sampler.setDaemon(true);
+		sampler.start();
+
+		ExecutorService executor = Executors.newFixedThreadPool(UPLOADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> urls = new ArrayList<>();
+		for (DiskPart part : parts) {
+			urls.add(executor.submit(() -> {
+				start.await();
+				return cloudinaryService.uploadFile(part, "concern_attachments");
+			}));
+		}
+		start.countDown();
+
+		List<String> stored = new ArrayList<>();
+		for (Future<String> url : urls) {
+			stored.add(url.get(60, TimeUnit.SECONDS));
+		}
+		sampling.set(false);
+		sampler.join();
+		executor.shutdown();
+
+		long peakGrowth = peak.get() - baseline;
+		long totalBytes = (long) UPLOADS * FILE_SIZE;
+		System.out.println(String.format("📈 %d concurrent uploads of %d MB: peak heap %d MB above baseline (%d MB uploaded)",
+			UPLOADS, FILE_SIZE >> 20, peakGrowth >> 20, totalBytes >> 20));
+
+		for (int i = 0; i < UPLOADS; i++) {
+			Path storedFile = tempDir.resolve("storage").resolve(stored.get(i).substring(BASE_URL.length() + 1));
+			assertArrayEquals(sha256(parts.get(i).path), sha256(storedFile));
+		}
+		// Buffering every file would need the whole upload volume on the heap at once
+		assertTrue(peakGrowth < totalBytes, "peak heap growth " + peakGrowth);
+	}
+
+	@Test
+	void uploadLimitIsConfigurable() throws Exception {
+		Path file = tempDir.resolve("big.pdf");
+		Files.write(file, new byte[2 * 1024 * 1024]);
+		ReflectionTestUtils.setField(cloudinaryService, "maxUploadSize", DataSize.ofMegabytes(1));
+
+		BadRequestException error = assertThrows(BadRequestException.class,
+			() -> cloudinaryService.uploadFile(new DiskPart(file), "organization_documents"));
+		assertTrue(error.getMessage().contains("1 MB"), error.getMessage());
+	}
+
+	private static byte[] sha256(Path file) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		try (InputStream in = Files.newInputStream(file)) {
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Multipart file backed by a file on disk; reading it whole into memory fails the test
+	 */
+	private static class DiskPart implements MultipartFile {
+		private final Path path;
+
+		DiskPart(Path path) {
+			this.path = path;
+		}
+
+		@Override
+		public String getName() {
+			return "file";
+		}
+
+		@Override
+		public String getOriginalFilename() {
+			return path.getFileName().toString();
+		}
+
+		@Override
+		public String getContentType() {
+			return "application/pdf";
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return getSize() == 0;
+		}
+
+		@Override
+		public long getSize() {
+			try {
+				return Files.size(path);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public byte[] getBytes() {
+			throw new AssertionError("upload was buffered on the heap");
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return Files.newInputStream(path);
+		}
+
+		@Override
+		public void transferTo(File dest) throws IOException {
+			Files.copy(path, dest.toPath());
+		}
+	}
+}
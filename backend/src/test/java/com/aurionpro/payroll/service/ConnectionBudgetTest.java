@@ -0,0 +1,69 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ConnectionBudgetTest {
+
+	@Test
+	void budgetIsThePoolLessTheReservedConnections() {
+		assertEquals(8, new ConnectionBudget(10, 2).getPermits());
+		assertEquals(1, new ConnectionBudget(2, 2).getPermits());
+	}
+
+	@Test
+	void workBeyondTheBudgetWaitsForAPermit() throws Exception {
+		ConnectionBudget budget = new ConnectionBudget(4, 1);
+		AtomicInteger holding = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		CountDownLatch budgetUsedUp = new CountDownLatch(3);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// Five pools' worth of work on a budget of three
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		List<Future<?>> work = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			work.add(executor.submit(() -> budget.run(() -> {
+				peak.accumulateAndGet(holding.incrementAndGet(), Math::max);
+				budgetUsedUp.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				holding.decrementAndGet();
+			})));
+		}
+
+		budgetUsedUp.await(5, TimeUnit.SECONDS);
+		assertEquals(0, budget.getAvailable());
+		release.countDown();
+		for (Future<?> future : work) {
+			future.get(5, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(3, peak.get());
+		assertEquals(3, budget.getAvailable());
+	}
+
+	@Test
+	void nestedWorkRunsOnThePermitItAlreadyHolds() {
+		ConnectionBudget budget = new ConnectionBudget(1, 0);
+
+		int result = budget.call(() -> budget.call(() -> 42));
+
+		assertEquals(42, result);
+		assertEquals(1, budget.getAvailable());
+	}
+}
@@ -0,0 +1,168 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import com.aurionpro.payroll.entity.Document;
+import com.aurionpro.payroll.enums.DocumentType;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.repo.DocumentRepo;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfWriter;
+
+@DataJpaTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:documents;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH",
+	"storage.backend=local",
+	"storage.local.root=" + DocumentRegistryTest.ROOT
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ CloudinaryServiceImpl.class, DocumentRegistry.class, LocalStorageBackend.class })
+class DocumentRegistryTest {
+
+	static final String ROOT = "target/document-registry-test";
+
+	@Autowired
+	private CloudinaryService cloudinaryService;
+
+	@Autowired
+	private DocumentRepo documentRepo;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		FileSystemUtils.deleteRecursively(Paths.get(ROOT));
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		byte[] proof = "bank proof".getBytes(StandardCharsets.UTF_8);
+		String first = cloudinaryService.uploadFile(
+			new MockMultipartFile("file", "proof.pdf", "application/pdf", proof), "employee_account_proofs");
+		String second = cloudinaryService.uploadFile(
+			new MockMultipartFile("file", "proof-again.pdf", "application/pdf", proof), "employee_account_proofs");
+		assertEquals(first, second);
+		assertEquals(1, filesIn("employee_account_proofs"));
+
+		// A regenerated report with unchanged content is not written again
+		byte[] report = "salary report".getBytes(StandardCharsets.UTF_8);
+		String report1 = cloudinaryService.uploadPdf(report, "salary_report_1", "reports/salary-reports");
+		String report2 = cloudinaryService.uploadPdf(report, "salary_report_1", "reports/salary-reports");
+		String report3 = cloudinaryService.uploadPdf(report, "salary_report_2", "reports/salary-reports");
+		assertEquals(report1, report2);
+		assertEquals(report1, report3);
+		assertEquals(1, filesIn("reports"));
+
+		List<Document> documents = documentRepo.findAll();
+		assertEquals(2, documents.size());
+		Document stored = documentRepo.findByCloudinaryPublicId(first.substring("/api/files/local/".length())).get(0);
+		assertEquals(sha256(proof), stored.getContentHash());
+		assertEquals(2, stored.getReferenceCount().intValue());
+		assertEquals(DocumentType.EMPLOYEE_BANK_PROOF, stored.getDocumentType());
+		assertEquals("EMPLOYEE", stored.getEntityType());
+		assertEquals(proof.length, stored.getFileSize().longValue());
+	}
+
+	@Test
+	void fileIsDeletedWithTheLastReference() throws Exception {
+		byte[] attachment = "screenshot".getBytes(StandardCharsets.UTF_8);
+		String url = cloudinaryService.uploadFile(
+			new MockMultipartFile("file", "a.png", "image/png", attachment), "concern_attachments");
+		cloudinaryService.uploadFile(
+			new MockMultipartFile("file", "b.png", "image/png", attachment), "concern_attachments");
+
+		cloudinaryService.deleteFile(url);
+		assertEquals(1, filesIn("concern_attachments"));
+		assertEquals(1, documentRepo.findAll().get(0).getReferenceCount().intValue());
+
+		// The backend id (here the local key) releases the same file
+		cloudinaryService.deleteFile(url.substring("/api/files/local/".length()));
+		assertEquals(0, filesIn("concern_attachments"));
+		assertTrue(documentRepo.findAll().isEmpty());
+	}
+
+	@Test
+	void reportRewrittenUnderItsNameTakesOverTheRow() throws Exception {
+		byte[] v1 = "employees v1".getBytes(StandardCharsets.UTF_8);
+		byte[] v2 = "employees v2".getBytes(StandardCharsets.UTF_8);
+		String first = cloudinaryService.uploadExcel(v1, "employee_list_7", "reports/employee-lists");
+		String second = cloudinaryService.uploadExcel(v2, "employee_list_7", "reports/employee-lists");
+		assertEquals(first, second);
+
+		List<Document> documents = documentRepo.findAll();
+		assertEquals(1, documents.size());
+		assertEquals(sha256(v2), documents.get(0).getContentHash());
+		assertEquals("XLSX", documents.get(0).getFileType());
+		assertEquals(2, documents.get(0).getReferenceCount().intValue());
+		assertFalse(documentRepo.findByContentHashForUpdate(sha256(v1)).isPresent());
+	}
+
+	@Test
+	void regeneratedReportOfUnchangedDataIsNotUploadedAgain() throws Exception {
+		byte[] first = salaryReport();
+		byte[] regenerated = salaryReport();
+		// iText stamps every document with its creation time and a random id
+		assertFalse(Arrays.equals(first, regenerated));
+
+		// A fresh cache stands in for a restart or an eviction; the data version is unchanged
+		String url = upload(new ReportCache(1 << 20, 1 << 20), first);
+		String again = upload(new ReportCache(1 << 20, 1 << 20), regenerated);
+
+		assertEquals(url, again);
+		assertEquals(1, filesIn("reports"));
+		List<Document> documents = documentRepo.findAll();
+		assertEquals(1, documents.size());
+		assertEquals(2, documents.get(0).getReferenceCount().intValue());
+	}
+
+	private String upload(ReportCache reportCache, byte[] report) {
+		return reportCache.getUrl(7L, ReportType.SALARY_REPORT, ReportFormat.PDF, 202503, "12@2025-03-31T10:15",
+			() -> report,
+			(pdfBytes, contentKey) -> cloudinaryService.uploadPdf(pdfBytes, "salary_report_7", "reports/salary-reports", contentKey));
+	}
+
+	private static byte[] salaryReport() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		com.itextpdf.text.Document document = new com.itextpdf.text.Document();
+		PdfWriter.getInstance(document, out);
+		document.open();
+		document.add(new Paragraph("Salary report - March 2025"));
+		document.close();
+		return out.toByteArray();
+	}
+
+	private static long filesIn(String folder) throws IOException {
+		Path path = Paths.get(ROOT, folder);
+		if (!Files.exists(path)) {
+			return 0;
+		}
+		try (Stream<Path> files = Files.walk(path)) {
+			return files.filter(Files::isRegularFile).count();
+		}
+	}
+
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
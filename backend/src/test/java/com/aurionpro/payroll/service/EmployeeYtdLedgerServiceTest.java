@@ -0,0 +1,146 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.dto.response.EmployeeYtdRebuildReport;
+import com.aurionpro.payroll.dto.response.EmployeeYtdSummary;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.EmployeeYtdLedger;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.repo.EmployeeYtdLedgerRepo;
+
+// The rebuild runs its batches on worker threads, so test data is committed instead of rolled back
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:ytd;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ EmployeeYtdLedgerService.class, ConnectionBudget.class, PayrollFixtures.class })
+class EmployeeYtdLedgerServiceTest {
+
+	private static final AtomicInteger ORGANIZATIONS = new AtomicInteger();
+
+	@Autowired
+	private EmployeeYtdLedgerService employeeYtdLedgerService;
+
+	@Autowired
+	private EmployeeYtdLedgerRepo employeeYtdLedgerRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void paymentsAccumulatePerFinancialYear() {
+		List<Employee> employees = seed(3);
+
+		// March 2025 closes FY 2024-25, April and May 2025 open FY 2025-26
+		Long employeeId = employees.get(0).getId();
+		EmployeeYtdSummary current = employeeYtdLedgerService.getYtdSummary(employeeId, 2025);
+		assertEquals("2025-26", current.getFinancialYearLabel());
+		assertEquals(2, current.getPayments());
+		assertEquals(0, new BigDecimal("2000.00").compareTo(current.getTotalGross()));
+		assertEquals(0, new BigDecimal("1800.00").compareTo(current.getTotalNet()));
+		assertEquals(0, new BigDecimal("200.00").compareTo(current.getTotalProvidentFund()));
+		assertEquals(202505, current.getLastPeriodKey());
+		assertNotNull(current.getUpdatedAt());
+
+		EmployeeYtdSummary previous = employeeYtdLedgerService.getYtdSummary(employeeId, 2024);
+		assertEquals(1, previous.getPayments());
+		assertEquals(202503, previous.getLastPeriodKey());
+
+		EmployeeYtdSummary unpaid = employeeYtdLedgerService.getYtdSummary(employeeId, 2030);
+		assertEquals(0, unpaid.getPayments());
+		assertEquals(0, BigDecimal.ZERO.compareTo(unpaid.getTotalNet()));
+	}
+
+	@Test
+	void rebuildRepairsLedgersInParallelBatches() {
+		ReflectionTestUtils.setField(employeeYtdLedgerService, "rebuildBatchSize", 2);
+		List<Employee> employees = seed(5);
+		Long tamperedId = employees.get(0).getId();
+		Long missingId = employees.get(1).getId();
+
+		inTransaction(() -> {
+			EmployeeYtdLedger tampered = employeeYtdLedgerRepo.findByEmployeeIdAndFinancialYear(tamperedId, 2025).orElseThrow();
+			tampered.setTotalNet(BigDecimal.ONE);
+			employeeYtdLedgerRepo.delete(employeeYtdLedgerRepo.findByEmployeeIdAndFinancialYear(missingId, 2024).orElseThrow());
+			employeeYtdLedgerRepo.save(EmployeeYtdLedger.empty(entityManager.find(Employee.class, missingId), 2010));
+		});
+
+		EmployeeYtdRebuildReport report = employeeYtdLedgerService.rebuild();
+		assertEquals(0, report.getFailedBatches());
+		assertEquals(1, report.getCorrected());
+		assertEquals(1, report.getCreated());
+		assertEquals(1, report.getRemoved());
+
+		assertEquals(0, new BigDecimal("1800.00").compareTo(
+			employeeYtdLedgerService.getYtdSummary(tamperedId, 2025).getTotalNet()));
+		assertEquals(1, employeeYtdLedgerService.getYtdSummary(missingId, 2024).getPayments());
+		assertEquals(0, employeeYtdLedgerService.getYtdSummary(missingId, 2010).getPayments());
+
+		EmployeeYtdRebuildReport again = employeeYtdLedgerService.rebuild();
+		assertEquals(0, again.getCorrected() + again.getCreated() + again.getRemoved());
+	}
+
+	// Employees paid for March, April and May 2025, recorded one period (chunk) at a time
+	private List<Employee> seed(int count) {
+		String prefix = "ytd" + ORGANIZATIONS.incrementAndGet();
+		List<Employee> employees = new ArrayList<>();
+
+		inTransaction(() -> {
+			Organization organization = fixtures.organization(prefix);
+			for (int i = 0; i < count; i++) {
+				employees.add(fixtures.employee(organization, prefix + "emp" + i));
+			}
+		});
+
+		for (String month : List.of("MARCH", "APRIL", "MAY")) {
+			inTransaction(() -> {
+				List<SalaryPayment> chunk = new ArrayList<>();
+				for (Employee employee : employees) {
+					chunk.add(entityManager.persist(payment(employee, month)));
+				}
+				employeeYtdLedgerService.record(chunk);
+			});
+		}
+		return employees;
+	}
+
+	private void inTransaction(Runnable work) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+	}
+
+	// Gross 1000.00, provident fund 100.00, net 900.00
+	private SalaryPayment payment(Employee employee, String month) {
+		return fixtures.payment(employee, month, 2025)
+			.grossSalary(new BigDecimal("1000.00"))
+			.providentFund(new BigDecimal("100.00"))
+			.netSalary(new BigDecimal("900.00"))
+			.build();
+	}
+
+}
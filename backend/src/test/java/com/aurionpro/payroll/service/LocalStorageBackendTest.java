@@ -0,0 +1,91 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+
+class LocalStorageBackendTest {
+
+	private static final String BASE_URL = "/api/files/local";
+
+	@TempDir
+	Path root;
+
+	private LocalStorageBackend backend;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		backend = new LocalStorageBackend();
+		ReflectionTestUtils.setField(backend, "root", root.toString());
+		ReflectionTestUtils.setField(backend, "baseUrl", BASE_URL);
+		backend.init();
+	}
+
+	@Test
+	void storesInShardedDirectoriesAndServesTheSameBytes() throws Exception {
+		byte[] content = "payslip".getBytes(StandardCharsets.UTF_8);
+
+		String url = backend.store(content, "salary-slips", "salary_slip_42_March_2025", "pdf", "application/pdf");
+
+		String key = url.substring(BASE_URL.length() + 1);
+		assertTrue(key.matches("salary-slips/[0-9a-f]{2}/[0-9a-f]{2}/salary_slip_42_March_2025\\.pdf"), key);
+		Path path = backend.locate(key);
+		assertArrayEquals(content, Files.readAllBytes(path));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(content.length, backend.transferTo(path, out));
+		assertArrayEquals(content, out.toByteArray());
+
+		// No temporary files left behind
+		try (Stream<Path> files = Files.list(path.getParent())) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void sameNameReplacesAndUnnamedFilesAreUnique() throws Exception {
+		String first = backend.store("v1".getBytes(StandardCharsets.UTF_8), "reports", "report", "xlsx", null);
+		String second = backend.store("v2".getBytes(StandardCharsets.UTF_8), "reports", "report", "xlsx", null);
+		assertEquals(first, second);
+		assertEquals("v2", Files.readString(backend.locate(first.substring(BASE_URL.length() + 1))));
+
+		String a = backend.store(new byte[] { 1 }, "concern_attachments", null, "png", "image/png");
+		String b = backend.store(new byte[] { 2 }, "concern_attachments", null, "png", "image/png");
+		assertFalse(a.equals(b));
+	}
+
+	@Test
+	void pathsCannotEscapeTheRoot() {
+		String url = backend.store(new byte[] { 1 }, "../../etc", "../passwd", null, null);
+		assertTrue(url.matches(BASE_URL + "/_\\./_\\./etc/[0-9a-f]{2}/[0-9a-f]{2}/_\\._passwd"), url);
+		assertTrue(Files.exists(backend.locate(url.substring(BASE_URL.length() + 1))));
+
+		assertThrows(BadRequestException.class, () -> backend.locate("../outside.pdf"));
+		assertThrows(ResourceNotFoundException.class, () -> backend.locate("reports/missing.pdf"));
+	}
+
+	@Test
+	void deleteAcceptsTheReturnedUrl() {
+		String url = backend.store(new byte[] { 1 }, "reports", "old", "pdf", "application/pdf");
+
+		backend.delete(url);
+
+		assertThrows(ResourceNotFoundException.class, () -> backend.locate(url.substring(BASE_URL.length() + 1)));
+	}
+}
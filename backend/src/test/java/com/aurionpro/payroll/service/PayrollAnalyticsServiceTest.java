@@ -0,0 +1,138 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.dto.response.PayrollSummaryReconciliation;
+import com.aurionpro.payroll.dto.response.PayrollSummaryTotals;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PayrollSummary;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.enums.PeriodRange;
+import com.aurionpro.payroll.repo.PayrollSummaryRepo;
+import com.aurionpro.payroll.util.PayrollPeriod;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:payroll;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ PayrollAnalyticsService.class, PayrollFixtures.class })
+class PayrollAnalyticsServiceTest {
+
+	private static final String[] DEPARTMENTS = { "Engineering", "Finance", null };
+
+	@Autowired
+	private PayrollAnalyticsService payrollAnalyticsService;
+
+	@Autowired
+	private PayrollSummaryRepo payrollSummaryRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	private Organization organization;
+	private LocalDate lastMonth;
+
+	@BeforeEach
+	void seed() {
+		organization = fixtures.organization("org");
+		lastMonth = LocalDate.now().minusMonths(1);
+
+		// 12 employees over three departments (one without), paid for two months in chunks of 5
+		List<Employee> employees = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			employees.add(fixtures.employee(organization, "emp" + i, DEPARTMENTS[i % 3]));
+		}
+		for (LocalDate period : List.of(lastMonth.minusMonths(1), lastMonth)) {
+			for (int from = 0; from < employees.size(); from += 5) {
+				List<SalaryPayment> chunk = new ArrayList<>();
+				for (Employee employee : employees.subList(from, Math.min(from + 5, employees.size()))) {
+					chunk.add(entityManager.persist(payment(employee, period)));
+				}
+				payrollAnalyticsService.record(organization, PayrollPeriod.of(period), chunk);
+			}
+		}
+		// Failed payments are not part of the summary
+		entityManager.persist(payment(employees.get(0), lastMonth.minusMonths(2))).setStatus(PaymentStatus.FAILED);
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void chunksAddUpPerPeriodAndDepartment() {
+		List<PayrollSummaryTotals> departments =
+			payrollAnalyticsService.getDepartmentTotals(organization.getId(), PeriodRange.LAST_12_MONTHS);
+
+		// 2 periods x 3 departments, 4 employees each
+		assertEquals(6, departments.size());
+		for (PayrollSummaryTotals totals : departments) {
+			assertEquals(4, totals.getHeadcount().longValue());
+			assertEquals(0, new BigDecimal("4000.00").compareTo(totals.getTotalGross()));
+			assertEquals(0, new BigDecimal("3600.00").compareTo(totals.getTotalNet()));
+			assertEquals(0, new BigDecimal("400.00").compareTo(totals.getTotalProvidentFund()));
+		}
+		assertTrue(departments.stream().anyMatch(t -> PayrollSummary.UNASSIGNED.equals(t.getDepartment())));
+
+		List<PayrollSummaryTotals> trend =
+			payrollAnalyticsService.getPeriodTotals(organization.getId(), PeriodRange.LAST_12_MONTHS);
+		assertEquals(2, trend.size());
+		assertEquals(PayrollPeriod.of(lastMonth), trend.get(1).getPeriodKey().intValue());
+		assertEquals(12, trend.get(1).getHeadcount().longValue());
+		assertEquals(0, new BigDecimal("10800.00").compareTo(trend.get(1).getTotalNet()));
+	}
+
+	@Test
+	void reconciliationDetectsAndRepairsDrift() {
+		assertTrue(payrollAnalyticsService.reconcile(organization.getId(), false).isConsistent());
+
+		List<PayrollSummary> rows = payrollSummaryRepo.findByOrganizationId(organization.getId());
+		PayrollSummary tampered = rows.get(0);
+		tampered.setTotalNet(tampered.getTotalNet().add(BigDecimal.ONE));
+		payrollSummaryRepo.delete(rows.get(1));
+		payrollSummaryRepo.save(PayrollSummary.empty(organization, 199901, "Ghost"));
+		entityManager.flush();
+
+		PayrollSummaryReconciliation check = payrollAnalyticsService.reconcile(organization.getId(), false);
+		assertFalse(check.isConsistent());
+		assertEquals(6, check.getGroupsChecked());
+		assertEquals(1, check.getMismatched());
+		assertEquals(1, check.getMissing());
+		assertEquals(1, check.getOrphaned());
+		assertEquals(3, check.getDifferences().size());
+
+		assertFalse(payrollAnalyticsService.reconcile(organization.getId(), true).isConsistent());
+		entityManager.flush();
+		assertTrue(payrollAnalyticsService.reconcile(organization.getId(), false).isConsistent());
+		assertEquals(6, payrollSummaryRepo.findByOrganizationId(organization.getId()).size());
+	}
+
+	// Gross 1000.00, provident fund 100.00, net 900.00
+	private SalaryPayment payment(Employee employee, LocalDate period) {
+		return fixtures.payment(employee, period.getMonth().name(), period.getYear())
+			.department(employee.getDepartment())
+			.grossSalary(new BigDecimal("1000.00"))
+			.providentFund(new BigDecimal("100.00"))
+			.netSalary(new BigDecimal("900.00"))
+			.build();
+	}
+
+}
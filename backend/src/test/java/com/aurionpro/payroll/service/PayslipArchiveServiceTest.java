@@ -0,0 +1,144 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentStatus;
+import com.aurionpro.payroll.repo.OrganizationRepo;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+
+import jakarta.persistence.EntityManager;
+
+class PayslipArchiveServiceTest {
+
+	private PayslipArchiveService service;
+	private SalaryPaymentRepo salaryPaymentRepo;
+
+	@BeforeEach
+	void setUp() {
+		salaryPaymentRepo = mock(SalaryPaymentRepo.class);
+		PaymentRequestRepo paymentRequestRepo = mock(PaymentRequestRepo.class);
+		PaymentRequest paymentRequest = new PaymentRequest();
+		paymentRequest.setOrganization(Organization.builder().name("Acme Corp").build());
+		when(paymentRequestRepo.findById(9L)).thenReturn(Optional.of(paymentRequest));
+
+		service = new PayslipArchiveService();
+		ReflectionTestUtils.setField(service, "paymentRequestRepo", paymentRequestRepo);
+		ReflectionTestUtils.setField(service, "organizationRepo", mock(OrganizationRepo.class));
+		ReflectionTestUtils.setField(service, "salaryPaymentRepo", salaryPaymentRepo);
+		ReflectionTestUtils.setField(service, "payslipRenderer", new PayslipRenderer());
+		ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "entityManager", mock(EntityManager.class));
+		ReflectionTestUtils.setField(service, "workers", 4);
+		ReflectionTestUtils.setField(service, "window", 8);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void slipsAreStoredInCursorOrder() throws Exception {
+		when(salaryPaymentRepo.streamPayslipsByPaymentRequest(9L, PaymentStatus.COMPLETED))
+			.thenAnswer(invocation -> LongStream.rangeClosed(1, 100).mapToObj(this::payment));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.writePaymentRequestArchive(9L, out);
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				names.add(entry.getName());
+				// Reading the entry checks its stored size and CRC
+				assertTrue(new String(zip.readAllBytes(), StandardCharsets.ISO_8859_1).startsWith("%PDF"));
+			}
+		}
+
+		assertEquals(100, names.size());
+		for (int i = 0; i < names.size(); i++) {
+			assertEquals("salary_slip_" + (i + 1) + "_Employee_" + (i + 1) + "_March_2025.pdf", names.get(i));
+		}
+	}
+
+	@Test
+	void slipsThatFailToRenderAreListedInsteadOfAbortingTheArchive() throws Exception {
+		SalaryPayment broken = payment(2);
+		broken.setEmployee(null);
+		when(salaryPaymentRepo.streamPayslipsByPaymentRequest(9L, PaymentStatus.COMPLETED))
+			.thenAnswer(invocation -> Stream.of(payment(1), broken, payment(3)));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.writePaymentRequestArchive(9L, out);
+
+		List<String> names = new ArrayList<>();
+		String failures = null;
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				names.add(entry.getName());
+				if (entry.getName().equals("failed_payslips.csv")) {
+					failures = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+				}
+			}
+		}
+
+		assertEquals(List.of("salary_slip_1_Employee_1_March_2025.pdf", "salary_slip_3_Employee_3_March_2025.pdf",
+			"failed_payslips.csv"), names);
+		assertTrue(failures.contains("\n2,"), failures);
+	}
+
+	private SalaryPayment payment(long id) {
+		Employee employee = Employee.builder()
+			.id(id)
+			.name("Employee " + id)
+			.department("Engineering")
+			.designation("Developer")
+			.build();
+		return SalaryPayment.builder()
+			.id(id)
+			.employee(employee)
+			.month("March")
+			.year(2025)
+			.paymentDate(LocalDate.of(2025, 3, 5))
+			.transactionId("TXN-" + id)
+			.basicSalary(new BigDecimal("40000.00"))
+			.hra(new BigDecimal("10000.00"))
+			.dearnessAllowance(new BigDecimal("5000.00"))
+			.otherAllowances(new BigDecimal("5000.00"))
+			.grossSalary(new BigDecimal("60000.00"))
+			.providentFund(new BigDecimal("3000.00"))
+			.netSalary(new BigDecimal("57000.00"))
+			.status(PaymentStatus.COMPLETED)
+			.build();
+	}
+
+}
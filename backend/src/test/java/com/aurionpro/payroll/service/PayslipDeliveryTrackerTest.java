@@ -0,0 +1,147 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.DeliveryStatus;
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.repo.PayslipDeliveryRepo;
+
+// Stages record their outcomes from separate threads, so test data is committed instead of rolled back
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:deliveries;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ PayslipDeliveryTracker.class, ConnectionBudget.class, PayrollFixtures.class })
+class PayslipDeliveryTrackerTest {
+
+	private static final AtomicInteger ORGANIZATIONS = new AtomicInteger();
+
+	@Autowired
+	private PayslipDeliveryTracker tracker;
+
+	@Autowired
+	private PayslipDeliveryRepo payslipDeliveryRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void concurrentStageOutcomesDoNotOverwriteEachOther() throws Exception {
+		List<Long> paymentIds = seed(20);
+
+		// Render, upload and email of every slip report at the same moment
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> outcomes = new ArrayList<>();
+		for (Long paymentId : paymentIds) {
+			outcomes.add(executor.submit(() -> { start.await(); tracker.succeeded(paymentId, PayrollJobStage.PDF); return null; }));
+			outcomes.add(executor.submit(() -> { start.await(); tracker.failed(paymentId, PayrollJobStage.UPLOAD, "storage down"); return null; }));
+			outcomes.add(executor.submit(() -> { start.await(); tracker.succeeded(paymentId, PayrollJobStage.EMAIL); return null; }));
+		}
+		start.countDown();
+		for (Future<?> outcome : outcomes) {
+			outcome.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		for (Long paymentId : paymentIds) {
+			PayslipDelivery delivery = payslipDeliveryRepo.findBySalaryPaymentId(paymentId).orElseThrow();
+			assertEquals(DeliveryStatus.SUCCEEDED, delivery.getRenderStatus());
+			assertEquals(DeliveryStatus.FAILED, delivery.getUploadStatus());
+			assertEquals(DeliveryStatus.SUCCEEDED, delivery.getEmailStatus());
+			assertEquals(1, delivery.getRenderAttempts().intValue());
+			assertEquals(1, delivery.getUploadAttempts().intValue());
+			assertEquals(1, delivery.getEmailAttempts().intValue());
+			assertEquals("storage down", delivery.getLastError());
+			assertNotNull(delivery.getNextRetryAt());
+		}
+	}
+
+	@Test
+	void failuresBackOffUntilTheAttemptsAreUsedUp() {
+		ReflectionTestUtils.setField(tracker, "maxAttempts", 2);
+		try {
+			Long paymentId = seed(1).get(0);
+
+			LocalDateTime before = LocalDateTime.now();
+			tracker.failed(paymentId, PayrollJobStage.EMAIL, "smtp timeout");
+			PayslipDelivery first = payslipDeliveryRepo.findBySalaryPaymentId(paymentId).orElseThrow();
+			assertEquals(1, first.getEmailAttempts().intValue());
+			assertTrue(!first.getNextRetryAt().isBefore(before.plusSeconds(tracker.backoffSeconds(1))));
+
+			// The retry worker claims the row once it is due, only once, the retry fails again and the stage gives up
+			LocalDateTime due = first.getNextRetryAt();
+			assertEquals(0, claimForRetry(first.getId(), due.minusSeconds(1)));
+			assertEquals(1, claimForRetry(first.getId(), due));
+			assertEquals(0, claimForRetry(first.getId(), due));
+			tracker.failed(paymentId, PayrollJobStage.EMAIL, "smtp timeout");
+			PayslipDelivery second = payslipDeliveryRepo.findBySalaryPaymentId(paymentId).orElseThrow();
+			assertEquals(2, second.getEmailAttempts().intValue());
+			assertEquals(DeliveryStatus.FAILED, second.getEmailStatus());
+			assertNull(second.getNextRetryAt());
+		} finally {
+			ReflectionTestUtils.setField(tracker, "maxAttempts", 6);
+		}
+	}
+
+	// Completed payments with pending deliveries
+	private List<Long> seed(int count) {
+		String prefix = "slip" + ORGANIZATIONS.incrementAndGet();
+		List<Long> paymentIds = new ArrayList<>();
+
+		inTransaction(() -> {
+			Organization organization = fixtures.organization(prefix);
+			for (int i = 0; i < count; i++) {
+				Employee employee = fixtures.employee(organization, prefix + "emp" + i);
+				SalaryPayment payment = entityManager.persist(fixtures.payment(employee, "MARCH", 2025).build());
+				entityManager.persist(PayslipDelivery.pending(payment));
+				paymentIds.add(payment.getId());
+			}
+		});
+		return paymentIds;
+	}
+
+	private int claimForRetry(Long deliveryId, LocalDateTime now) {
+		return new TransactionTemplate(transactionManager).execute(status -> payslipDeliveryRepo.claimForRetry(deliveryId, now));
+	}
+
+	private void inTransaction(Runnable work) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+	}
+
+}
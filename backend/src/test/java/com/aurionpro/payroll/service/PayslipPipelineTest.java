@@ -0,0 +1,121 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.entity.User;
+import com.aurionpro.payroll.enums.PayrollJobStage;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+
+class PayslipPipelineTest {
+
+	private PayslipPipeline pipeline;
+	private PdfGenerationService pdfGenerationService;
+
+	// Stage work and recorded outcomes, in the order they happened
+	private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void setUp() {
+		SalaryPaymentRepo salaryPaymentRepo = mock(SalaryPaymentRepo.class);
+		when(salaryPaymentRepo.findByIdWithEmployeeDetails(anyLong())).thenAnswer(invocation -> Optional.of(
+			SalaryPayment.builder()
+				.id(invocation.getArgument(0))
+				.month("MARCH")
+				.year(2025)
+				.employee(Employee.builder()
+					.name("Asha Rao")
+					.user(User.builder().email("asha@emp.test").build())
+					.build())
+				.build()));
+
+		pdfGenerationService = mock(PdfGenerationService.class);
+		when(pdfGenerationService.generateSalarySlip(any())).thenReturn(new byte[] { 1 });
+
+		CloudinaryService cloudinaryService = mock(CloudinaryService.class);
+		when(cloudinaryService.uploadPdf(any(), anyString(), eq("salary-slips"))).thenAnswer(invocation -> {
+			events.add("upload");
+			return "https://files.example/" + invocation.getArgument(1);
+		});
+
+		EmailService emailService = mock(EmailService.class);
+		doAnswer(invocation -> events.add(invocation.getArgument(4) != null ? "email" : "email without slip"))
+			.when(emailService).sendSalaryPaymentNotification(anyString(), anyString(), anyString(), anyInt(), any());
+
+		PayslipDeliveryTracker tracker = mock(PayslipDeliveryTracker.class);
+		doAnswer(invocation -> events.add(invocation.getArgument(1) + " succeeded"))
+			.when(tracker).succeeded(anyLong(), any(PayrollJobStage.class));
+		doAnswer(invocation -> events.add(invocation.getArgument(1) + " failed"))
+			.when(tracker).failed(anyLong(), any(PayrollJobStage.class), any());
+
+		pipeline = new PayslipPipeline();
+		ReflectionTestUtils.setField(pipeline, "salaryPaymentRepo", salaryPaymentRepo);
+		ReflectionTestUtils.setField(pipeline, "pdfGenerationService", pdfGenerationService);
+		ReflectionTestUtils.setField(pipeline, "cloudinaryService", cloudinaryService);
+		ReflectionTestUtils.setField(pipeline, "emailService", emailService);
+		ReflectionTestUtils.setField(pipeline, "payslipDeliveryTracker", tracker);
+		ReflectionTestUtils.setField(pipeline, "connectionBudget", new ConnectionBudget(10, 2));
+		ReflectionTestUtils.setField(pipeline, "renderWorkers", 2);
+		ReflectionTestUtils.setField(pipeline, "uploadWorkers", 2);
+		ReflectionTestUtils.setField(pipeline, "emailWorkers", 2);
+		ReflectionTestUtils.setField(pipeline, "queueCapacity", 4);
+		pipeline.init();
+	}
+
+	@Test
+	void eachStageOutcomeIsRecordedBeforeTheNextStageStarts() throws Exception {
+		pipeline.submit(42L);
+		pipeline.shutdown();
+
+		assertEquals(List.of("PDF succeeded", "upload", "UPLOAD succeeded", "email", "EMAIL succeeded"), events);
+	}
+
+	@Test
+	void failedRenderIsRecordedAndTheEmailGoesOutWithoutSlip() throws Exception {
+		when(pdfGenerationService.generateSalarySlip(any())).thenThrow(new IllegalStateException("font missing"));
+
+		pipeline.submit(42L);
+		pipeline.shutdown();
+
+		assertEquals(List.of("PDF failed", "email without slip", "EMAIL succeeded"), events);
+	}
+
+	@Test
+	void retrySkipsStagesThatAlreadySucceeded() throws Exception {
+		pipeline.retry(42L, true, false);
+		pipeline.shutdown();
+
+		assertEquals(List.of("PDF succeeded", "email", "EMAIL succeeded"), events);
+	}
+
+	@Test
+	void failedUploadStillSendsTheEmail() throws Exception {
+		CloudinaryService failing = mock(CloudinaryService.class);
+		when(failing.uploadPdf(any(), anyString(), anyString())).thenThrow(new IllegalStateException("storage down"));
+		ReflectionTestUtils.setField(pipeline, "cloudinaryService", failing);
+
+		pipeline.submit(42L);
+		pipeline.shutdown();
+
+		assertEquals(List.of("PDF succeeded", "UPLOAD failed", "email", "EMAIL succeeded"), events);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+class PayslipRendererTest {
+
+	private final PayslipRenderer renderer = new PayslipRenderer();
+
+	@Test
+	void slipCarriesTheStaticLayoutAndThePaymentFields() throws Exception {
+		String text = text(renderer.render(payment(7L), "Acme Corp"));
+
+		assertTrue(text.contains("SALARY SLIP"), text);
+		assertTrue(text.contains("NET SALARY"), text);
+		assertTrue(text.contains("Acme Corp"), text);
+		assertTrue(text.contains("For the month of March 2025"), text);
+		assertTrue(text.contains("Employee 7"), text);
+		assertTrue(text.contains("05-03-2025"), text);
+		assertTrue(text.contains("57000.00"), text);
+		assertTrue(text.contains("Transaction ID: TXN-7"), text);
+	}
+
+	@Test
+	void slipsRenderedInParallelDoNotMixFields() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<byte[]>> slips = new ArrayList<>();
+			for (long id = 1; id <= 200; id++) {
+				SalaryPayment payment = payment(id);
+				slips.add(pool.submit(() -> renderer.render(payment, "Acme Corp")));
+			}
+			for (int i = 0; i < slips.size(); i++) {
+				List<String> lines = List.of(text(slips.get(i).get()).split("\n"));
+				assertTrue(lines.contains("Employee Name: Employee " + (i + 1)), lines.toString());
+				assertTrue(lines.contains("Employee ID: " + (i + 1)), lines.toString());
+				assertTrue(lines.contains("Transaction ID: TXN-" + (i + 1)), lines.toString());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private SalaryPayment payment(long id) {
+		Employee employee = Employee.builder()
+			.id(id)
+			.name("Employee " + id)
+			.department("Engineering")
+			.designation("Developer")
+			.build();
+		return SalaryPayment.builder()
+			.id(id)
+			.employee(employee)
+			.month("March")
+			.year(2025)
+			.paymentDate(LocalDate.of(2025, 3, 5))
+			.transactionId("TXN-" + id)
+			.basicSalary(new BigDecimal("40000.00"))
+			.hra(new BigDecimal("10000.00"))
+			.dearnessAllowance(new BigDecimal("5000.00"))
+			.otherAllowances(new BigDecimal("5000.00"))
+			.grossSalary(new BigDecimal("60000.00"))
+			.providentFund(new BigDecimal("3000.00"))
+			.netSalary(new BigDecimal("57000.00"))
+			.build();
+	}
+
+	private String text(byte[] pdf) throws Exception {
+		PdfReader reader = new PdfReader(pdf);
+		try {
+			assertEquals(1, reader.getNumberOfPages());
+			return PdfTextExtractor.getTextFromPage(reader, 1);
+		} finally {
+			reader.close();
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.aurionpro.payroll.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.aurionpro.payroll.entity.PayslipDelivery;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.DeliveryStatus;
+import com.aurionpro.payroll.repo.PayslipDeliveryRepo;
+
+class PayslipRetryWorkerTest {
+
+	@Test
+	void rowsClaimedByAnotherWorkerAreNotRetried() {
+		PayslipDeliveryRepo payslipDeliveryRepo = mock(PayslipDeliveryRepo.class);
+		when(payslipDeliveryRepo.findDueForRetry(any(), any())).thenReturn(List.of(delivery(1L, 11L), delivery(2L, 12L)));
+		// Row 2 was read by both workers, the other one claimed it first
+		when(payslipDeliveryRepo.claimForRetry(eq(1L), any())).thenReturn(1);
+		when(payslipDeliveryRepo.claimForRetry(eq(2L), any())).thenReturn(0);
+		PayslipPipeline payslipPipeline = mock(PayslipPipeline.class);
+
+		PayslipRetryWorker worker = new PayslipRetryWorker();
+		ReflectionTestUtils.setField(worker, "payslipDeliveryRepo", payslipDeliveryRepo);
+		ReflectionTestUtils.setField(worker, "payslipPipeline", payslipPipeline);
+		ReflectionTestUtils.setField(worker, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(worker, "batchSize", 100);
+		worker.init();
+
+		worker.retryFailedDeliveries();
+
+		verify(payslipPipeline).retry(11L, true, false);
+		verify(payslipPipeline, never()).retry(eq(12L), any(Boolean.class), any(Boolean.class));
+	}
+
+	private static PayslipDelivery delivery(Long id, Long salaryPaymentId) {
+		return PayslipDelivery.builder()
+			.id(id)
+			.salaryPayment(SalaryPayment.builder().id(salaryPaymentId).build())
+			.uploadStatus(DeliveryStatus.SUCCEEDED)
+			.emailStatus(DeliveryStatus.FAILED)
+			.build();
+	}
+}
@@ -0,0 +1,87 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+
+class ReportCacheTest {
+
+	private static final int PERIOD = 202503;
+
+	@Test
+	void sameVersionIsGeneratedAndUploadedOnce() {
+		ReportCache cache = new ReportCache(1 << 20, 1 << 20);
+		AtomicInteger generated = new AtomicInteger();
+		AtomicInteger uploaded = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			String url = cache.getUrl(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v1",
+				() -> bytes(generated.incrementAndGet(), 100),
+				(bytes, contentKey) -> "https://files/report-" + uploaded.incrementAndGet());
+			assertEquals("https://files/report-1", url);
+		}
+
+		assertEquals(1, generated.get());
+		assertEquals(1, uploaded.get());
+		// The upload left the bytes behind for direct downloads
+		assertNotNull(cache.peekBytes(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v1"));
+	}
+
+	@Test
+	void newDataVersionRegenerates() {
+		ReportCache cache = new ReportCache(1 << 20, 1 << 20);
+
+		cache.getBytes(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, PERIOD, "v1", () -> bytes(1, 10));
+		byte[] fresh = cache.getBytes(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, PERIOD, "v2", () -> bytes(2, 10));
+
+		assertArrayEquals(bytes(2, 10), fresh);
+		assertNull(cache.peekBytes(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, PERIOD, "v1"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvictedPastTheByteBudget() {
+		ReportCache cache = new ReportCache(3000, 3000);
+
+		cache.getBytes(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v", () -> bytes(1, 1000));
+		cache.getBytes(2L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v", () -> bytes(2, 1000));
+		// Touch org 1 so org 2 becomes the eldest
+		cache.peekBytes(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v");
+		cache.getBytes(3L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v", () -> bytes(3, 1000));
+
+		assertNotNull(cache.peekBytes(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v"));
+		assertNull(cache.peekBytes(2L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v"));
+		assertNotNull(cache.peekBytes(3L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v"));
+		assertTrue(cache.getUsedBytes() <= 3000);
+	}
+
+	@Test
+	void invalidationDropsEveryFormatOfTheReport() {
+		ReportCache cache = new ReportCache(1 << 20, 1 << 20);
+		cache.getBytes(1L, ReportType.SALARY_REPORT, ReportFormat.PDF, PERIOD, "v", () -> bytes(1, 10));
+		cache.getBytes(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, PERIOD, "v", () -> bytes(1, 10));
+		cache.getBytes(1L, ReportType.EMPLOYEE_LIST, ReportFormat.EXCEL, null, "v", () -> bytes(1, 10));
+
+		cache.invalidate(1L, ReportType.SALARY_REPORT, PERIOD);
+
+		assertEquals(1, cache.size());
+		assertNotNull(cache.peekBytes(1L, ReportType.EMPLOYEE_LIST, ReportFormat.EXCEL, null, "v"));
+	}
+
+	private byte[] bytes(int value, int length) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+
+}
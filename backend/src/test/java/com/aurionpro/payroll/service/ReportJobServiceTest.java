@@ -0,0 +1,168 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aurionpro.payroll.enums.PayrollJobState;
+import com.aurionpro.payroll.enums.ReportFormat;
+import com.aurionpro.payroll.enums.ReportType;
+import com.aurionpro.payroll.exception.BadRequestException;
+import com.aurionpro.payroll.exception.ResourceGoneException;
+import com.aurionpro.payroll.exception.ResourceNotFoundException;
+
+class ReportJobServiceTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger generations = new AtomicInteger();
+
+	private ReportJobService service;
+	private ReportCache reportCache;
+
+	@TempDir
+	Path spoolDir;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ExcelGenerationService excel = mock(ExcelGenerationService.class);
+		when(excel.generateSalaryReportExcel(any(), anyString(), any())).thenAnswer(invocation -> {
+			generations.incrementAndGet();
+			release.await(5, TimeUnit.SECONDS);
+			return new byte[] { 1, 2, 3 };
+		});
+
+		reportCache = mock(ReportCache.class);
+		when(reportCache.salaryReportVersion(eq(1L), any())).thenReturn("v1");
+
+		service = new ReportJobService();
+		ReflectionTestUtils.setField(service, "excelGenerationService", excel);
+		ReflectionTestUtils.setField(service, "pdfGenerationService", mock(PdfGenerationService.class));
+		ReflectionTestUtils.setField(service, "reportCache", reportCache);
+		ReflectionTestUtils.setField(service, "connectionBudget", new ConnectionBudget(10, 2));
+		ReflectionTestUtils.setField(service, "workers", 1);
+		ReflectionTestUtils.setField(service, "queueCapacity", 1);
+		ReflectionTestUtils.setField(service, "retentionMinutes", 30L);
+		ReflectionTestUtils.setField(service, "spoolDir", spoolDir.toString());
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		service.shutdown();
+	}
+
+	@Test
+	void identicalInFlightRequestsShareOneGeneration() throws Exception {
+		// Cache always misses
+		when(reportCache.getBytes(any(), any(), any(), any(), anyString(), any()))
+			.thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(5)).get());
+
+		ReportJob first = service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "March", 2025);
+		ReportJob second = service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "mar", 2025);
+		ReportJob third = service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "3", 2025);
+
+		assertSame(first, second);
+		assertSame(first, third);
+		assertEquals(2, first.getCoalescedRequests().get());
+
+		release.countDown();
+		awaitFinished(first);
+
+		assertEquals(PayrollJobState.COMPLETED, first.getState());
+		assertEquals(3, first.getSizeBytes().longValue());
+		assertEquals(1, generations.get());
+		assertEquals(2, service.getStats().getCoalesced());
+
+		// Once finished, a new request starts a new job
+		assertNotSame(first, service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "March", 2025));
+	}
+
+	@Test
+	void downloadsServeTheSpooledDocumentUntilItExpires() throws Exception {
+		when(reportCache.getBytes(any(), any(), any(), any(), anyString(), any()))
+			.thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(5)).get());
+		release.countDown();
+
+		ReportJob job = service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "March", 2025);
+		awaitFinished(job);
+		Path file = job.getFile();
+
+		// Served from the file even once the report cache has let it go
+		try (InputStream content = service.openContent(job)) {
+			assertArrayEquals(new byte[] { 1, 2, 3 }, content.readAllBytes());
+		}
+		assertEquals(1, generations.get());
+
+		ReflectionTestUtils.setField(service, "retentionMinutes", 0L);
+		service.evictExpiredJobs();
+
+		assertFalse(Files.exists(file));
+		assertThrows(ResourceGoneException.class, () -> service.openContent(job));
+		assertNull(job.toResponse().getDownloadUrl());
+		assertEquals(1, generations.get());
+	}
+
+	@Test
+	void invalidSubmissionsAreNotCounted() {
+		assertThrows(BadRequestException.class,
+			() -> service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "Smarch", 2025));
+		assertThrows(BadRequestException.class,
+			() -> service.submit(1L, ReportType.EMPLOYEE_LIST, ReportFormat.PDF, null, null));
+		assertEquals(0, service.getStats().getSubmitted());
+	}
+
+	@Test
+	void submissionsBeyondTheQueueAreRejected() {
+		when(reportCache.getBytes(any(), any(), any(), any(), anyString(), any()))
+			.thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(5)).get());
+
+		service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "January", 2025);    // running
+		service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "February", 2025);   // queued
+
+		assertThrows(BadRequestException.class,
+			() -> service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "March", 2025));
+		assertEquals(1, service.getStats().getRejected());
+	}
+
+	@Test
+	void jobsAreOnlyVisibleToTheirOrganization() {
+		when(reportCache.getBytes(any(), any(), any(), any(), anyString(), any())).thenReturn(new byte[0]);
+
+		ReportJob job = service.submit(1L, ReportType.SALARY_REPORT, ReportFormat.EXCEL, "March", 2025);
+
+		assertSame(job, service.getJob(1L, job.getId()));
+		assertThrows(ResourceNotFoundException.class, () -> service.getJob(2L, job.getId()));
+	}
+
+	private void awaitFinished(ReportJob job) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!job.isFinished() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+}
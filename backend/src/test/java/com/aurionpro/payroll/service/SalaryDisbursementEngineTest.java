@@ -0,0 +1,253 @@
+package com.aurionpro.payroll.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aurionpro.payroll.PayrollFixtures;
+import com.aurionpro.payroll.config.ModelMapperConfig;
+import com.aurionpro.payroll.entity.Employee;
+import com.aurionpro.payroll.entity.Organization;
+import com.aurionpro.payroll.entity.PaymentRequest;
+import com.aurionpro.payroll.entity.SalaryPayment;
+import com.aurionpro.payroll.enums.PaymentRequestStatus;
+import com.aurionpro.payroll.enums.PaymentRequestType;
+import com.aurionpro.payroll.exception.DuplicateResourceException;
+import com.aurionpro.payroll.exception.PaymentAlreadyProcessedException;
+import com.aurionpro.payroll.repo.PaymentRequestRepo;
+import com.aurionpro.payroll.repo.SalaryPaymentRepo;
+import com.aurionpro.payroll.service.SalaryDisbursementEngine.DisbursementRun;
+import com.aurionpro.payroll.util.TransactionIdGenerator;
+
+// Every chunk commits in its own transaction, so test data is committed instead of rolled back
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:disbursement;MODE=MySQL;NON_KEYWORDS=YEAR,MONTH")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SalaryDisbursementEngine.class, PayrollAnalyticsService.class, EmployeeYtdLedgerService.class,
+	TransactionIdGenerator.class, ReportCache.class, ConnectionBudget.class, ModelMapperConfig.class,
+	PayrollFixtures.class })
+class SalaryDisbursementEngineTest {
+
+	private static final AtomicInteger ORGANIZATIONS = new AtomicInteger();
+	private static final int EMPLOYEES = 7;
+
+	@Autowired
+	private SalaryDisbursementEngine engine;
+
+	@Autowired
+	private PaymentRequestRepo paymentRequestRepo;
+
+	@Autowired
+	private SalaryPaymentRepo salaryPaymentRepo;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PayrollFixtures fixtures;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoBean
+	private PayslipPipeline payslipPipeline;
+
+	@Autowired
+	private PayrollAnalyticsService payrollAnalyticsService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(engine, "chunkSize", 3);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(engine, "payrollAnalyticsService", payrollAnalyticsService);
+	}
+
+	@Test
+	void failedRunResumesAfterItsLastCommittedChunk() {
+		Long requestId = seed();
+
+		DisbursementRun first = engine.start(requestId);
+		assertEquals(EMPLOYEES, first.getRemainingEmployees());
+		assertTrue(engine.processNextChunk(first));
+
+		PaymentRequest checkpointed = paymentRequestRepo.findById(requestId).orElseThrow();
+		assertEquals(3, checkpointed.getProcessedEmployeeCount().intValue());
+		assertEquals(first.getCheckpoint(), checkpointed.getLastProcessedEmployeeId());
+
+		// The run dies; nobody else may pick the request up while it holds the lease
+		assertThrows(PaymentAlreadyProcessedException.class, () -> engine.start(requestId));
+		engine.release(first);
+
+		DisbursementRun resumed = engine.start(requestId);
+		assertEquals(first.getCheckpoint(), resumed.getCheckpoint());
+		assertEquals(EMPLOYEES - 3, resumed.getRemainingEmployees());
+		while (engine.processNextChunk(resumed)) {
+			// 3 + 1 employees left
+		}
+		engine.complete(resumed);
+
+		assertEquals(2, resumed.getChunks());
+		assertEquals(EMPLOYEES - 3, resumed.getPaid());
+		PaymentRequest completed = paymentRequestRepo.findById(requestId).orElseThrow();
+		assertEquals(PaymentRequestStatus.COMPLETED, completed.getStatus());
+		assertEquals(EMPLOYEES, completed.getProcessedEmployeeCount().intValue());
+		assertNull(completed.getProcessingOwner());
+		assertNull(completed.getProcessingLeaseUntil());
+		assertEquals(EMPLOYEES, paymentsOf(requestId));
+	}
+
+	@Test
+	void runWhoseLeaseExpiredCannotMoveTheCheckpoint() {
+		Long requestId = seed();
+
+		DisbursementRun stale = engine.start(requestId);
+		assertTrue(engine.processNextChunk(stale));
+
+		// The stale run stops renewing; once its lease is over another run takes the request
+		inTransaction(() -> paymentRequestRepo.findById(requestId).orElseThrow()
+			.setProcessingLeaseUntil(LocalDateTime.now().minusSeconds(1)));
+		DisbursementRun current = engine.start(requestId);
+		assertTrue(engine.processNextChunk(current));
+
+		assertThrows(PaymentAlreadyProcessedException.class, () -> engine.processNextChunk(stale));
+		assertThrows(PaymentAlreadyProcessedException.class, () -> engine.complete(stale));
+		engine.release(stale);     // no longer the holder - changes nothing
+
+		assertFalse(engine.processNextChunk(current));
+		engine.complete(current);
+
+		PaymentRequest completed = paymentRequestRepo.findById(requestId).orElseThrow();
+		assertEquals(PaymentRequestStatus.COMPLETED, completed.getStatus());
+		assertEquals(current.getCheckpoint(), completed.getLastProcessedEmployeeId());
+		assertEquals(EMPLOYEES, paymentsOf(requestId));
+	}
+
+	@Test
+	void chunkRolledBackByAConcurrentSummaryInsertIsRetried() {
+		Long requestId = seed();
+		AtomicInteger records = new AtomicInteger();
+		conflictAfterRecord(() -> records.getAndIncrement() == 0
+			? "Duplicate entry for key 'payroll_summary.UK_payroll_summary_org_period_department'"
+			: null);
+
+		DisbursementRun run = engine.start(requestId);
+		while (engine.processNextChunk(run)) {
+			// the first chunk is retried once
+		}
+		engine.complete(run);
+
+		assertEquals(4, records.get());
+		assertEquals(3, run.getChunks());
+		assertEquals(EMPLOYEES, run.getPaid());
+		assertEquals(EMPLOYEES, paymentsOf(requestId));
+	}
+
+	@Test
+	void employeePaidByAConcurrentRunFailsTheChunk() {
+		Long requestId = seed();
+		AtomicInteger records = new AtomicInteger();
+		conflictAfterRecord(() -> {
+			records.incrementAndGet();
+			return "Duplicate entry for key 'salary_payments.UK_salary_payment_employee_period'";
+		});
+
+		DisbursementRun run = engine.start(requestId);
+		assertThrows(DuplicateResourceException.class, () -> engine.processNextChunk(run));
+		assertEquals(1, records.get());
+		assertEquals(0, paymentsOf(requestId));
+	}
+
+	@Test
+	void periodIsUniquePerEmployeeWhateverTheMonthSpelling() {
+		Long requestId = seed();
+		DisbursementRun run = engine.start(requestId);
+		while (engine.processNextChunk(run)) {
+			// pays March 2025
+		}
+		engine.complete(run);
+
+		SalaryPayment paid = salaryPaymentRepo.findAll().stream()
+			.filter(payment -> requestId.equals(payment.getPaymentRequest().getId()))
+			.findFirst().orElseThrow();
+		assertThrows(DataIntegrityViolationException.class, () -> inTransaction(() ->
+			salaryPaymentRepo.saveAndFlush(fixtures.payment(paid.getEmployee(), "MARCH", 2025).build())));
+	}
+
+	// An approved March 2025 salary request of a new organization with EMPLOYEES paid employees
+	private Long seed() {
+		String prefix = "run" + ORGANIZATIONS.incrementAndGet();
+		List<Long> ids = new ArrayList<>();
+
+		inTransaction(() -> {
+			Organization organization = fixtures.organization(prefix);
+			for (int i = 0; i < EMPLOYEES; i++) {
+				Employee employee = fixtures.employee(organization, prefix + "emp" + i, i % 2 == 0 ? "Engineering" : "Sales");
+				entityManager.persist(fixtures.salaryStructure(employee).build());
+			}
+			ids.add(entityManager.persist(PaymentRequest.builder()
+				.organization(organization)
+				.requestType(PaymentRequestType.SALARY_DISBURSEMENT)
+				.totalAmount(new BigDecimal("6300.00"))
+				.employeeCount(EMPLOYEES)
+				.month("March")
+				.year(2025)
+				.status(PaymentRequestStatus.APPROVED)
+				.build()).getId());
+		});
+		return ids.get(0);
+	}
+
+	// Summary rows are recorded, then the chunk fails with the violation message unless it is null
+	private void conflictAfterRecord(Supplier<String> violation) {
+		ReflectionTestUtils.setField(engine, "payrollAnalyticsService", new PayrollAnalyticsService() {
+			@Override
+			public void record(Organization organization, Integer periodKey, List<SalaryPayment> payments) {
+				payrollAnalyticsService.record(organization, periodKey, payments);
+				String message = violation.get();
+				if (message != null) {
+					throw new DataIntegrityViolationException(message);
+				}
+			}
+		});
+	}
+
+	private long paymentsOf(Long requestId) {
+		return salaryPaymentRepo.findAll().stream()
+			.map(SalaryPayment::getPaymentRequest)
+			.filter(paymentRequest -> paymentRequest != null && requestId.equals(paymentRequest.getId()))
+			.count();
+	}
+
+	private void inTransaction(Runnable work) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+	}
+
+}
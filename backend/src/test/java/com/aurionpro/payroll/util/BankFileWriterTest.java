@@ -0,0 +1,89 @@
+package com.aurionpro.payroll.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class BankFileWriterTest {
+
+	@Test
+	void writesHeaderDetailsAndControlTotals() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BankFileWriter writer = new BankFileWriter(Channels.newChannel(out));
+
+		writer.writeHeader(42, "Acme, Inc", 202503, LocalDate.of(2025, 3, 31));
+		writer.writeDetail("TXN1", "HDFC0001234", "000123", "Asha \"A\" Rao", new BigDecimal("1500.50"));
+		writer.writeDetail("TXN2", "SBIN0005678", "456", "Ravi Kumar", new BigDecimal("99.5"));
+		writer.writeTrailer();
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals("H,SALARY,42,\"Acme, Inc\",202503,20250331", lines[0]);
+		assertEquals("D,1,TXN1,HDFC0001234,000123,\"Asha \"\"A\"\" Rao\",1500.50", lines[1]);
+		assertEquals("D,2,TXN2,SBIN0005678,456,Ravi Kumar,99.50", lines[2]);
+		assertEquals("T,2,1600.00,579", lines[3]);
+		assertEquals(4, lines.length);
+	}
+
+	@Test
+	void nonAsciiNamesAreUtf8Encoded() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BankFileWriter writer = new BankFileWriter(Channels.newChannel(out));
+
+		writer.writeDetail("TXN1", "HDFC0001234", "1", "Zoë Müller", new BigDecimal("1.00"));
+		writer.writeTrailer();
+
+		assertEquals("D,1,TXN1,HDFC0001234,1,Zoë Müller,1.00", out.toString(StandardCharsets.UTF_8).split("\n")[0]);
+	}
+
+	@Test
+	void halfAMillionRowsStreamThroughFixedBuffers() throws Exception {
+		CountingChannel channel = new CountingChannel();
+		BankFileWriter writer = new BankFileWriter(channel);
+		BigDecimal amount = new BigDecimal("12345.67");
+
+		writer.writeHeader(1, "Org", 202503, LocalDate.of(2025, 3, 31));
+		for (int i = 0; i < 500_000; i++) {
+			writer.writeDetail("TXN" + i, "HDFC0001234", "1234567890", "Employee Name", amount);
+		}
+		writer.writeTrailer();
+
+		assertEquals(500_000, writer.getRecords());
+		assertEquals(new BigDecimal("6172835000.00"), writer.getTotalAmount());
+		assertEquals(500_000L * 1234567890L % 1_000_000_000_000_000L, writer.getAccountHashTotal());
+		assertEquals(500_002, channel.lines);
+	}
+
+	// Discards the bytes, counting lines
+	private static class CountingChannel implements WritableByteChannel {
+		private long lines;
+
+		@Override
+		public int write(ByteBuffer src) {
+			int written = src.remaining();
+			while (src.hasRemaining()) {
+				if (src.get() == '\n') {
+					lines++;
+				}
+			}
+			return written;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
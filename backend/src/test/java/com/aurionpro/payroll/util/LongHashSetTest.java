@@ -0,0 +1,53 @@
+package com.aurionpro.payroll.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+	@Test
+	void containsOnlyAddedValues() {
+		LongHashSet set = LongHashSet.of(List.of(1L, 7L, 42L, 0L));
+
+		assertTrue(set.contains(1L));
+		assertTrue(set.contains(42L));
+		assertTrue(set.contains(0L));
+		assertFalse(set.contains(2L));
+		assertEquals(4, set.size());
+	}
+
+	@Test
+	void ignoresDuplicates() {
+		LongHashSet set = new LongHashSet();
+
+		assertTrue(set.add(5L));
+		assertFalse(set.add(5L));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	void matchesHashSetAcrossResizes() {
+		Random random = new Random(42);
+		Set<Long> expected = new HashSet<>();
+		LongHashSet set = new LongHashSet(4);
+
+		for (int i = 0; i < 100_000; i++) {
+			long value = random.nextInt(200_000);
+			assertEquals(expected.add(value), set.add(value));
+		}
+
+		assertEquals(expected.size(), set.size());
+		for (long value = 0; value < 200_000; value++) {
+			assertEquals(expected.contains(value), set.contains(value));
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.aurionpro.payroll.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.aurionpro.payroll.enums.PeriodRange;
+
+class PayrollPeriodTest {
+
+	@Test
+	void parsesMonthNamesAndNumbers() {
+		assertEquals(202501, PayrollPeriod.toKey("January", 2025));
+		assertEquals(202509, PayrollPeriod.toKey("sep", 2025));
+		assertEquals(202512, PayrollPeriod.toKey("12", 2025));
+		assertNull(PayrollPeriod.toKey("Smarch", 2025));
+		assertNull(PayrollPeriod.toKey("13", 2025));
+		assertNull(PayrollPeriod.toKey("March", null));
+	}
+
+	@Test
+	void keysSortChronologically() {
+		assertTrue(PayrollPeriod.toKey("December", 2024) < PayrollPeriod.toKey("April", 2025));
+		assertEquals("December", PayrollPeriod.monthName(202412));
+	}
+
+	@Test
+	void rangesCrossYearBoundaries() {
+		assertEquals(202412, PayrollPeriod.minusMonths(202503, 3));
+		assertArrayEquals(new int[] { 202404, 202503 },
+			PayrollPeriod.range(PeriodRange.LAST_12_MONTHS, LocalDate.of(2025, 3, 15)));
+		assertArrayEquals(new int[] { 202404, 202503 },
+			PayrollPeriod.range(PeriodRange.FINANCIAL_YEAR_TO_DATE, LocalDate.of(2025, 3, 15)));
+		assertArrayEquals(new int[] { 202504, 202504 },
+			PayrollPeriod.range(PeriodRange.FINANCIAL_YEAR_TO_DATE, LocalDate.of(2025, 4, 1)));
+	}
+
+	@Test
+	void financialYearStartsInApril() {
+		assertEquals(2024, PayrollPeriod.financialYear(202503));
+		assertEquals(2025, PayrollPeriod.financialYear(202504));
+		assertEquals("2024-25", PayrollPeriod.financialYearLabel(2024));
+		assertEquals("2099-00", PayrollPeriod.financialYearLabel(2099));
+	}
+}
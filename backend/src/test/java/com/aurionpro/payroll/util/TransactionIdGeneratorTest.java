@@ -0,0 +1,81 @@
+package com.aurionpro.payroll.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionIdGeneratorTest {
+
+	@Test
+	void idsAreUniqueAcrossThreadsAndIncreasingPerThread() throws Exception {
+		TransactionIdGenerator generator = new TransactionIdGenerator(1);
+		int threads = 8;
+		int perThread = 50_000;
+		Set<Long> ids = ConcurrentHashMap.newKeySet(threads * perThread);
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					long previous = Long.MIN_VALUE;
+					boolean increasing = true;
+					for (int i = 0; i < perThread; i++) {
+						long id = generator.nextId();
+						increasing &= id > previous;
+						previous = id;
+						ids.add(id);
+					}
+					return increasing;
+				}));
+			}
+			start.countDown();
+
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(threads * perThread, ids.size());
+	}
+
+	@Test
+	void nodesNeverCollide() {
+		long a = new TransactionIdGenerator(1).nextId();
+		long b = new TransactionIdGenerator(2).nextId();
+
+		assertNotEquals(a, b);
+		assertEquals(1, (a >>> 12) & 0x3FF);
+		assertEquals(2, (b >>> 12) & 0x3FF);
+	}
+
+	@Test
+	void prefixesIdentifyPaymentType() {
+		TransactionIdGenerator generator = new TransactionIdGenerator(0);
+
+		assertTrue(generator.nextSalaryTransactionId().startsWith("TXN"));
+		assertTrue(generator.nextVendorTransactionId().startsWith("VTX"));
+	}
+
+	@Test
+	void rejectsNodeIdOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(1024));
+		assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(-1));
+	}
+}
@@ -1,8 +1,9 @@
-import { Component, OnInit, inject } from '@angular/core';
+import { Component, OnDestroy, OnInit, inject } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { ActivatedRoute, Router, RouterLink } from '@angular/router';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { HttpClient } from '@angular/common/http';
+import { Subscription, switchMap, takeWhile, timer } from 'rxjs';
 import { environment } from '../../../../environments/environment';
 import { NavbarComponent } from '../../../shared/components/navbar/navbar.component';
 import { AlertService } from '../../../core/services/alert.service';
@@ -17,7 +18,7 @@ import { SidebarComponent } from '../../../shared/components/sidebar/sidebar.com
   templateUrl: './admin-payment-detail.component.html',
   styleUrls: ['./admin-payment-detail.component.css']
 })
-export class AdminPaymentDetailComponent implements OnInit {
+export class AdminPaymentDetailComponent implements OnInit, OnDestroy {
   private route = inject(ActivatedRoute);
   private http = inject(HttpClient);
   private router = inject(Router);
@@ -27,7 +28,9 @@ export class AdminPaymentDetailComponent implements OnInit {
   paymentRequest: PaymentRequest | null = null;
   loading = true;
   processing = false;
+  jobProgress: any = null;
   requestId!: number;
+  private jobPolling?: Subscription;
 
   rejectionForm!: FormGroup;
   showRejectionModal = false;
@@ -44,6 +47,10 @@ export class AdminPaymentDetailComponent implements OnInit {
     this.loadPaymentRequest();
   }
 
+  ngOnDestroy(): void {
+    this.jobPolling?.unsubscribe();
+  }
+
   loadPaymentRequest(): void {
     this.http.get<PaymentRequest>(`${environment.apiUrl}/admin/payment-requests/${this.requestId}`).subscribe({
       next: (data) => {
@@ -152,12 +159,11 @@ export class AdminPaymentDetailComponent implements OnInit {
 
   this.processing = true;
 
-  this.http.post(`${environment.apiUrl}/salary-payments/process/${this.requestId}`, {}).subscribe({
-    next: (response: any) => {
-      console.log('✅ Payment processed successfully:', response);
-      this.processing = false;
-      this.alertService.success(`Payment processed successfully for ${response.length} employees`);
-      this.loadPaymentRequest(); // Reload to show updated status
+  this.http.post(`${environment.apiUrl}/salary-payments/jobs/${this.requestId}`, {}).subscribe({
+    next: (job: any) => {
+      console.log('⚙️ Payment processing started:', job);
+      this.loadPaymentRequest(); // Show PROCESSING status
+      this.pollPaymentJob(job.jobId);
     },
     error: (error) => {
       this.processing = false;
@@ -171,4 +177,32 @@ export class AdminPaymentDetailComponent implements OnInit {
     }
   });
 }
-}
\ No newline at end of file
+
+  // Processing runs in the background; poll until the job finishes or the page is left
+  private pollPaymentJob(jobId: string): void {
+    this.jobPolling?.unsubscribe();
+    this.jobPolling = timer(0, 2000).pipe(
+      switchMap(() => this.http.get<any>(`${environment.apiUrl}/salary-payments/jobs/${jobId}`)),
+      takeWhile((job) => job.state !== 'COMPLETED' && job.state !== 'FAILED', true)
+    ).subscribe({
+      next: (job) => {
+        this.jobProgress = job;
+
+        if (job.state === 'COMPLETED') {
+          this.processing = false;
+          this.alertService.success(`Payment processed successfully for ${job.processed} employees`);
+          this.loadPaymentRequest();
+        } else if (job.state === 'FAILED') {
+          this.processing = false;
+          this.alertService.error(job.error || 'Failed to process payment');
+          this.loadPaymentRequest();
+        }
+      },
+      error: (error) => {
+        this.processing = false;
+        console.error('❌ Error reading payment job:', error);
+        this.alertService.error('Lost track of payment processing, please refresh');
+      }
+    });
+  }
+}